@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.money.CurrencyUnit;
+
+/**
+ * Central registry assigning each currency code a dense {@code int} id,
+ * starting with {@code 0} in the order of registration. Ids can be used
+ * instead of currency codes as keys of caches, arrays, bit sets and columnar
+ * structures.
+ * <p>
+ * Codes consisting of three upper case ASCII letters, as all ISO 4217 codes
+ * do, are resolved by a perfect hash: the letters are mapped directly into a
+ * table covering all 17576 possible codes, so lookups need no hashing,
+ * comparison or allocation. Other codes are resolved by a {@link Map}.
+ * <p>
+ * Ids are stable for the lifetime of the JVM, but not across JVMs. For each
+ * code the {@link CurrencyUnit} registered first is kept. This class is
+ * thread-safe; lookups are lock-free.
+ */
+public final class CurrencyIds {
+
+	/** The number of possible three letter codes. */
+	private static final int CODE_SPACE = 26 * 26 * 26;
+	/** The ids + 1 of three letter codes, 0 for codes not registered. */
+	private static final AtomicIntegerArray TABLE = new AtomicIntegerArray(
+			CODE_SPACE);
+	/** The ids of codes not consisting of three upper case letters. */
+	private static final Map<String, Integer> OTHER_IDS = new ConcurrentHashMap<>();
+	/** Lock used for registration. */
+	private static final Object LOCK = new Object();
+	/** The units, by id. */
+	private static volatile CurrencyUnit[] units = new CurrencyUnit[512];
+	/** The number of ids assigned. */
+	private static volatile int size;
+
+	/**
+	 * Singleton constructor.
+	 */
+	private CurrencyIds() {
+	}
+
+	/**
+	 * Registers the given currency, if its code is not yet registered.
+	 * 
+	 * @param unit
+	 *            the currency, not {@code null}.
+	 * @return the currency code's id.
+	 */
+	public static int register(CurrencyUnit unit) {
+		String code = unit.getCurrencyCode();
+		int id = getId(code);
+		if (id >= 0) {
+			return id;
+		}
+		synchronized (LOCK) {
+			id = getId(code);
+			if (id >= 0) {
+				return id;
+			}
+			id = size;
+			CurrencyUnit[] current = units;
+			if (id == current.length) {
+				current = Arrays.copyOf(current, current.length * 2);
+			}
+			current[id] = unit;
+			units = current;
+			size = id + 1;
+			// publish the id last, so readers finding it see the unit
+			int slot = slot(code);
+			if (slot >= 0) {
+				TABLE.set(slot, id + 1);
+			} else {
+				OTHER_IDS.put(code, id);
+			}
+			return id;
+		}
+	}
+
+	/**
+	 * Registers all given currencies.
+	 * 
+	 * @param units
+	 *            the currencies, not {@code null}.
+	 */
+	public static void registerAll(Iterable<? extends CurrencyUnit> units) {
+		for (CurrencyUnit unit : units) {
+			register(unit);
+		}
+	}
+
+	/**
+	 * Access the id of a currency code.
+	 * 
+	 * @param code
+	 *            the currency code, not {@code null}.
+	 * @return the id, or -1, if the code is not registered.
+	 */
+	public static int getId(CharSequence code) {
+		int slot = slot(code);
+		if (slot >= 0) {
+			return TABLE.get(slot) - 1;
+		}
+		Integer id = OTHER_IDS.get(code.toString());
+		if (id == null) {
+			return -1;
+		}
+		return id;
+	}
+
+	/**
+	 * Access the id of a currency.
+	 * 
+	 * @param unit
+	 *            the currency, not {@code null}.
+	 * @return the id, or -1, if the currency's code is not registered.
+	 */
+	public static int getId(CurrencyUnit unit) {
+		return getId(unit.getCurrencyCode());
+	}
+
+	/**
+	 * Access the currency registered with the given id.
+	 * 
+	 * @param id
+	 *            the id.
+	 * @return the currency, never {@code null}.
+	 * @throws IllegalArgumentException
+	 *             if the id is not assigned.
+	 */
+	public static CurrencyUnit getCurrency(int id) {
+		if (id < 0 || id >= size) {
+			throw new IllegalArgumentException("Invalid currency id: " + id);
+		}
+		return units[id];
+	}
+
+	/**
+	 * Access the currency code with the given id.
+	 * 
+	 * @param id
+	 *            the id.
+	 * @return the currency code, never {@code null}.
+	 * @throws IllegalArgumentException
+	 *             if the id is not assigned.
+	 */
+	public static String getCode(int id) {
+		return getCurrency(id).getCurrencyCode();
+	}
+
+	/**
+	 * Get the number of ids assigned. All ids are smaller than this value.
+	 * 
+	 * @return the number of ids.
+	 */
+	public static int size() {
+		return size;
+	}
+
+	/**
+	 * Evaluates the table slot of a three letter code.
+	 * 
+	 * @return the slot, or -1, if the code does not consist of three upper
+	 *         case ASCII letters.
+	 */
+	private static int slot(CharSequence code) {
+		if (code.length() != 3) {
+			return -1;
+		}
+		int c0 = code.charAt(0) - 'A';
+		int c1 = code.charAt(1) - 'A';
+		int c2 = code.charAt(2) - 'A';
+		if ((c0 | c1 | c2) < 0 || c0 >= 26 || c1 >= 26 || c2 >= 26) {
+			return -1;
+		}
+		return (c0 * 26 + c1) * 26 + c2;
+	}
+
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.money.CurrencyUnit;
+
+import org.javamoney.currencies.spi.CurrencyUnitMapperSpi;
+
+/**
+ * {@link CurrencyUnitMapperSpi} backed by an index of time based mappings. For
+ * each source {@link CurrencyUnit} and target namespace the mappings are held
+ * as sorted, non overlapping validity intervals, so a mapping is looked up by
+ * binary search over the interval starts.
+ * <p>
+ * Intervals are defined in milliseconds since the epoch, with an inclusive
+ * start and an exclusive end. {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE}
+ * can be used for intervals open to the past or future. Mapping without a
+ * timestamp uses the current time.
+ * <p>
+ * Instances are created using a {@link Builder}. This class is immutable and
+ * thread-safe.
+ */
+public final class CurrencyMappingIndex implements CurrencyUnitMapperSpi {
+
+	/** The intervals, by source unit and target namespace. */
+	private final Map<CurrencyUnit, Map<String, Intervals>> index;
+
+	private CurrencyMappingIndex(Builder builder) {
+		Map<CurrencyUnit, Map<String, Intervals>> newIndex = new HashMap<>();
+		for (Map.Entry<CurrencyUnit, Map<String, List<Mapping>>> sourceEntry : builder.mappings
+				.entrySet()) {
+			Map<String, Intervals> nsMap = new HashMap<>();
+			for (Map.Entry<String, List<Mapping>> nsEntry : sourceEntry
+					.getValue().entrySet()) {
+				nsMap.put(nsEntry.getKey(), new Intervals(sourceEntry.getKey(),
+						nsEntry.getValue()));
+			}
+			newIndex.put(sourceEntry.getKey(), nsMap);
+		}
+		this.index = newIndex;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.currencies.spi.CurrencyUnitMapperSpi#map(javax.money.CurrencyUnit
+	 * , java.lang.String, java.lang.Long)
+	 */
+	@Override
+	public CurrencyUnit map(CurrencyUnit currencyUnit, String targetNamespace,
+			Long timestamp) {
+		Intervals intervals = getIntervals(currencyUnit, targetNamespace);
+		if (intervals == null) {
+			return null;
+		}
+		int pos = intervals.find(timestamp != null ? timestamp : System
+				.currentTimeMillis());
+		if (pos < 0) {
+			return null;
+		}
+		return intervals.targets[pos];
+	}
+
+	/**
+	 * Maps the given {@link CurrencyUnit} for several timestamps. Entries of
+	 * {@code results} that are not {@code null} are left unchanged, so
+	 * several mappers can be applied in order of precedence. Subsequent
+	 * timestamps within the same interval are resolved without searching, so
+	 * sorted timestamps are mapped in linear time.
+	 * 
+	 * @param currencyUnit
+	 *            The source unit, never {@code null}.
+	 * @param targetNamespace
+	 *            the target namespace, never {@code null}.
+	 * @param timestamps
+	 *            the timestamps, never {@code null}.
+	 * @param results
+	 *            the array receiving the mapped units, with at least the
+	 *            length of {@code timestamps}. Unmapped entries remain
+	 *            {@code null}.
+	 */
+	public void map(CurrencyUnit currencyUnit, String targetNamespace,
+			long[] timestamps, CurrencyUnit[] results) {
+		if (results.length < timestamps.length) {
+			throw new IllegalArgumentException("results too small: "
+					+ results.length + " < " + timestamps.length);
+		}
+		Intervals intervals = getIntervals(currencyUnit, targetNamespace);
+		if (intervals == null) {
+			return;
+		}
+		int last = -1;
+		for (int i = 0; i < timestamps.length; i++) {
+			if (results[i] != null) {
+				continue;
+			}
+			long timestamp = timestamps[i];
+			if (last < 0 || !intervals.contains(last, timestamp)) {
+				last = intervals.find(timestamp);
+			}
+			if (last >= 0) {
+				results[i] = intervals.targets[last];
+			}
+		}
+	}
+
+	/**
+	 * Checks if the mapping of the given {@link CurrencyUnit} depends on the
+	 * timestamp, so results mapped without timestamp, for the current time,
+	 * may change over time.
+	 * 
+	 * @param currencyUnit
+	 *            The source unit, never {@code null}.
+	 * @param targetNamespace
+	 *            the target namespace, never {@code null}.
+	 * @return {@code true}, if mappings are defined, but not by a single
+	 *         interval unlimited in both directions.
+	 */
+	public boolean isTimeDependent(CurrencyUnit currencyUnit,
+			String targetNamespace) {
+		Intervals intervals = getIntervals(currencyUnit, targetNamespace);
+		if (intervals == null) {
+			return false;
+		}
+		return intervals.starts.length != 1
+				|| intervals.starts[0] != Long.MIN_VALUE
+				|| intervals.ends[0] != Long.MAX_VALUE;
+	}
+
+	private Intervals getIntervals(CurrencyUnit currencyUnit,
+			String targetNamespace) {
+		Map<String, Intervals> nsMap = index.get(currencyUnit);
+		if (nsMap == null) {
+			return null;
+		}
+		return nsMap.get(targetNamespace);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "CurrencyMappingIndex [sources=" + index.keySet() + "]";
+	}
+
+	/**
+	 * The sorted, non overlapping intervals of one source unit and target
+	 * namespace.
+	 */
+	private static final class Intervals {
+		private final long[] starts;
+		private final long[] ends;
+		private final CurrencyUnit[] targets;
+
+		Intervals(CurrencyUnit source, List<Mapping> mappings) {
+			List<Mapping> sorted = new ArrayList<>(mappings);
+			Collections.sort(sorted, new Comparator<Mapping>() {
+				@Override
+				public int compare(Mapping m1, Mapping m2) {
+					return Long.compare(m1.from, m2.from);
+				}
+			});
+			int size = sorted.size();
+			starts = new long[size];
+			ends = new long[size];
+			targets = new CurrencyUnit[size];
+			for (int i = 0; i < size; i++) {
+				Mapping mapping = sorted.get(i);
+				if (i > 0 && mapping.from < ends[i - 1]) {
+					throw new IllegalArgumentException(
+							"Overlapping mappings for " + source + ": "
+									+ sorted.get(i - 1) + ", " + mapping);
+				}
+				starts[i] = mapping.from;
+				ends[i] = mapping.to;
+				targets[i] = mapping.target;
+			}
+		}
+
+		boolean contains(int pos, long timestamp) {
+			return timestamp >= starts[pos] && timestamp < ends[pos];
+		}
+
+		/**
+		 * Finds the interval containing the given timestamp.
+		 * 
+		 * @return the interval's position, or -1.
+		 */
+		int find(long timestamp) {
+			int low = 0;
+			int high = starts.length - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				if (starts[mid] <= timestamp) {
+					low = mid + 1;
+				} else {
+					high = mid - 1;
+				}
+			}
+			// high is the last interval starting at or before the timestamp
+			if (high >= 0 && timestamp < ends[high]) {
+				return high;
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * A single mapping added to the {@link Builder}.
+	 */
+	private static final class Mapping {
+		private final long from;
+		private final long to;
+		private final CurrencyUnit target;
+
+		Mapping(long from, long to, CurrencyUnit target) {
+			this.from = from;
+			this.to = to;
+			this.target = target;
+		}
+
+		@Override
+		public String toString() {
+			return "[" + from + ", " + to + ") -> " + target;
+		}
+	}
+
+	/**
+	 * Builder for creating a {@link CurrencyMappingIndex}.
+	 */
+	public static final class Builder {
+
+		private final Map<CurrencyUnit, Map<String, List<Mapping>>> mappings = new HashMap<>();
+
+		/**
+		 * Adds a mapping valid within the given interval.
+		 * 
+		 * @param source
+		 *            the source unit, not {@code null}.
+		 * @param targetNamespace
+		 *            the target namespace, not {@code null}.
+		 * @param from
+		 *            the interval's start, inclusive.
+		 * @param to
+		 *            the interval's end, exclusive.
+		 * @param target
+		 *            the target unit, not {@code null}.
+		 * @return this builder, for chaining.
+		 */
+		public Builder addMapping(CurrencyUnit source, String targetNamespace,
+				long from, long to, CurrencyUnit target) {
+			if (source == null || targetNamespace == null || target == null) {
+				throw new IllegalArgumentException(
+						"source, targetNamespace and target are required.");
+			}
+			if (from >= to) {
+				throw new IllegalArgumentException("Invalid interval: ["
+						+ from + ", " + to + ")");
+			}
+			Map<String, List<Mapping>> nsMap = mappings.get(source);
+			if (nsMap == null) {
+				nsMap = new HashMap<>();
+				mappings.put(source, nsMap);
+			}
+			List<Mapping> list = nsMap.get(targetNamespace);
+			if (list == null) {
+				list = new ArrayList<>();
+				nsMap.put(targetNamespace, list);
+			}
+			list.add(new Mapping(from, to, target));
+			return this;
+		}
+
+		/**
+		 * Adds a mapping without time restriction.
+		 * 
+		 * @param source
+		 *            the source unit, not {@code null}.
+		 * @param targetNamespace
+		 *            the target namespace, not {@code null}.
+		 * @param target
+		 *            the target unit, not {@code null}.
+		 * @return this builder, for chaining.
+		 */
+		public Builder addMapping(CurrencyUnit source, String targetNamespace,
+				CurrencyUnit target) {
+			return addMapping(source, targetNamespace, Long.MIN_VALUE,
+					Long.MAX_VALUE, target);
+		}
+
+		/**
+		 * Creates the index.
+		 * 
+		 * @return the new index, never {@code null}.
+		 * @throws IllegalArgumentException
+		 *             if mappings for the same source unit and target
+		 *             namespace overlap.
+		 */
+		public CurrencyMappingIndex build() {
+			return new CurrencyMappingIndex(this);
+		}
+	}
+
+}
@@ -15,12 +15,21 @@
  */
 package org.javamoney.currencies;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import javax.money.CurrencyUnit;
 import javax.money.UnknownCurrencyException;
 import javax.money.spi.Bootstrap;
 
+import org.javamoney.currencies.spi.AbstractCurrencyMappingsSingletonSpi;
 import org.javamoney.currencies.spi.CurrencyMappingsSingletonSpi;
 
 /**
@@ -36,8 +45,8 @@ import org.javamoney.currencies.spi.CurrencyMappingsSingletonSpi;
  */
 public final class CurrencyMappings {
 
-	private static final CurrencyMappingsSingletonSpi CURRENCIES_SPI = Bootstrap
-			.getService(CurrencyMappingsSingletonSpi.class);
+	private static final AbstractCurrencyMappingsSingletonSpi CURRENCIES_SPI = adapt(Bootstrap
+			.getService(CurrencyMappingsSingletonSpi.class));
 
 	/**
 	 * Singleton constructor.
@@ -45,6 +54,29 @@ public final class CurrencyMappings {
 	private CurrencyMappings() {
 	}
 
+	/**
+	 * Adapts an SPI not extending {@link AbstractCurrencyMappingsSingletonSpi},
+	 * so the batch mappings are available for all implementations.
+	 */
+	static AbstractCurrencyMappingsSingletonSpi adapt(
+			CurrencyMappingsSingletonSpi spi) {
+		if (spi instanceof AbstractCurrencyMappingsSingletonSpi) {
+			return (AbstractCurrencyMappingsSingletonSpi) spi;
+		}
+		return new SpiAdapter(spi);
+	}
+
+	/**
+	 * Discards the data cached by the registered
+	 * {@link CurrencyMappingsSingletonSpi}, e.g. after a currency provider has
+	 * refreshed its data.
+	 * 
+	 * @see AbstractCurrencyMappingsSingletonSpi#reload()
+	 */
+	public static void reload() {
+		CURRENCIES_SPI.reload();
+	}
+
 	/**
 	 * This method allows to evaluate, if the given currency namespace is
 	 * defined. "ISO-4217" should be defined in all environments (default).
@@ -139,4 +171,201 @@ public final class CurrencyMappings {
 		return CURRENCIES_SPI.map(currencyUnit, targetNamespace, timestamp);
 	}
 
+	/**
+	 * This method maps the given {@link CurrencyUnit} to other
+	 * {@link CurrencyUnit} instances with the given target namespace, for
+	 * several timestamps at once.
+	 * 
+	 * @param unit
+	 *            The source unit, never {@code null}.
+	 * @param targetNamespace
+	 *            the target namespace, never {@code null}.
+	 * @param timestamps
+	 *            the target timestamps, never {@code null}.
+	 * @return The mapped {@link CurrencyUnit} instances, in the order of the
+	 *         timestamps, containing {@code null} for timestamps without
+	 *         mapping.
+	 */
+	public static CurrencyUnit[] map(CurrencyUnit currencyUnit,
+			String targetNamespace, long[] timestamps) {
+		return CURRENCIES_SPI.map(currencyUnit, targetNamespace, timestamps);
+	}
+
+	/**
+	 * This method maps several {@link CurrencyUnit} instances to the given
+	 * target namespace at once. Each distinct currency is resolved only once.
+	 * 
+	 * @param currencyUnits
+	 *            The source units, never {@code null}. {@code null} elements
+	 *            are allowed.
+	 * @param targetNamespace
+	 *            the target namespace, never {@code null}.
+	 * @return The mapped {@link CurrencyUnit} instances, in the order of the
+	 *         source units, containing {@code null} for units without
+	 *         mapping.
+	 */
+	public static CurrencyUnit[] mapAll(CurrencyUnit[] currencyUnits,
+			String targetNamespace) {
+		return CURRENCIES_SPI.mapAll(currencyUnits, targetNamespace);
+	}
+
+	/**
+	 * This method maps several {@link CurrencyUnit} instances to the given
+	 * target namespace at once. Each distinct currency is resolved only once.
+	 * 
+	 * @param currencyUnits
+	 *            The source units, never {@code null}. {@code null} elements
+	 *            are allowed.
+	 * @param targetNamespace
+	 *            the target namespace, never {@code null}.
+	 * @return The mapped {@link CurrencyUnit} instances, in the order of the
+	 *         source units, containing {@code null} for units without
+	 *         mapping.
+	 */
+	public static List<CurrencyUnit> mapAll(
+			Iterable<? extends CurrencyUnit> currencyUnits,
+			String targetNamespace) {
+		if (currencyUnits == null) {
+			throw new IllegalArgumentException("currencyUnits is required.");
+		}
+		CurrencyUnit[] units;
+		if (currencyUnits instanceof Collection) {
+			Collection<? extends CurrencyUnit> collection = (Collection<? extends CurrencyUnit>) currencyUnits;
+			units = collection.toArray(new CurrencyUnit[collection.size()]);
+		} else {
+			List<CurrencyUnit> list = new ArrayList<CurrencyUnit>();
+			for (CurrencyUnit unit : currencyUnits) {
+				list.add(unit);
+			}
+			units = list.toArray(new CurrencyUnit[list.size()]);
+		}
+		return Arrays.asList(CURRENCIES_SPI.mapAll(units, targetNamespace));
+	}
+
+	/**
+	 * This method maps a stream of {@link CurrencyUnit} instances to the given
+	 * target namespace. The units are mapped lazily while iterating, each
+	 * distinct currency is resolved only once per returned iterator.
+	 * 
+	 * @param currencyUnits
+	 *            The source units, never {@code null}. {@code null} elements
+	 *            are allowed.
+	 * @param targetNamespace
+	 *            the target namespace, never {@code null}.
+	 * @return an iterator over the mapped {@link CurrencyUnit} instances, in
+	 *         the order of the source units, returning {@code null} for units
+	 *         without mapping. The iterator does not support removal.
+	 */
+	public static Iterator<CurrencyUnit> mapAll(
+			Iterator<? extends CurrencyUnit> currencyUnits,
+			String targetNamespace) {
+		if (currencyUnits == null) {
+			throw new IllegalArgumentException("currencyUnits is required.");
+		}
+		if (targetNamespace == null) {
+			throw new IllegalArgumentException("targetNamespace is required.");
+		}
+		return new MappingIterator(currencyUnits, targetNamespace);
+	}
+
+	/**
+	 * Iterator mapping the units of another iterator, caching the results of
+	 * the distinct units.
+	 */
+	private static final class MappingIterator implements
+			Iterator<CurrencyUnit> {
+		private final Iterator<? extends CurrencyUnit> units;
+		private final String targetNamespace;
+		private final Map<CurrencyUnit, CurrencyUnit> resolved = new HashMap<CurrencyUnit, CurrencyUnit>();
+		private CurrencyUnit last;
+		private CurrencyUnit lastResult;
+
+		MappingIterator(Iterator<? extends CurrencyUnit> units,
+				String targetNamespace) {
+			this.units = units;
+			this.targetNamespace = targetNamespace;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return units.hasNext();
+		}
+
+		@Override
+		public CurrencyUnit next() {
+			if (!units.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			CurrencyUnit unit = units.next();
+			if (unit == null) {
+				return null;
+			}
+			if (unit != last) {
+				CurrencyUnit result = resolved.get(unit);
+				if (result == null && !resolved.containsKey(unit)) {
+					result = CURRENCIES_SPI.map(unit, targetNamespace);
+					resolved.put(unit, result);
+				}
+				last = unit;
+				lastResult = result;
+			}
+			return lastResult;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * Adapter for {@link CurrencyMappingsSingletonSpi} implementations not
+	 * extending {@link AbstractCurrencyMappingsSingletonSpi}.
+	 */
+	private static final class SpiAdapter extends
+			AbstractCurrencyMappingsSingletonSpi {
+		private final CurrencyMappingsSingletonSpi spi;
+
+		SpiAdapter(CurrencyMappingsSingletonSpi spi) {
+			this.spi = spi;
+		}
+
+		@Override
+		public boolean isNamespaceAvailable(String namespace) {
+			return spi.isNamespaceAvailable(namespace);
+		}
+
+		@Override
+		public Set<String> getNamespaces() {
+			return spi.getNamespaces();
+		}
+
+		@Override
+		public CurrencyUnit map(CurrencyUnit currencyUnit,
+				String targetNamespace) {
+			return spi.map(currencyUnit, targetNamespace);
+		}
+
+		@Override
+		public CurrencyUnit map(CurrencyUnit currencyUnit,
+				String targetNamespace, long timestamp) {
+			return spi.map(currencyUnit, targetNamespace, timestamp);
+		}
+
+		@Override
+		public Set<CurrencyUnit> getCurrencies(String namespace) {
+			return spi.getCurrencies(namespace);
+		}
+
+		@Override
+		public Set<String> getNamespaces(String code) {
+			return spi.getNamespaces(code);
+		}
+
+		@Override
+		public Set<String> getNamespaces(CurrencyUnit currency) {
+			return spi.getNamespaces(currency);
+		}
+	}
+
 }
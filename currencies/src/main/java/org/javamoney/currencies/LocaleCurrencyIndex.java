@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeSet;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Precomputed index from regions (and {@link Locale}s, by their country) to
+ * the currencies in use, built from the {@code currencyData} section of the
+ * CLDR {@code supplementalData.xml}.
+ * <p>
+ * Only legal tender currencies are indexed. The current currency of a region
+ * is the first one listed by CLDR without an end date, so
+ * {@link #getCurrencyCode(String)} is a plain array access for two letter
+ * region codes. The date aware variants scan the few currencies a region has
+ * had, in CLDR order; {@code from} dates are inclusive, {@code to} dates
+ * include the whole day (UTC).
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class LocaleCurrencyIndex {
+
+	private static final Logger LOGGER = LoggerFactory
+			.getLogger(LocaleCurrencyIndex.class);
+
+	/** The bundled CLDR supplemental data. */
+	public static final String DEFAULT_RESOURCE = "/java-money/defaults/cldr/supplementalData.xml";
+
+	/** The number of possible two letter region codes. */
+	private static final int REGION_SPACE = 26 * 26;
+
+	private static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+
+	/** The current currency codes of two letter regions, by slot. */
+	private final String[] currentCodes = new String[REGION_SPACE];
+	/** The currency entries of two letter regions, by slot. */
+	private final Entry[][] entries = new Entry[REGION_SPACE][];
+	/** The current currency codes of other regions, such as {@code 150}. */
+	private final Map<String, String> otherCurrentCodes = new HashMap<>();
+	/** The currency entries of other regions. */
+	private final Map<String, Entry[]> otherEntries = new HashMap<>();
+	/** The regions indexed. */
+	private final Set<String> regions;
+
+	private LocaleCurrencyIndex(Map<String, List<Entry>> data) {
+		Set<String> regionCodes = new TreeSet<>();
+		for (Map.Entry<String, List<Entry>> en : data.entrySet()) {
+			String region = en.getKey();
+			Entry[] regionEntries = en.getValue().toArray(
+					new Entry[en.getValue().size()]);
+			String current = null;
+			for (Entry entry : regionEntries) {
+				if (entry.to == Long.MAX_VALUE) {
+					current = entry.currencyCode;
+					break;
+				}
+			}
+			int slot = slot(region);
+			if (slot >= 0) {
+				this.entries[slot] = regionEntries;
+				this.currentCodes[slot] = current;
+			} else {
+				this.otherEntries.put(region, regionEntries);
+				if (current != null) {
+					this.otherCurrentCodes.put(region, current);
+				}
+			}
+			regionCodes.add(region);
+		}
+		this.regions = Collections.unmodifiableSet(regionCodes);
+	}
+
+	/**
+	 * Access the index built from the bundled CLDR data, loaded on first
+	 * access.
+	 * 
+	 * @return the index, never {@code null}. It is empty, if the CLDR data is
+	 *         not available.
+	 */
+	public static LocaleCurrencyIndex getInstance() {
+		return DefaultIndex.INSTANCE;
+	}
+
+	/**
+	 * Builds an index from a CLDR {@code supplementalData.xml}.
+	 * 
+	 * @param in
+	 *            the XML data, not {@code null}.
+	 * @return the index, never {@code null}.
+	 * @throws IOException
+	 *             if the data cannot be read or parsed.
+	 */
+	public static LocaleCurrencyIndex load(InputStream in) throws IOException {
+		if (in == null) {
+			throw new IllegalArgumentException("in is required.");
+		}
+		CurrencyDataHandler handler = new CurrencyDataHandler();
+		try {
+			SAXParserFactory factory = SAXParserFactory.newInstance();
+			factory.setNamespaceAware(false);
+			factory.setValidating(false);
+			factory.newSAXParser().parse(in, handler);
+		} catch (ParserConfigurationException | SAXException e) {
+			throw new IOException("Error parsing CLDR currency data.", e);
+		}
+		return new LocaleCurrencyIndex(handler.data);
+	}
+
+	/**
+	 * Get the current currency of the given locale's country.
+	 * 
+	 * @param locale
+	 *            the locale.
+	 * @return the currency code, or {@code null}, if the locale has no
+	 *         country or no current currency is known.
+	 */
+	public String getCurrencyCode(Locale locale) {
+		if (locale == null) {
+			return null;
+		}
+		return getCurrencyCode(locale.getCountry());
+	}
+
+	/**
+	 * Get the currency of the given locale's country at the given time.
+	 * 
+	 * @param locale
+	 *            the locale.
+	 * @param timestamp
+	 *            the UTC timestamp in milliseconds.
+	 * @return the currency code, or {@code null}.
+	 */
+	public String getCurrencyCode(Locale locale, long timestamp) {
+		if (locale == null) {
+			return null;
+		}
+		return getCurrencyCode(locale.getCountry(), timestamp);
+	}
+
+	/**
+	 * Get the current currency of the given region.
+	 * 
+	 * @param regionCode
+	 *            the ISO 3166 or UN M.49 region code.
+	 * @return the currency code, or {@code null}, if no current currency is
+	 *         known.
+	 */
+	public String getCurrencyCode(String regionCode) {
+		if (regionCode == null) {
+			return null;
+		}
+		int slot = slot(regionCode);
+		if (slot >= 0) {
+			return this.currentCodes[slot];
+		}
+		return this.otherCurrentCodes.get(regionCode);
+	}
+
+	/**
+	 * Get the currency of the given region at the given time.
+	 * 
+	 * @param regionCode
+	 *            the ISO 3166 or UN M.49 region code.
+	 * @param timestamp
+	 *            the UTC timestamp in milliseconds.
+	 * @return the currency code, or {@code null}, if no currency is known
+	 *         for that time.
+	 */
+	public String getCurrencyCode(String regionCode, long timestamp) {
+		if (regionCode == null) {
+			return null;
+		}
+		int slot = slot(regionCode);
+		Entry[] regionEntries = slot >= 0 ? this.entries[slot]
+				: this.otherEntries.get(regionCode);
+		if (regionEntries == null) {
+			return null;
+		}
+		for (Entry entry : regionEntries) {
+			if (timestamp >= entry.from && timestamp < entry.to) {
+				return entry.currencyCode;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Access the regions indexed.
+	 * 
+	 * @return the region codes, never {@code null}.
+	 */
+	public Set<String> getRegionCodes() {
+		return this.regions;
+	}
+
+	private static int slot(String regionCode) {
+		if (regionCode.length() != 2) {
+			return -1;
+		}
+		int c0 = regionCode.charAt(0) - 'A';
+		int c1 = regionCode.charAt(1) - 'A';
+		if (c0 < 0 || c0 >= 26 || c1 < 0 || c1 >= 26) {
+			return -1;
+		}
+		return c0 * 26 + c1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "LocaleCurrencyIndex [regions=" + regions.size() + "]";
+	}
+
+	/**
+	 * A legal tender currency of a region with its validity.
+	 */
+	private static final class Entry {
+		final String currencyCode;
+		final long from;
+		final long to;
+
+		Entry(String currencyCode, long from, long to) {
+			this.currencyCode = currencyCode;
+			this.from = from;
+			this.to = to;
+		}
+	}
+
+	/**
+	 * Holder of the default instance.
+	 */
+	private static final class DefaultIndex {
+		static final LocaleCurrencyIndex INSTANCE = loadDefault();
+
+		private static LocaleCurrencyIndex loadDefault() {
+			try (InputStream in = LocaleCurrencyIndex.class
+					.getResourceAsStream(DEFAULT_RESOURCE)) {
+				if (in != null) {
+					return load(in);
+				}
+				LOGGER.warn("CLDR data not found: " + DEFAULT_RESOURCE);
+			} catch (IOException e) {
+				LOGGER.error("Error loading CLDR data: " + DEFAULT_RESOURCE, e);
+			}
+			return new LocaleCurrencyIndex(
+					Collections.<String, List<Entry>> emptyMap());
+		}
+	}
+
+	/**
+	 * Collects the legal tender currencies from the {@code currencyData}
+	 * section.
+	 */
+	private static final class CurrencyDataHandler extends DefaultHandler {
+
+		// <currencyData>
+		// <region iso3166="DE">
+		// <currency iso4217="EUR" from="1999-01-01"/>
+		// <currency iso4217="DEM" from="1948-06-20" to="2002-02-28"/>
+		// </region>
+		// ...
+		// </currencyData>
+
+		private final Map<String, List<Entry>> data = new HashMap<>();
+		private final Calendar calendar = new GregorianCalendar(
+				TimeZone.getTimeZone("UTC"), Locale.ENGLISH);
+		private boolean inCurrencyData;
+		private List<Entry> regionEntries;
+
+		@Override
+		public InputSource resolveEntity(String publicId, String systemId) {
+			// the referenced DTD is not bundled, nor needed
+			return new InputSource(new StringReader(""));
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName,
+				Attributes attributes) throws SAXException {
+			if ("currencyData".equals(qName)) {
+				inCurrencyData = true;
+			} else if (inCurrencyData && "region".equals(qName)) {
+				regionEntries = new ArrayList<>();
+				data.put(attributes.getValue("iso3166"), regionEntries);
+			} else if (regionEntries != null && "currency".equals(qName)) {
+				if (!"false".equals(attributes.getValue("tender"))) {
+					String from = attributes.getValue("from");
+					String to = attributes.getValue("to");
+					regionEntries.add(new Entry(attributes
+							.getValue("iso4217"), from == null ? Long.MIN_VALUE
+							: toMillis(from), to == null ? Long.MAX_VALUE
+							: toMillis(to) + MILLIS_PER_DAY));
+				}
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName)
+				throws SAXException {
+			if ("currencyData".equals(qName)) {
+				inCurrencyData = false;
+			} else if ("region".equals(qName)) {
+				regionEntries = null;
+			}
+		}
+
+		private long toMillis(String date) throws SAXException {
+			String[] parts = date.split("-");
+			try {
+				calendar.clear();
+				calendar.set(Integer.parseInt(parts[0]),
+						parts.length > 1 ? Integer.parseInt(parts[1]) - 1 : 0,
+						parts.length > 2 ? Integer.parseInt(parts[2]) : 1);
+				return calendar.getTimeInMillis();
+			} catch (NumberFormatException e) {
+				throw new SAXException("Invalid date: " + date, e);
+			}
+		}
+	}
+
+}
@@ -1,13 +1,23 @@
 package org.javamoney.currencies.internal;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.inject.Singleton;
 import javax.money.CurrencyUnit;
 import javax.money.spi.Bootstrap;
 
+import org.javamoney.currencies.CurrencyMappingIndex;
+import org.javamoney.currencies.spi.AbstractCurrencyMappingsSingletonSpi;
 import org.javamoney.currencies.spi.CurrencyUnitMapperSpi;
 import org.javamoney.currencies.spi.CurrencyUnitNamespaceProviderSpi;
 import org.javamoney.currencies.spi.CurrencyMappingsSingletonSpi;
@@ -16,13 +26,88 @@ import org.javamoney.currencies.spi.CurrencyMappingsSingletonSpi;
  * Default implementation of {@link CurrencyMappingsSingletonSpi}, active
  * if no instance of {@link CurrencyMappingsSingletonSpi} was registered
  * using the {@link ServiceLoader}.
+ * <p>
+ * The providers are resolved from the {@link Bootstrap} once, and their
+ * namespaces and currencies are evaluated into immutable indexes. The results
+ * of {@link #map(CurrencyUnit, String)} are cached, except for mappings of a
+ * {@link CurrencyMappingIndex} with a limited validity, which are resolved
+ * for the current time on each call. Undefined results are only
+ * cached up to {@value #MAX_CACHE_SIZE} entries per cache, so lookups with
+ * arbitrary keys do not grow the caches unbounded. Call {@link #reload()} to
+ * rebuild the indexes, e.g. after providers have loaded new data.
  * 
  * @author Anatole Tresch
  */
 @Singleton
-public class DefaultMonetaryCurrenciesSingletonSpi implements
-		CurrencyMappingsSingletonSpi {
-	
+public class DefaultMonetaryCurrenciesSingletonSpi extends
+		AbstractCurrencyMappingsSingletonSpi {
+
+	/** Marker cached for mappings that are not defined. */
+	private static final Object NO_MAPPING = new Object();
+
+	/** Marker cached for mappings that depend on the current time. */
+	private static final Object TIME_DEPENDENT = new Object();
+
+	/** The maximal size of a result cache, up to which misses are cached. */
+	static final int MAX_CACHE_SIZE = 4096;
+
+	/** The current index. */
+	private volatile Index index;
+
+	/** The mappers added programmatically, preceding the loaded ones. */
+	private final List<CurrencyUnitMapperSpi> addedMappers = new CopyOnWriteArrayList<CurrencyUnitMapperSpi>();
+
+	/** The mapping results, by target namespace and source unit. */
+	private final ConcurrentMap<String, Map<CurrencyUnit, Object>> mappings = new ConcurrentHashMap<String, Map<CurrencyUnit, Object>>();
+
+	/**
+	 * Creates a new instance, hereby loading the providers.
+	 */
+	public DefaultMonetaryCurrenciesSingletonSpi() {
+		reload();
+	}
+
+	/**
+	 * Reloads the providers from the {@link Bootstrap} and rebuilds the
+	 * indexes. The cached mapping results are discarded.
+	 */
+	@Override
+	public void reload() {
+		List<CurrencyUnitMapperSpi> mappers = new ArrayList<CurrencyUnitMapperSpi>(
+				addedMappers);
+		mappers.addAll(getServices(CurrencyUnitMapperSpi.class));
+		this.index = new Index(
+				getServices(CurrencyUnitNamespaceProviderSpi.class),
+				Collections.unmodifiableList(mappers));
+		this.mappings.clear();
+	}
+
+	/**
+	 * Adds a mapper, e.g. a {@link CurrencyMappingIndex}, which is not loaded
+	 * from the {@link Bootstrap}. Mappers added take precedence over the
+	 * loaded ones and are kept on {@link #reload()}.
+	 * 
+	 * @param mapper
+	 *            the mapper, not {@code null}.
+	 */
+	public void addMapper(CurrencyUnitMapperSpi mapper) {
+		if (mapper == null) {
+			throw new IllegalArgumentException("mapper is required.");
+		}
+		synchronized (addedMappers) {
+			addedMappers.add(mapper);
+			reload();
+		}
+	}
+
+	private static <T> List<T> getServices(Class<T> type) {
+		Collection<T> services = Bootstrap.getServices(type);
+		if (services == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(new ArrayList<T>(services));
+	}
+
 	/**
 	 * This method allows to evaluate, if the given currency namespace is
 	 * defined. {@code "ISO-4217"} should be defined in all environments
@@ -34,12 +119,7 @@ public class DefaultMonetaryCurrenciesSingletonSpi implements
 	 */
 	@Override
 	public boolean isNamespaceAvailable(String namespace) {
-		for(CurrencyUnitNamespaceProviderSpi spi: Bootstrap.getServices(CurrencyUnitNamespaceProviderSpi.class)){
-			if(spi.isNamespaceAvailable(namespace)){
-				return true;
-			}
-		}
-		return false;
+		return index.namespaces.contains(namespace);
 	}
 
 	/**
@@ -51,11 +131,7 @@ public class DefaultMonetaryCurrenciesSingletonSpi implements
 	 */
 	@Override
 	public Set<String> getNamespaces() {
-		Set<String> ns = new HashSet<>();
-		for(CurrencyUnitNamespaceProviderSpi spi: Bootstrap.getServices(CurrencyUnitNamespaceProviderSpi.class)){
-			ns.addAll(spi.getNamespaces());
-		}
-		return ns;
+		return index.namespaces;
 	}
 
 	/**
@@ -71,15 +147,66 @@ public class DefaultMonetaryCurrenciesSingletonSpi implements
 	@Override
 	public CurrencyUnit map(CurrencyUnit currencyUnit,
 			String targetNamespace) {
-		for(CurrencyUnitMapperSpi spi: Bootstrap.getServices(CurrencyUnitMapperSpi.class)){
-			CurrencyUnit mapped = spi.map(currencyUnit, targetNamespace, null);
-			if(mapped!=null){
-				return mapped;
+		Map<CurrencyUnit, Object> nsMappings = mappings.get(targetNamespace);
+		Object mapped = nsMappings == null ? null : nsMappings
+				.get(currencyUnit);
+		if (mapped == null) {
+			mapped = NO_MAPPING;
+			for (CurrencyUnitMapperSpi spi : index.mappers) {
+				if (isTimeDependent(spi, currencyUnit, targetNamespace)) {
+					mapped = TIME_DEPENDENT;
+					break;
+				}
+				CurrencyUnit unit = spi.map(currencyUnit, targetNamespace,
+						null);
+				if (unit != null) {
+					mapped = unit;
+					break;
+				}
+			}
+			if (nsMappings == null && mappings.size() < MAX_CACHE_SIZE) {
+				nsMappings = new ConcurrentHashMap<CurrencyUnit, Object>();
+				Map<CurrencyUnit, Object> existing = mappings.putIfAbsent(
+						targetNamespace, nsMappings);
+				if (existing != null) {
+					nsMappings = existing;
+				}
+			}
+			if (nsMappings != null
+					&& (mapped != NO_MAPPING || nsMappings.size() < MAX_CACHE_SIZE)) {
+				nsMappings.put(currencyUnit, mapped);
+			}
+		}
+		if (mapped == TIME_DEPENDENT) {
+			return mapNow(currencyUnit, targetNamespace);
+		}
+		if (mapped == NO_MAPPING) {
+			return null;
+		}
+		return (CurrencyUnit) mapped;
+	}
+
+	/**
+	 * Evaluates the mappers without timestamp, without using the cache.
+	 */
+	private CurrencyUnit mapNow(CurrencyUnit currencyUnit,
+			String targetNamespace) {
+		for (CurrencyUnitMapperSpi spi : index.mappers) {
+			CurrencyUnit unit = spi.map(currencyUnit, targetNamespace, null);
+			if (unit != null) {
+				return unit;
 			}
 		}
 		return null;
 	}
 
+	private static boolean isTimeDependent(CurrencyUnitMapperSpi spi,
+			CurrencyUnit currencyUnit, String targetNamespace) {
+		return spi instanceof CurrencyMappingIndex
+				&& ((CurrencyMappingIndex) spi).isTimeDependent(currencyUnit,
+						targetNamespace);
+	}
+
 	/**
 	 * This method maps the given {@link CurrencyUnit} to another
 	 * {@link CurrencyUnit} with the given target namespace.
@@ -93,7 +220,7 @@ public class DefaultMonetaryCurrenciesSingletonSpi implements
 	@Override
 	public CurrencyUnit map(CurrencyUnit currencyUnit,
 			String targetNamespace, long timestamp) {
-		for(CurrencyUnitMapperSpi spi: Bootstrap.getServices(CurrencyUnitMapperSpi.class)){
+		for(CurrencyUnitMapperSpi spi: index.mappers){
 			CurrencyUnit mapped = spi.map(currencyUnit, targetNamespace, timestamp);
 			if(mapped!=null){
 				return mapped;
@@ -102,6 +229,41 @@ public class DefaultMonetaryCurrenciesSingletonSpi implements
 		return null;
 	}
 
+	/**
+	 * This method maps the given {@link CurrencyUnit} for several timestamps.
+	 * The mappers are applied in order, each only for the timestamps not yet
+	 * mapped. {@link CurrencyMappingIndex} instances map all timestamps in one
+	 * pass.
+	 * 
+	 * @param unit
+	 *            The source unit, never {@code null}.
+	 * @param targetNamespace
+	 *            the target namespace, never {@code null}.
+	 * @param timestamps
+	 *            The target UTC timestamps, never {@code null}.
+	 * @return The mapped {@link CurrencyUnit} instances, in the order of the
+	 *         timestamps.
+	 */
+	@Override
+	public CurrencyUnit[] map(CurrencyUnit currencyUnit,
+			String targetNamespace, long[] timestamps) {
+		CurrencyUnit[] results = new CurrencyUnit[timestamps.length];
+		for (CurrencyUnitMapperSpi spi : index.mappers) {
+			if (spi instanceof CurrencyMappingIndex) {
+				((CurrencyMappingIndex) spi).map(currencyUnit,
+						targetNamespace, timestamps, results);
+				continue;
+			}
+			for (int i = 0; i < timestamps.length; i++) {
+				if (results[i] == null) {
+					results[i] = spi.map(currencyUnit, targetNamespace,
+							timestamps[i]);
+				}
+			}
+		}
+		return results;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -111,11 +273,7 @@ public class DefaultMonetaryCurrenciesSingletonSpi implements
 	 */
 	@Override
 	public Set<CurrencyUnit> getCurrencies(String namespace) {
-		Set<CurrencyUnit> result = new HashSet<>();
-		for(CurrencyUnitNamespaceProviderSpi spi:Bootstrap.getServices(CurrencyUnitNamespaceProviderSpi.class)){
-			result.addAll(spi.getCurrencies(namespace));
-		}
-		return result;
+		return index.getCurrencies(namespace);
 	}
 
 	/*
@@ -127,11 +285,7 @@ public class DefaultMonetaryCurrenciesSingletonSpi implements
 	 */
 	@Override
 	public Set<String> getNamespaces(String code) {
-		Set<String> ns = new HashSet<>();
-		for(CurrencyUnitNamespaceProviderSpi spi: Bootstrap.getServices(CurrencyUnitNamespaceProviderSpi.class)){
-			ns.addAll(spi.getNamespaces(code));
-		}
-		return ns;
+		return index.getNamespaces(code);
 	}
 	
 	/*
@@ -146,4 +300,63 @@ public class DefaultMonetaryCurrenciesSingletonSpi implements
 		return getNamespaces(code.getCurrencyCode());
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Snapshot of the providers loaded and the namespaces and currencies they
+	 * define. The currencies of the namespaces listed by the providers are
+	 * evaluated upfront, further results are evaluated on first access. All
+	 * sets held are immutable.
+	 */
+	private static final class Index {
+		private final List<CurrencyUnitNamespaceProviderSpi> providers;
+		private final List<CurrencyUnitMapperSpi> mappers;
+		private final Set<String> namespaces;
+		private final Map<String, Set<CurrencyUnit>> currencies = new ConcurrentHashMap<>();
+		private final Map<String, Set<String>> namespacesByCode = new ConcurrentHashMap<>();
+
+		Index(List<CurrencyUnitNamespaceProviderSpi> providers,
+				List<CurrencyUnitMapperSpi> mappers) {
+			this.providers = providers;
+			this.mappers = mappers;
+			Set<String> ns = new HashSet<>();
+			for (CurrencyUnitNamespaceProviderSpi spi : providers) {
+				ns.addAll(spi.getNamespaces());
+			}
+			this.namespaces = Collections.unmodifiableSet(ns);
+			for (String namespace : ns) {
+				getCurrencies(namespace);
+			}
+		}
+
+		Set<CurrencyUnit> getCurrencies(String namespace) {
+			Set<CurrencyUnit> result = currencies.get(namespace);
+			if (result == null) {
+				Set<CurrencyUnit> units = new HashSet<>();
+				for (CurrencyUnitNamespaceProviderSpi spi : providers) {
+					units.addAll(spi.getCurrencies(namespace));
+				}
+				result = Collections.unmodifiableSet(units);
+				if (!result.isEmpty() || currencies.size() < MAX_CACHE_SIZE) {
+					currencies.put(namespace, result);
+				}
+			}
+			return result;
+		}
+
+		Set<String> getNamespaces(String code) {
+			Set<String> result = namespacesByCode.get(code);
+			if (result == null) {
+				Set<String> ns = new HashSet<>();
+				for (CurrencyUnitNamespaceProviderSpi spi : providers) {
+					ns.addAll(spi.getNamespaces(code));
+				}
+				result = Collections.unmodifiableSet(ns);
+				if (!result.isEmpty()
+						|| namespacesByCode.size() < MAX_CACHE_SIZE) {
+					namespacesByCode.put(code, result);
+				}
+			}
+			return result;
+		}
+	}
+
+}
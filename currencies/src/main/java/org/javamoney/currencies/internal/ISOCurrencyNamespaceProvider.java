@@ -3,7 +3,6 @@ package org.javamoney.currencies.internal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.ServiceLoader;
 import java.util.Set;
@@ -12,6 +11,7 @@ import javax.inject.Singleton;
 import javax.money.CurrencyUnit;
 import javax.money.MonetaryCurrencies;
 
+import org.javamoney.currencies.CurrencyIds;
 import org.javamoney.currencies.spi.CurrencyUnitNamespaceProviderSpi;
 import org.javamoney.currencies.spi.CurrencyMappingsSingletonSpi;
 
@@ -21,6 +21,11 @@ import java.util.Currency;
  * Default implementation of {@link CurrencyMappingsSingletonSpi}, active
  * if no instance of {@link CurrencyMappingsSingletonSpi} was registered
  * using the {@link ServiceLoader}.
+ * <p>
+ * The members of the ISO namespace are evaluated once, on first access, into
+ * a bit set over the dense ids of {@link CurrencyIds} and an immutable
+ * collection of units. Membership checks and listings are constant-time and
+ * do not throw for unknown codes.
  * 
  * @author Anatole Tresch
  */
@@ -30,12 +35,9 @@ public class ISOCurrencyNamespaceProvider implements
 	
 	private static final String ISO_NS = "ISO-4217";
 	
-	private static final Set<String> NAMESPACES = new HashSet<String>();
+	private static final Set<String> NAMESPACES = Collections
+			.singleton(ISO_NS);
 
-	static{
-		NAMESPACES.add(ISO_NS);
-	}
-	
 	/**
 	 * This method allows to evaluate, if the given currency namespace is
 	 * defined. {@code "ISO-4217"} should be defined in all environments
@@ -47,7 +49,7 @@ public class ISOCurrencyNamespaceProvider implements
 	 */
 	@Override
 	public boolean isNamespaceAvailable(String namespace) {
-		return NAMESPACES.contains(namespace);
+		return ISO_NS.equals(namespace);
 	}
 
 	/**
@@ -73,11 +75,7 @@ public class ISOCurrencyNamespaceProvider implements
 	@Override
 	public Collection<CurrencyUnit> getCurrencies(String namespace) {
 		if(ISO_NS.equals(namespace)){
-			List<CurrencyUnit> result = new ArrayList<>();
-			for(Currency currency:Currency.getAvailableCurrencies()){
-				result.add(MonetaryCurrencies.getCurrency(currency.getCurrencyCode()));
-			}
-			return result;
+			return IsoMembers.CURRENCIES;
 		}
 		return Collections.emptySet();
 	}
@@ -91,15 +89,53 @@ public class ISOCurrencyNamespaceProvider implements
 	 */
 	@Override
 	public Set<String> getNamespaces(String code) {
-		try{
-			if(Currency.getInstance(code)!=null){
-				return NAMESPACES;
+		if (code != null && IsoMembers.contains(code)) {
+			return NAMESPACES;
+		}
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Holder of the ISO namespace members, evaluated on first access.
+	 */
+	private static final class IsoMembers {
+		/** The member bits, indexed by currency id. */
+		static final long[] BITS;
+		/** The members. */
+		static final Collection<CurrencyUnit> CURRENCIES;
+
+		static {
+			List<CurrencyUnit> currencies = new ArrayList<>();
+			long[] bits = new long[0];
+			for (Currency currency : Currency.getAvailableCurrencies()) {
+				CurrencyUnit unit;
+				try {
+					unit = MonetaryCurrencies.getCurrency(currency
+							.getCurrencyCode());
+				} catch (RuntimeException e) {
+					continue;
+				}
+				if (unit == null) {
+					continue;
+				}
+				int id = CurrencyIds.register(unit);
+				if ((id >>> 6) >= bits.length) {
+					long[] newBits = new long[(id >>> 6) + 8];
+					System.arraycopy(bits, 0, newBits, 0, bits.length);
+					bits = newBits;
+				}
+				bits[id >>> 6] |= 1L << id;
+				currencies.add(unit);
 			}
+			BITS = bits;
+			CURRENCIES = Collections.unmodifiableList(currencies);
 		}
-		catch(Exception e){
-			// ignore
+
+		static boolean contains(String code) {
+			int id = CurrencyIds.getId(code);
+			return id >= 0 && (id >>> 6) < BITS.length
+					&& (BITS[id >>> 6] & (1L << id)) != 0;
 		}
-		return Collections.emptySet();
 	}
 	
-}
\ No newline at end of file
+}
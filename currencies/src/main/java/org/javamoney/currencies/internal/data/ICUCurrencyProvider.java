@@ -16,14 +16,19 @@
 package org.javamoney.currencies.internal.data;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Singleton;
 import javax.money.CurrencyUnit;
 import javax.money.spi.CurrencyProviderSpi;
 
+import org.javamoney.currencies.CurrencyIds;
+import org.javamoney.currencies.LocaleCurrencyIndex;
 import org.javamoney.util.Displayable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +36,11 @@ import org.slf4j.LoggerFactory;
 /**
  * Implements a {@link CurrencyUnitProviderSpi} that provides the additional
  * currencies available from the ICO library, but not part of the JDK.
+ * <p>
+ * Construction does not touch ICU: the ICU currency data is loaded on the
+ * first lookup, and {@link CurrencyUnit} instances are materialized (and
+ * registered with {@link CurrencyIds}) per code when first requested.
+ * {@link #getCurrencies()} materializes all remaining currencies.
  * 
  * @author Anatole Tresch
  * @author Werner Keil
@@ -41,27 +51,86 @@ public class ICUCurrencyProvider implements CurrencyProviderSpi {
 	private static final Logger LOGGER = LoggerFactory
 			.getLogger(ICUCurrencyProvider.class);
 
-	private Map<String, CurrencyUnit> currencies = new ConcurrentHashMap<>();
+	/** The currencies materialized so far. */
+	private final ConcurrentMap<String, CurrencyUnit> currencies = new ConcurrentHashMap<>();
 
-	public ICUCurrencyProvider() {
-		for(com.ibm.icu.util.Currency currency:com.ibm.icu.util.Currency.getAvailableCurrencies()){
-			ICUCurrency icuInstance = new ICUCurrency(currency);
-			this.currencies.put(icuInstance.getCurrencyCode(), icuInstance);
-		}
-	}
+	/** Flag set, when all available currencies have been materialized. */
+	private volatile boolean complete;
 
 	@Override
 	public CurrencyUnit getCurrencyUnit(String currencyCode) {
-		return this.currencies.get(currencyCode);
+		if (currencyCode == null) {
+			return null;
+		}
+		CurrencyUnit unit = this.currencies.get(currencyCode);
+		if (unit != null) {
+			return unit;
+		}
+		return materialize(currencyCode);
+	}
+
+	/**
+	 * Checks if a currency with the given code is available, without
+	 * creating the {@link CurrencyUnit} instance.
+	 * 
+	 * @param currencyCode
+	 *            the currency code.
+	 * @return {@code true}, if {@link #getCurrencyUnit(String)} returns a
+	 *         currency for this code.
+	 */
+	public boolean isAvailable(String currencyCode) {
+		if (currencyCode == null) {
+			return false;
+		}
+		return this.currencies.containsKey(currencyCode)
+				|| AvailableCurrencies.CURRENCIES.containsKey(currencyCode);
 	}
 
 	@Override
 	public CurrencyUnit getCurrencyUnit(Locale locale) {
-		return null;
+		String currencyCode = LocaleCurrencyIndex.getInstance()
+				.getCurrencyCode(locale);
+		if (currencyCode == null) {
+			return null;
+		}
+		return getCurrencyUnit(currencyCode);
 	}
 
-	
-	private final class ICUCurrency implements CurrencyUnit, Displayable {
+	private CurrencyUnit materialize(String currencyCode) {
+		com.ibm.icu.util.Currency currency = AvailableCurrencies.CURRENCIES
+				.get(currencyCode);
+		if (currency == null) {
+			return null;
+		}
+		CurrencyUnit unit = new ICUCurrency(currency);
+		CurrencyUnit existing = this.currencies.putIfAbsent(currencyCode, unit);
+		if (existing != null) {
+			return existing;
+		}
+		CurrencyIds.register(unit);
+		return unit;
+	}
+
+	/**
+	 * Holder of the ICU currencies, loaded on first access.
+	 */
+	private static final class AvailableCurrencies {
+		static final Map<String, com.ibm.icu.util.Currency> CURRENCIES = load();
+
+		private static Map<String, com.ibm.icu.util.Currency> load() {
+			long start = System.nanoTime();
+			Map<String, com.ibm.icu.util.Currency> result = new HashMap<>();
+			for (com.ibm.icu.util.Currency currency : com.ibm.icu.util.Currency
+					.getAvailableCurrencies()) {
+				result.put(currency.getCurrencyCode(), currency);
+			}
+			LOGGER.debug("Loaded " + result.size() + " ICU currencies in "
+					+ (System.nanoTime() - start) / 1000000L + " ms.");
+			return Collections.unmodifiableMap(result);
+		}
+	}
+
+	private static final class ICUCurrency implements CurrencyUnit, Displayable {
 		private com.ibm.icu.util.Currency currency;
 
 		public ICUCurrency(com.ibm.icu.util.Currency currency) {
@@ -98,7 +167,15 @@ public class ICUCurrencyProvider implements CurrencyProviderSpi {
 
 	@Override
 	public Collection<CurrencyUnit> getCurrencies() {
-		return currencies.values();
+		if (!this.complete) {
+			for (String code : AvailableCurrencies.CURRENCIES.keySet()) {
+				if (!this.currencies.containsKey(code)) {
+					materialize(code);
+				}
+			}
+			this.complete = true;
+		}
+		return Collections.unmodifiableCollection(this.currencies.values());
 	}
 
 }
@@ -15,12 +15,24 @@
  */
 package org.javamoney.currencies.internal.data;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import javax.annotation.PostConstruct;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
@@ -33,6 +45,17 @@ import org.xml.sax.helpers.DefaultHandler;
 /**
  * Mapping provider that is able to map ISO textual and ISO nuemeric codes and
  * vice versa.
+ * <p>
+ * Lookups never block: until the ISO country list is loaded they are served
+ * from a fallback table built from the JDK's ISO 3166 data. The list is loaded
+ * on a daemon thread, from the local file configured as
+ * {@code IsoCountryMappingProvider.file}, or from the URL configured as
+ * {@code IsoCountryMappingProvider.countries} in {@value #PROP_FILE}. If
+ * neither is configured, nothing is loaded and the JDK's data is kept, so the
+ * network is only accessed if explicitly configured. Loaded data is published
+ * as immutable maps through a {@code volatile} field. Use
+ * {@link #awaitReady(long, TimeUnit)} to wait a bounded time for the initial
+ * load.
  * 
  * @author Anatole Tresch
  */
@@ -41,61 +64,233 @@ public final class IsoCountryMappingProvider {
 	private static final Logger LOGGER = LoggerFactory
 			.getLogger(IsoCountryMappingProvider.class);
 
+	private static final String PROP_FILE = "/currencyprovider.properties";
+
+	/** The default connect and read timeout in milliseconds. */
+	private static final int DEFAULT_TIMEOUT = 10000;
+
 	private static final IsoCountryMappingProvider INSTANCE = new IsoCountryMappingProvider();
 
 	private SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
 
-	private Map<String, String> nameToCodeMap = new HashMap<String, String>();
-	private Map<String, String> codeToNameMap = new HashMap<String, String>();
+	/** The currently published mappings, never {@code null}. */
+	private volatile Mappings mappings = Mappings.createFallback();
+
+	private final FutureTask<Boolean> initialLoad = new FutureTask<>(
+			new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return loadConfiguredCountries();
+				}
+			});
 
 	private IsoCountryMappingProvider() {
 		saxParserFactory.setNamespaceAware(false);
 		saxParserFactory.setValidating(false);
-		new Thread() {
-			public void run() {
-				loadCountries();
-			};
-		}.start();
+		Thread loader = new Thread(initialLoad, "ISO Country Loader");
+		loader.setDaemon(true);
+		loader.start();
 	}
 
 	public static IsoCountryMappingProvider getInstance() {
 		return INSTANCE;
 	}
 
-	@PostConstruct
-	public void loadCountries() {
-		Map<String, String> newNameToCodeMap = new HashMap<String, String>();
-		Map<String, String> newCodeToNameMap = new HashMap<String, String>();
+	/**
+	 * Waits for the initial load of the ISO country list to complete.
+	 * 
+	 * @param timeout
+	 *            the maximal time to wait.
+	 * @param unit
+	 *            the time unit, not {@code null}.
+	 * @return {@code true}, if the initial load has completed, successfully
+	 *         or not, within the given time.
+	 */
+	public boolean awaitReady(long timeout, TimeUnit unit) {
+		try {
+			initialLoad.get(timeout, unit);
+			return true;
+		} catch (TimeoutException e) {
+			return false;
+		} catch (ExecutionException e) {
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Checks if the initial load of the ISO country list has completed.
+	 * 
+	 * @return {@code true}, if the initial load has completed.
+	 */
+	public boolean isReady() {
+		return initialLoad.isDone();
+	}
+
+	/**
+	 * Checks if the mappings are still served from the fallback table.
+	 * 
+	 * @return {@code true}, if no ISO country list has been loaded.
+	 */
+	public boolean isFallback() {
+		return this.mappings.fallback;
+	}
+
+	/**
+	 * Loads the ISO country list from the configured source again,
+	 * synchronously on the calling thread. The initial load is started
+	 * asynchronously on creation, so calling this method is only required for
+	 * refreshing the data.
+	 * 
+	 * @return {@code true}, if the list was loaded and published.
+	 */
+	public boolean loadCountries() {
+		return loadConfiguredCountries();
+	}
+
+	private boolean loadConfiguredCountries() {
+		Properties prop = new Properties();
+		try (InputStream in = getClass().getResourceAsStream(PROP_FILE)) {
+			if (in != null) {
+				prop.load(in);
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Error reading " + PROP_FILE, e);
+		}
+		String prefix = getClass().getSimpleName();
+		String file = prop.getProperty(prefix + ".file");
+		if (file != null) {
+			return loadCountries(new File(file.trim()));
+		}
+		String address = prop.getProperty(prefix + ".countries");
+		if (address == null) {
+			LOGGER.debug("No country list configured, using the JDK's ISO 3166 data.");
+			return false;
+		}
+		String timeout = prop.getProperty(prefix + ".timeout");
+		try {
+			return loadCountries(new URL(address.trim()),
+					timeout == null ? DEFAULT_TIMEOUT : Integer
+							.parseInt(timeout.trim()));
+		} catch (IOException | NumberFormatException e) {
+			LOGGER.error("Invalid country list configuration", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Loads the ISO country list from a local file.
+	 * 
+	 * @param file
+	 *            the file, not {@code null}.
+	 * @return {@code true}, if the list was loaded and published.
+	 */
+	public boolean loadCountries(File file) {
+		if (file == null) {
+			throw new IllegalArgumentException("file is required.");
+		}
+		try (InputStream in = new FileInputStream(file)) {
+			return loadCountries(in);
+		} catch (Exception e) {
+			LOGGER.error("Error loading countries from " + file, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Loads the ISO country list from an URL.
+	 * 
+	 * @param url
+	 *            the URL, not {@code null}.
+	 * @param timeout
+	 *            the connect and read timeout in milliseconds, {@code 0} for
+	 *            none.
+	 * @return {@code true}, if the list was loaded and published.
+	 */
+	public boolean loadCountries(URL url, int timeout) {
+		if (url == null) {
+			throw new IllegalArgumentException("url is required.");
+		}
+		URLConnection connection;
 		try {
-			URL url = new URL(
-					"http://www.iso.org/iso/home/standards/country_codes/country_names_and_code_elements_xml.htm");
-			SAXParser parser = saxParserFactory.newSAXParser();
-			parser.parse(url.openStream(), new CountryHandler(newNameToCodeMap,
-					newCodeToNameMap));
-			nameToCodeMap = newNameToCodeMap;
-			codeToNameMap = newCodeToNameMap;
+			connection = url.openConnection();
+			connection.setConnectTimeout(timeout);
+			connection.setReadTimeout(timeout);
+		} catch (IOException e) {
+			LOGGER.error("Error loading countries from " + url, e);
+			return false;
+		}
+		try (InputStream in = connection.getInputStream()) {
+			return loadCountries(in);
 		} catch (Exception e) {
-			LOGGER.error("Error", e);
+			LOGGER.error("Error loading countries from " + url, e);
+			return false;
 		}
 	}
 
+	private boolean loadCountries(InputStream in) throws Exception {
+		Map<String, String> newNameToCodeMap = new HashMap<String, String>();
+		Map<String, String> newCodeToNameMap = new HashMap<String, String>();
+		SAXParser parser = saxParserFactory.newSAXParser();
+		parser.parse(in, new CountryHandler(newNameToCodeMap, newCodeToNameMap));
+		if (newCodeToNameMap.isEmpty()) {
+			return false;
+		}
+		this.mappings = new Mappings(newNameToCodeMap, newCodeToNameMap, false);
+		return true;
+	}
+
 	public Set<String> getIsoAlpha2Codes() {
-		return this.codeToNameMap.keySet();
+		return this.mappings.codeToNameMap.keySet();
 	}
 
 	public Set<String> getIsoNames() {
-		return this.nameToCodeMap.keySet();
+		return this.mappings.nameToCodeMap.keySet();
 	}
 
 	public String getNameFromCode(String code) {
-		return this.codeToNameMap.get(code);
+		return this.mappings.codeToNameMap.get(code);
 	}
 
 	public String getCodeFromName(String name) {
-		return this.nameToCodeMap.get(name);
+		return this.mappings.nameToCodeMap.get(name);
+	}
+
+	/**
+	 * Immutable published mappings.
+	 */
+	private static final class Mappings {
+		final Map<String, String> nameToCodeMap;
+		final Map<String, String> codeToNameMap;
+		final boolean fallback;
+
+		Mappings(Map<String, String> nameToCodeMap,
+				Map<String, String> codeToNameMap, boolean fallback) {
+			this.nameToCodeMap = Collections.unmodifiableMap(nameToCodeMap);
+			this.codeToNameMap = Collections.unmodifiableMap(codeToNameMap);
+			this.fallback = fallback;
+		}
+
+		/**
+		 * Creates the fallback table from the JDK's ISO 3166 data, using the
+		 * upper case English names as the ISO list does.
+		 */
+		static Mappings createFallback() {
+			Map<String, String> nameToCodeMap = new HashMap<String, String>();
+			Map<String, String> codeToNameMap = new HashMap<String, String>();
+			for (String code : Locale.getISOCountries()) {
+				String name = new Locale("", code).getDisplayCountry(
+						Locale.ENGLISH).toUpperCase(Locale.ENGLISH);
+				nameToCodeMap.put(name, code);
+				codeToNameMap.put(code, name);
+			}
+			return new Mappings(nameToCodeMap, codeToNameMap, true);
+		}
 	}
 
-	private class CountryHandler extends DefaultHandler {
+	private static final class CountryHandler extends DefaultHandler {
 
 		// <ISO_3166-1_List_en xml:lang="en">
 		// <ISO_3166-1_Entry>
@@ -27,6 +27,7 @@ import javax.money.CurrencyUnit;
 import javax.money.MonetaryCurrencies;
 import javax.money.spi.CurrencyProviderSpi;
 
+import org.javamoney.currencies.LocaleCurrencyIndex;
 import org.javamoney.currencies.spi.CurrencyUnitNamespaceProviderSpi;
 
 /**
@@ -61,7 +62,13 @@ public class IsoCurrencyJDKProvider implements CurrencyProviderSpi {
 
 	@Override
 	public CurrencyUnit getCurrencyUnit(Locale locale) {
+		String currencyCode = LocaleCurrencyIndex.getInstance()
+				.getCurrencyCode(locale);
+		if (currencyCode != null) {
+			return getCurrencyUnit(currencyCode);
+		}
 		try{
+			init();
 			return this.currencies.get(Currency.getInstance(locale).getCurrencyCode());
 		}
 		catch(Exception e){
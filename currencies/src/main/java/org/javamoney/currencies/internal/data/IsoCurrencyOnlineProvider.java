@@ -15,14 +15,30 @@
  */
 package org.javamoney.currencies.internal.data;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Currency;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Singleton;
 import javax.money.CurrencyUnit;
@@ -30,6 +46,9 @@ import javax.money.spi.CurrencyProviderSpi;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
+import org.javamoney.currencies.CurrencyIds;
+import org.javamoney.currencies.CurrencyMappings;
+import org.javamoney.currencies.LocaleCurrencyIndex;
 import org.javamoney.currencies.spi.CurrencyUnitNamespaceProviderSpi;
 import org.javamoney.util.Displayable;
 import org.slf4j.Logger;
@@ -41,6 +60,30 @@ import org.xml.sax.helpers.DefaultHandler;
 /**
  * Online implementation of a {@link CurrencyUnitNamespaceProviderSpi} that provides the
  * ISO 4217 currencies available from the JDK {@link Currency} class.
+ * <p>
+ * On creation the provider loads a compact snapshot of the currency list,
+ * either from the local file configured with
+ * {@code IsoCurrencyOnlineProvider.snapshot}, or from the bundled resource
+ * {@value #SNAPSHOT_RESOURCE}, so startup never depends on the network. The
+ * bundled resource is derived from the JDK {@link Currency} data, and therefore
+ * also contains withdrawn codes, not only the ISO 4217 list one. If a
+ * {@link Source} is configured, the list is then refreshed on a background
+ * daemon thread. Refreshed data is built completely before it is published by
+ * a single atomic reference swap, so lookups never see partially loaded data.
+ * After a successful refresh the cached {@link CurrencyMappings} are reloaded,
+ * and the local snapshot file, if configured, is rewritten.
+ * <p>
+ * The following properties are read from {@value #PROP_FILE}, if present:
+ * <ul>
+ * <li>{@code IsoCurrencyOnlineProvider.currencies}: the URL of the ISO 4217
+ * currency list.</li>
+ * <li>{@code IsoCurrencyOnlineProvider.countries}: the URL of the ISO 3166
+ * country list (optional).</li>
+ * <li>{@code IsoCurrencyOnlineProvider.snapshot}: the local snapshot file
+ * (optional).</li>
+ * <li>{@code IsoCurrencyOnlineProvider.timeout}: the connect and read timeout
+ * in milliseconds (optional).</li>
+ * </ul>
  * 
  * @author Anatole Tresch
  * @author Werner Keil
@@ -55,56 +98,399 @@ public class IsoCurrencyOnlineProvider implements CurrencyProviderSpi {
 
 	private static final String PROP_FILE = "/currencyprovider.properties";
 
+	/** The bundled snapshot of the currency list, derived from the JDK. */
+	public static final String SNAPSHOT_RESOURCE = "/java-money/defaults/jdk/currencies.csv";
+
+	/** The default connect and read timeout in milliseconds. */
+	private static final int DEFAULT_TIMEOUT = 10000;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
 	private final SAXParserFactory saxParserFactory = SAXParserFactory
 			.newInstance();
 
-	private Map<String, String> countryCodeMap = new ConcurrentHashMap<>();
+	/** The currently published data, never {@code null}. */
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(
+			Snapshot.EMPTY);
+
+	private volatile Source source;
 
-	private Map<String, CurrencyUnit> currencies = new ConcurrentHashMap<>();
+	private volatile File snapshotFile;
 
 	private final Properties prop = new Properties();
 
 	public IsoCurrencyOnlineProvider() {
 		saxParserFactory.setNamespaceAware(false);
 		saxParserFactory.setValidating(false);
-		new CurrencyLoader().start();
+		loadProperties();
+		loadSnapshot();
+		if (this.source != null) {
+			refreshInBackground();
+		}
 	}
 
-	public void loadCurrencies() {
+	private void loadProperties() {
 		try (InputStream in = getClass().getResourceAsStream(PROP_FILE)) {
-			if(in==null){
+			if (in == null) {
 				return;
 			}
 			prop.load(in);
-			final String urlAddress = prop.getProperty(getClass()
-					.getSimpleName() + ".currencies");
-			URL url = new URL(urlAddress);
-			LOGGER.debug("Loading " + urlAddress);
-			SAXParser parser = saxParserFactory.newSAXParser();
-			parser.parse(url.openStream(), new CurrencyHandler());
+			String prefix = getClass().getSimpleName();
+			String snapshotPath = prop.getProperty(prefix + ".snapshot");
+			if (snapshotPath != null) {
+				this.snapshotFile = new File(snapshotPath.trim());
+			}
+			String currenciesAddress = prop.getProperty(prefix + ".currencies");
+			if (currenciesAddress != null) {
+				String countriesAddress = prop.getProperty(prefix
+						+ ".countries");
+				String timeout = prop.getProperty(prefix + ".timeout");
+				this.source = createURLSource(
+						new URL(currenciesAddress.trim()),
+						countriesAddress == null ? null : new URL(
+								countriesAddress.trim()),
+						timeout == null ? DEFAULT_TIMEOUT : Integer
+								.parseInt(timeout.trim()));
+			}
 		} catch (Exception e) {
-			LOGGER.warn("Error", e);
+			LOGGER.warn("Error reading " + PROP_FILE, e);
 		}
 	}
 
-	public void loadCountries() {
-		try (InputStream in = getClass().getResourceAsStream(PROP_FILE)) {
-			if(in==null){
-				return;
+	private void loadSnapshot() {
+		File file = this.snapshotFile;
+		if (file != null && file.isFile() && loadSnapshot(file)) {
+			return;
+		}
+		try (InputStream in = getClass()
+				.getResourceAsStream(SNAPSHOT_RESOURCE)) {
+			if (in != null) {
+				publish(readSnapshot(in));
 			}
-			prop.load(in);
-			final String urlAddress = prop.getProperty(getClass()
-					.getSimpleName() + ".countries");
-			LOGGER.debug("Loading " + urlAddress);
-			URL url = new URL(urlAddress);
+		} catch (Exception e) {
+			LOGGER.warn("Error reading snapshot " + SNAPSHOT_RESOURCE, e);
+		}
+	}
+
+	/**
+	 * Loads and publishes a snapshot written by {@link #writeSnapshot(File)}.
+	 * 
+	 * @param file
+	 *            the snapshot file, not {@code null}.
+	 * @return {@code true}, if the snapshot was published.
+	 */
+	public boolean loadSnapshot(File file) {
+		if (file == null) {
+			throw new IllegalArgumentException("file is required.");
+		}
+		try (InputStream in = new FileInputStream(file)) {
+			if (publish(readSnapshot(in))) {
+				LOGGER.debug("Currencies loaded from snapshot " + file);
+				return true;
+			}
+		} catch (Exception e) {
+			LOGGER.warn("Error reading snapshot " + file, e);
+		}
+		return false;
+	}
+
+	/**
+	 * Access the source used for refreshing the currency list.
+	 * 
+	 * @return the source, or {@code null}, if none is configured.
+	 */
+	public Source getSource() {
+		return this.source;
+	}
+
+	/**
+	 * Sets the source used for refreshing the currency list.
+	 * 
+	 * @param source
+	 *            the source, or {@code null} for disabling refreshes.
+	 */
+	public void setSource(Source source) {
+		this.source = source;
+	}
+
+	/**
+	 * Access the local snapshot file, rewritten after each successful
+	 * refresh.
+	 * 
+	 * @return the snapshot file, or {@code null}.
+	 */
+	public File getSnapshotFile() {
+		return this.snapshotFile;
+	}
+
+	/**
+	 * Sets the local snapshot file, rewritten after each successful refresh.
+	 * 
+	 * @param snapshotFile
+	 *            the snapshot file, or {@code null}.
+	 */
+	public void setSnapshotFile(File snapshotFile) {
+		this.snapshotFile = snapshotFile;
+	}
+
+	/**
+	 * Refreshes the currency list from the configured {@link Source}. The
+	 * new list is published only if it was read completely, otherwise the
+	 * current data is kept.
+	 * 
+	 * @return {@code true}, if new data was published.
+	 */
+	public synchronized boolean refresh() {
+		Source src = this.source;
+		if (src == null) {
+			return false;
+		}
+		Map<String, CurrencyUnit> loaded = new HashMap<>();
+		try {
+			Map<String, String> countryCodeMap = new HashMap<>();
 			SAXParser parser = saxParserFactory.newSAXParser();
-			parser.parse(url.openStream(), new CountryHandler());
+			try (InputStream in = src.openCountries()) {
+				if (in != null) {
+					parser.parse(in, new CountryHandler(countryCodeMap));
+				}
+			}
+			parser.reset();
+			try (InputStream in = src.openCurrencies()) {
+				if (in == null) {
+					return false;
+				}
+				parser.parse(in, new CurrencyHandler(countryCodeMap, loaded));
+			}
 		} catch (Exception e) {
-			LOGGER.warn("Error", e);
+			LOGGER.warn("Error refreshing currencies from " + src, e);
+			return false;
+		}
+		if (!publish(loaded)) {
+			return false;
+		}
+		LOGGER.debug("Currencies loaded from " + src + ": " + loaded.size());
+		try {
+			CurrencyMappings.reload();
+		} catch (RuntimeException e) {
+			LOGGER.warn("Error reloading currency mappings", e);
+		}
+		File file = this.snapshotFile;
+		if (file != null) {
+			try {
+				writeSnapshot(file);
+			} catch (IOException e) {
+				LOGGER.warn("Error writing snapshot " + file, e);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Calls {@link #refresh()} on a new daemon thread.
+	 * 
+	 * @return the thread started.
+	 */
+	public Thread refreshInBackground() {
+		Thread loader = new CurrencyLoader();
+		loader.start();
+		return loader;
+	}
+
+	private boolean publish(Map<String, CurrencyUnit> loaded) {
+		if (loaded.isEmpty()) {
+			return false;
+		}
+		Snapshot data = new Snapshot(loaded);
+		CurrencyIds.registerAll(data.values);
+		this.snapshot.set(data);
+		return true;
+	}
+
+	private Map<String, CurrencyUnit> readSnapshot(InputStream in)
+			throws IOException {
+		Map<String, CurrencyUnit> loaded = new HashMap<>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in,
+				UTF8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.isEmpty() || line.charAt(0) == '#') {
+				continue;
+			}
+			String[] fields = line.split(";", 4);
+			if (fields.length != 4) {
+				throw new IOException("Invalid snapshot line: " + line);
+			}
+			ISOCurrency currency = new ISOCurrency();
+			currency.currencyCode = fields[0];
+			currency.numericCode = parseInt(fields[1]);
+			currency.minorUnits = parseInt(fields[2]);
+			currency.currencyName = fields[3];
+			loaded.put(currency.currencyCode, currency);
+		}
+		return loaded;
+	}
+
+	/**
+	 * Writes the currently published currency list as compact snapshot. The
+	 * file is written to a temporary file first, which then atomically
+	 * replaces the target.
+	 * 
+	 * @param file
+	 *            the target file, not {@code null}.
+	 * @throws IOException
+	 *             if writing fails.
+	 */
+	public void writeSnapshot(File file) throws IOException {
+		if (file == null) {
+			throw new IllegalArgumentException("file is required.");
+		}
+		Map<String, CurrencyUnit> sorted = new TreeMap<>(
+				this.snapshot.get().currencies);
+		File parent = file.getAbsoluteFile().getParentFile();
+		File tmp = File.createTempFile(file.getName(), ".tmp", parent);
+		try {
+			try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(tmp), UTF8))) {
+				writer.write("# Currency snapshot, used until a refreshed list is available.\n");
+				writer.write("# <alphabetic code>;<numeric code>;<minor unit>;<currency name>\n");
+				for (CurrencyUnit currency : sorted.values()) {
+					writer.write(currency.getCurrencyCode());
+					writer.write(';');
+					writer.write(String.valueOf(currency.getNumericCode()));
+					writer.write(';');
+					writer.write(String.valueOf(currency
+							.getDefaultFractionDigits()));
+					writer.write(';');
+					String name = ((ISOCurrency) currency).currencyName;
+					writer.write(name == null ? "" : name);
+					writer.write('\n');
+				}
+			}
+			Files.move(tmp.toPath(), file.toPath(),
+					StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tmp.toPath());
+		}
+	}
+
+	private static int parseInt(String value) {
+		if (value.isEmpty()) {
+			return -1;
+		}
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException nfe) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Source of the ISO currency and country lists in the XML format
+	 * published by the ISO 4217 maintenance agency.
+	 */
+	public interface Source {
+
+		/**
+		 * Opens the ISO 3166 country list.
+		 * 
+		 * @return the stream, or {@code null}, if not available.
+		 * @throws IOException
+		 *             if the list cannot be opened.
+		 */
+		InputStream openCountries() throws IOException;
+
+		/**
+		 * Opens the ISO 4217 currency list.
+		 * 
+		 * @return the stream, or {@code null}, if not available.
+		 * @throws IOException
+		 *             if the list cannot be opened.
+		 */
+		InputStream openCurrencies() throws IOException;
+	}
+
+	/**
+	 * Creates a {@link Source} reading from URLs, such as {@code file:} URLs
+	 * or a local HTTP server.
+	 * 
+	 * @param currencies
+	 *            the currency list URL, not {@code null}.
+	 * @param countries
+	 *            the country list URL, or {@code null}.
+	 * @param timeout
+	 *            the connect and read timeout in milliseconds, {@code 0} for
+	 *            none.
+	 * @return the source, never {@code null}.
+	 */
+	public static Source createURLSource(URL currencies, URL countries,
+			int timeout) {
+		if (currencies == null) {
+			throw new IllegalArgumentException("currencies is required.");
+		}
+		if (timeout < 0) {
+			throw new IllegalArgumentException("Invalid timeout: " + timeout);
 		}
+		return new URLSource(currencies, countries, timeout);
 	}
 
-	private final class ISOCurrency implements CurrencyUnit, Displayable {
+	private static final class URLSource implements Source {
+		private final URL currencies;
+		private final URL countries;
+		private final int timeout;
+
+		URLSource(URL currencies, URL countries, int timeout) {
+			this.currencies = currencies;
+			this.countries = countries;
+			this.timeout = timeout;
+		}
+
+		@Override
+		public InputStream openCountries() throws IOException {
+			if (countries == null) {
+				return null;
+			}
+			return open(countries);
+		}
+
+		@Override
+		public InputStream openCurrencies() throws IOException {
+			return open(currencies);
+		}
+
+		private InputStream open(URL url) throws IOException {
+			LOGGER.debug("Loading " + url);
+			URLConnection connection = url.openConnection();
+			connection.setConnectTimeout(timeout);
+			connection.setReadTimeout(timeout);
+			return connection.getInputStream();
+		}
+
+		@Override
+		public String toString() {
+			return "URLSource [currencies=" + currencies + ", countries="
+					+ countries + "]";
+		}
+	}
+
+	/**
+	 * Immutable published state.
+	 */
+	private static final class Snapshot {
+		static final Snapshot EMPTY = new Snapshot(
+				Collections.<String, CurrencyUnit> emptyMap());
+
+		final Map<String, CurrencyUnit> currencies;
+		final Collection<CurrencyUnit> values;
+
+		Snapshot(Map<String, CurrencyUnit> currencies) {
+			this.currencies = Collections.unmodifiableMap(new HashMap<>(
+					currencies));
+			this.values = this.currencies.values();
+		}
+	}
+
+	private static final class ISOCurrency implements CurrencyUnit, Displayable {
 		private String currencyName;
 		private String currencyCode;
 		private int numericCode;
@@ -136,13 +522,31 @@ public class IsoCurrencyOnlineProvider implements CurrencyProviderSpi {
 			return -1;
 		}
 
-        @Override
-        public int compareTo(CurrencyUnit o){
-            return this.getCurrencyCode().compareTo(o.getCurrencyCode());
-        }
-    }
+		@Override
+		public int compareTo(CurrencyUnit o) {
+			return this.getCurrencyCode().compareTo(o.getCurrencyCode());
+		}
+
+		@Override
+		public int hashCode() {
+			return currencyCode == null ? 0 : currencyCode.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ISOCurrency)) {
+				return false;
+			}
+			ISOCurrency other = (ISOCurrency) obj;
+			return currencyCode == null ? other.currencyCode == null
+					: currencyCode.equals(other.currencyCode);
+		}
+	}
 
-	private class CountryHandler extends DefaultHandler {
+	private static final class CountryHandler extends DefaultHandler {
 
 		// <ISO_3166-1_List_en xml:lang="en">
 		// <ISO_3166-1_Entry>
@@ -152,10 +556,15 @@ public class IsoCurrencyOnlineProvider implements CurrencyProviderSpi {
 		// ...
 		// </ISO_3166-1_List_en xml:lang="en">
 
+		private final Map<String, String> countryCodeMap;
 		private String name;
 		private String alpha2Code;
 		private StringBuilder text = new StringBuilder();
 
+		CountryHandler(Map<String, String> countryCodeMap) {
+			this.countryCodeMap = countryCodeMap;
+		}
+
 		@Override
 		public void startElement(String uri, String localName, String qName,
 				Attributes attributes) throws SAXException {
@@ -191,7 +600,7 @@ public class IsoCurrencyOnlineProvider implements CurrencyProviderSpi {
 		}
 	}
 
-	private class CurrencyHandler extends DefaultHandler {
+	private static final class CurrencyHandler extends DefaultHandler {
 
 		// <ISO_CCY_CODES>
 		// <ISO_CURRENCY>
@@ -204,9 +613,17 @@ public class IsoCurrencyOnlineProvider implements CurrencyProviderSpi {
 		// ...
 		// </ISO_CCY_CODES>
 
+		private final Map<String, String> countryCodeMap;
+		private final Map<String, CurrencyUnit> currencies;
 		private ISOCurrency currency = null;
 		private StringBuilder text = new StringBuilder();
 
+		CurrencyHandler(Map<String, String> countryCodeMap,
+				Map<String, CurrencyUnit> currencies) {
+			this.countryCodeMap = countryCodeMap;
+			this.currencies = currencies;
+		}
+
 		@Override
 		public void startElement(String uri, String localName, String qName,
 				Attributes attributes) throws SAXException {
@@ -237,7 +654,10 @@ public class IsoCurrencyOnlineProvider implements CurrencyProviderSpi {
 		public void endElement(String uri, String localName, String qName)
 				throws SAXException {
 			if ("ISO_CURRENCY".equals(qName)) {
-				currencies.put(currency.currencyCode, currency);
+				if (currency.currencyCode != null
+						&& !currency.currencyCode.isEmpty()) {
+					currencies.put(currency.currencyCode, currency);
+				}
 			} else if ("ENTITY".equals(qName)) {
 				String countryName = text.toString();
 				String code = countryCodeMap.get(countryName);
@@ -281,37 +701,33 @@ public class IsoCurrencyOnlineProvider implements CurrencyProviderSpi {
 
 		public CurrencyLoader() {
 			super("ISO Currency Online Loader");
+			setDaemon(true);
 		}
 
 		public void run() {
-			loadCountries();
-			loadCurrencies();
-			LOGGER.debug("Currencies loaded from ISO:"
-					+ IsoCurrencyOnlineProvider.this.currencies.values()
-					+
-					(IsoCurrencyOnlineProvider.this.countryCodeMap != null ? " for "
-							+
-							IsoCurrencyOnlineProvider.this.countryCodeMap
-									.size() + " countries"
-							:
-							""));
+			refresh();
 		}
 
 	}
 
 	@Override
 	public CurrencyUnit getCurrencyUnit(String currencyCode) {
-		return this.currencies.get(currencyCode);
+		return this.snapshot.get().currencies.get(currencyCode);
 	}
 
 	@Override
 	public CurrencyUnit getCurrencyUnit(Locale locale) {
-		return null; // TODO is this intentional?
+		String currencyCode = LocaleCurrencyIndex.getInstance()
+				.getCurrencyCode(locale);
+		if (currencyCode == null) {
+			return null;
+		}
+		return getCurrencyUnit(currencyCode);
 	}
 
 	@Override
 	public Collection<CurrencyUnit> getCurrencies() {
-		return currencies.values();
+		return this.snapshot.get().values;
 	}
 
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies.spi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.money.CurrencyUnit;
+
+/**
+ * Base class for {@link CurrencyMappingsSingletonSpi} implementations, adding
+ * batch mappings. The batch mappings are implemented based on the single
+ * mapping methods of {@link CurrencyMappingsSingletonSpi}, and can be
+ * overridden with optimized versions.
+ * <p>
+ * Batch mappings are not part of {@link CurrencyMappingsSingletonSpi}, so
+ * existing implementations of the interface remain valid.
+ */
+public abstract class AbstractCurrencyMappingsSingletonSpi implements
+		CurrencyMappingsSingletonSpi {
+
+	/**
+	 * Discards data cached by this instance, e.g. after a provider has
+	 * refreshed the currencies it provides. By default nothing is cached, so
+	 * this method does nothing.
+	 */
+	public void reload() {
+	}
+
+	/**
+	 * This method maps the given {@link CurrencyUnit} to other
+	 * {@link CurrencyUnit} instances with the given target namespace, for
+	 * several timestamps. By default
+	 * {@link #map(CurrencyUnit, String, long)} is called for each timestamp.
+	 * 
+	 * @param currencyUnit
+	 *            The source unit, never {@code null}.
+	 * @param targetNamespace
+	 *            the target namespace, never {@code null}.
+	 * @param timestamps
+	 *            The target UTC timestamps, never {@code null}.
+	 * @return The mapped {@link CurrencyUnit} instances, in the order of the
+	 *         timestamps, containing {@code null} for timestamps without
+	 *         mapping.
+	 */
+	public CurrencyUnit[] map(CurrencyUnit currencyUnit,
+			String targetNamespace, long[] timestamps) {
+		CurrencyUnit[] results = new CurrencyUnit[timestamps.length];
+		for (int i = 0; i < timestamps.length; i++) {
+			results[i] = map(currencyUnit, targetNamespace, timestamps[i]);
+		}
+		return results;
+	}
+
+	/**
+	 * This method maps several {@link CurrencyUnit} instances to the given
+	 * target namespace at once. The distinct units are collected first, each
+	 * is resolved once through {@link #map(CurrencyUnit, String)}, and the
+	 * results are scattered back in input order. Runs of the same unit, as
+	 * typical for columns, are resolved without any lookup.
+	 * 
+	 * @param currencyUnits
+	 *            The source units, never {@code null}. {@code null} elements
+	 *            are allowed.
+	 * @param targetNamespace
+	 *            the target namespace, never {@code null}.
+	 * @return The mapped {@link CurrencyUnit} instances, in the order of the
+	 *         source units, containing {@code null} for units without
+	 *         mapping.
+	 */
+	public CurrencyUnit[] mapAll(CurrencyUnit[] currencyUnits,
+			String targetNamespace) {
+		if (currencyUnits == null) {
+			throw new IllegalArgumentException("currencyUnits is required.");
+		}
+		if (targetNamespace == null) {
+			throw new IllegalArgumentException("targetNamespace is required.");
+		}
+		CurrencyUnit[] results = new CurrencyUnit[currencyUnits.length];
+		Map<CurrencyUnit, Integer> distinct = new HashMap<CurrencyUnit, Integer>();
+		int[] slots = new int[currencyUnits.length];
+		List<CurrencyUnit> units = new ArrayList<CurrencyUnit>();
+		CurrencyUnit last = null;
+		int lastSlot = -1;
+		for (int i = 0; i < currencyUnits.length; i++) {
+			CurrencyUnit unit = currencyUnits[i];
+			if (unit == null) {
+				slots[i] = -1;
+				continue;
+			}
+			if (unit != last) {
+				Integer slot = distinct.get(unit);
+				if (slot == null) {
+					slot = units.size();
+					distinct.put(unit, slot);
+					units.add(unit);
+				}
+				last = unit;
+				lastSlot = slot;
+			}
+			slots[i] = lastSlot;
+		}
+		CurrencyUnit[] mapped = new CurrencyUnit[units.size()];
+		for (int i = 0; i < mapped.length; i++) {
+			mapped[i] = map(units.get(i), targetNamespace);
+		}
+		for (int i = 0; i < slots.length; i++) {
+			if (slots[i] >= 0) {
+				results[i] = mapped[slots[i]];
+			}
+		}
+		return results;
+	}
+
+}
@@ -28,7 +28,9 @@ import javax.money.CurrencyUnit;
  * instances and delegating according calls to the appropriate providers.
  * <p>
  * Implementation of this interface must be thread-safe, but can be contextual
- * in a EE context.
+ * in a EE context. Implementations may extend
+ * {@link AbstractCurrencyMappingsSingletonSpi} for providing optimized batch
+ * mappings.
  * 
  * @author Anatole Tresch
  */
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryCurrencies;
+
+import org.junit.Test;
+
+public class CurrencyIdsTest {
+
+	@Test
+	public void testRegister() {
+		CurrencyUnit chf = MonetaryCurrencies.getCurrency("CHF");
+		int id = CurrencyIds.register(chf);
+		assertTrue(id >= 0 && id < CurrencyIds.size());
+		assertEquals(id, CurrencyIds.register(chf));
+		assertEquals(id, CurrencyIds.getId("CHF"));
+		assertEquals(id, CurrencyIds.getId(new StringBuilder("CHF")));
+		assertEquals(id, CurrencyIds.getId(chf));
+		assertEquals("CHF", CurrencyIds.getCurrency(id).getCurrencyCode());
+		assertEquals("CHF", CurrencyIds.getCode(id));
+	}
+
+	@Test
+	public void testDenseIds() {
+		int first = CurrencyIds.register(new TestCurrency.Builder("QXA")
+				.build());
+		int second = CurrencyIds.register(new TestCurrency.Builder(
+				"internal-1").build());
+		assertEquals(first + 1, second);
+		assertEquals(second, CurrencyIds.getId("internal-1"));
+	}
+
+	@Test
+	public void testUnknown() {
+		assertEquals(-1, CurrencyIds.getId("QQQ"));
+		assertEquals(-1, CurrencyIds.getId("chf"));
+		assertEquals(-1, CurrencyIds.getId("TOOLONG"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidId() {
+		CurrencyIds.getCurrency(-1);
+	}
+
+}
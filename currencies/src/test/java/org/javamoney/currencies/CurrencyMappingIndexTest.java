@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryCurrencies;
+
+import org.junit.Test;
+
+public class CurrencyMappingIndexTest {
+
+	private static final String NS = "internal";
+
+	private final CurrencyUnit dem = MonetaryCurrencies.getCurrency("DEM");
+	private final CurrencyUnit eur = MonetaryCurrencies.getCurrency("EUR");
+	private final CurrencyUnit chf = MonetaryCurrencies.getCurrency("CHF");
+
+	private CurrencyMappingIndex createIndex() {
+		return new CurrencyMappingIndex.Builder()
+				.addMapping(dem, NS, 1000L, 2000L, eur)
+				.addMapping(dem, NS, Long.MIN_VALUE, 1000L, dem)
+				.addMapping(dem, NS, 3000L, Long.MAX_VALUE, chf).build();
+	}
+
+	@Test
+	public void testMap() {
+		CurrencyMappingIndex index = createIndex();
+		assertEquals(dem, index.map(dem, NS, 999L));
+		assertEquals(eur, index.map(dem, NS, 1000L));
+		assertEquals(eur, index.map(dem, NS, 1999L));
+		assertNull(index.map(dem, NS, 2000L));
+		assertEquals(chf, index.map(dem, NS, 3000L));
+		assertNull(index.map(dem, "foo", 1000L));
+		assertNull(index.map(eur, NS, 1000L));
+	}
+
+	@Test
+	public void testMapBatch() {
+		CurrencyMappingIndex index = createIndex();
+		long[] timestamps = new long[] { 0L, 1500L, 1600L, 2500L, 999L, 5000L };
+		CurrencyUnit[] results = new CurrencyUnit[timestamps.length];
+		results[5] = eur;
+		index.map(dem, NS, timestamps, results);
+		assertEquals(dem, results[0]);
+		assertEquals(eur, results[1]);
+		assertEquals(eur, results[2]);
+		assertNull(results[3]);
+		assertEquals(dem, results[4]);
+		// already mapped entries are kept
+		assertEquals(eur, results[5]);
+	}
+
+	@Test
+	public void testIsTimeDependent() {
+		assertTrue(createIndex().isTimeDependent(dem, NS));
+		assertTrue(new CurrencyMappingIndex.Builder()
+				.addMapping(dem, NS, 1000L, Long.MAX_VALUE, eur).build()
+				.isTimeDependent(dem, NS));
+		CurrencyMappingIndex unlimited = new CurrencyMappingIndex.Builder()
+				.addMapping(dem, NS, eur).build();
+		assertFalse(unlimited.isTimeDependent(dem, NS));
+		assertFalse(unlimited.isTimeDependent(dem, "foo"));
+		assertFalse(unlimited.isTimeDependent(chf, NS));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOverlapping() {
+		new CurrencyMappingIndex.Builder().addMapping(dem, NS, 0L, 2000L, eur)
+				.addMapping(dem, NS, 1000L, 3000L, chf).build();
+	}
+
+}
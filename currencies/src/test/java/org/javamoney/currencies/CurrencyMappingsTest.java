@@ -2,11 +2,19 @@ package org.javamoney.currencies;
 
 import static org.junit.Assert.*;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Set;
 
 import javax.money.CurrencyUnit;
 import javax.money.MonetaryCurrencies;
 
+import org.javamoney.currencies.internal.DefaultMonetaryCurrenciesSingletonSpi;
+import org.javamoney.currencies.spi.AbstractCurrencyMappingsSingletonSpi;
+import org.javamoney.currencies.spi.CurrencyMappingsSingletonSpi;
 import org.javamoney.moneta.BuildableCurrencyUnit;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -54,4 +62,57 @@ public class CurrencyMappingsTest {
 		assertTrue(ns.contains("ISO-4217"));
 	}
 
+	@Test
+	public void testMapAll() {
+		CurrencyUnit chf = MonetaryCurrencies.getCurrency("CHF");
+		CurrencyUnit[] units = new CurrencyUnit[] { chf, null, chf };
+		CurrencyUnit[] mapped = CurrencyMappings.mapAll(units, "ISO-4217");
+		assertEquals(units.length, mapped.length);
+		assertNull(mapped[1]);
+		assertEquals(Arrays.asList(mapped),
+				CurrencyMappings.mapAll(Arrays.asList(units), "ISO-4217"));
+		Iterator<CurrencyUnit> it = CurrencyMappings.mapAll(Arrays.asList(units)
+				.iterator(), "ISO-4217");
+		for (CurrencyUnit unit : mapped) {
+			assertTrue(it.hasNext());
+			assertEquals(unit, it.next());
+		}
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testAdaptInterfaceSpi() {
+		CurrencyUnit dem = MonetaryCurrencies.getCurrency("DEM");
+		CurrencyUnit eur = MonetaryCurrencies.getCurrency("EUR");
+		DefaultMonetaryCurrenciesSingletonSpi target = new DefaultMonetaryCurrenciesSingletonSpi();
+		target.addMapper(new CurrencyMappingIndex.Builder().addMapping(dem,
+				"test", 1000L, Long.MAX_VALUE, eur).build());
+		assertSame(target, CurrencyMappings.adapt(target));
+		AbstractCurrencyMappingsSingletonSpi adapted = CurrencyMappings
+				.adapt(delegate(target));
+		assertNotSame(target, adapted);
+		assertArrayEquals(new CurrencyUnit[] { null, eur },
+				adapted.map(dem, "test", new long[] { 999L, 1000L }));
+		assertArrayEquals(new CurrencyUnit[] { eur, null, eur },
+				adapted.mapAll(new CurrencyUnit[] { dem, null, dem }, "test"));
+	}
+
+	/**
+	 * Creates an implementation of the plain SPI interface, delegating to the
+	 * given instance.
+	 */
+	private static CurrencyMappingsSingletonSpi delegate(
+			final CurrencyMappingsSingletonSpi target) {
+		return (CurrencyMappingsSingletonSpi) Proxy.newProxyInstance(
+				CurrencyMappingsTest.class.getClassLoader(),
+				new Class<?>[] { CurrencyMappingsSingletonSpi.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) throws Throwable {
+						return method.invoke(target, args);
+					}
+				});
+	}
+
 }
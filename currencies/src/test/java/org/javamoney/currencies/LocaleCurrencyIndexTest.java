@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+public class LocaleCurrencyIndexTest {
+
+	private static long utc(int year, int month, int day) {
+		Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+		cal.clear();
+		cal.set(year, month - 1, day);
+		return cal.getTimeInMillis();
+	}
+
+	@Test
+	public void testCurrentCurrency() {
+		LocaleCurrencyIndex index = LocaleCurrencyIndex.getInstance();
+		assertEquals("CHF", index.getCurrencyCode("CH"));
+		assertEquals("EUR", index.getCurrencyCode(Locale.GERMANY));
+		assertEquals("USD", index.getCurrencyCode(Locale.US));
+		assertEquals("EUR", index.getCurrencyCode("150"));
+		assertNull(index.getCurrencyCode(Locale.ENGLISH));
+		assertNull(index.getCurrencyCode("QQ"));
+		assertNull(index.getCurrencyCode((String) null));
+		assertTrue(index.getRegionCodes().contains("JP"));
+	}
+
+	@Test
+	public void testDateAware() {
+		LocaleCurrencyIndex index = LocaleCurrencyIndex.getInstance();
+		assertEquals("DEM", index.getCurrencyCode("DE", utc(1990, 1, 1)));
+		assertEquals("EUR", index.getCurrencyCode("DE", utc(2005, 1, 1)));
+		assertEquals("EUR", index.getCurrencyCode(Locale.GERMANY,
+				utc(2005, 1, 1)));
+		assertNull(index.getCurrencyCode("DE", utc(1900, 1, 1)));
+	}
+
+	@Test
+	public void testLoad() throws Exception {
+		String xml = "<supplementalData><currencyData><region iso3166=\"XA\">"
+				+ "<currency iso4217=\"AAA\" from=\"2010-01-01\"/>"
+				+ "<currency iso4217=\"AAB\" tender=\"false\"/>"
+				+ "<currency iso4217=\"AAC\" from=\"2000-01-01\" to=\"2009-12-31\"/>"
+				+ "</region></currencyData>"
+				+ "<territoryInfo><region iso3166=\"XB\"/></territoryInfo>"
+				+ "</supplementalData>";
+		LocaleCurrencyIndex index = LocaleCurrencyIndex
+				.load(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+		assertEquals("AAA", index.getCurrencyCode("XA"));
+		assertEquals("AAC", index.getCurrencyCode("XA", utc(2009, 12, 31)
+				+ 3600000L));
+		assertEquals("AAA", index.getCurrencyCode("XA", utc(2010, 1, 1)));
+		assertNull(index.getCurrencyCode("XA", utc(1999, 12, 31)));
+		assertEquals(1, index.getRegionCodes().size());
+	}
+
+}
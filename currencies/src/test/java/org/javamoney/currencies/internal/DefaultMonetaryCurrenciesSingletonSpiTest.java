@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryCurrencies;
+
+import org.javamoney.currencies.CurrencyMappingIndex;
+import org.javamoney.currencies.spi.CurrencyUnitMapperSpi;
+import org.junit.Test;
+
+public class DefaultMonetaryCurrenciesSingletonSpiTest {
+
+	private static final String NS = "internal";
+
+	private final CurrencyUnit dem = MonetaryCurrencies.getCurrency("DEM");
+	private final CurrencyUnit frf = MonetaryCurrencies.getCurrency("FRF");
+	private final CurrencyUnit eur = MonetaryCurrencies.getCurrency("EUR");
+	private final CurrencyUnit chf = MonetaryCurrencies.getCurrency("CHF");
+
+	/**
+	 * Mapper mapping DEM and FRF to EUR, counting its invocations per unit.
+	 */
+	private static final class CountingMapper implements CurrencyUnitMapperSpi {
+		final Map<String, Integer> calls = new HashMap<>();
+
+		@Override
+		public CurrencyUnit map(CurrencyUnit currencyUnit,
+				String targetNamespace, Long timestamp) {
+			String code = currencyUnit.getCurrencyCode();
+			Integer count = calls.get(code);
+			calls.put(code, count == null ? 1 : count + 1);
+			if (NS.equals(targetNamespace)
+					&& ("DEM".equals(code) || "FRF".equals(code))) {
+				return MonetaryCurrencies.getCurrency("EUR");
+			}
+			return null;
+		}
+	}
+
+	@Test
+	public void testMapAll() {
+		DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+		CountingMapper mapper = new CountingMapper();
+		spi.addMapper(mapper);
+		CurrencyUnit[] results = spi.mapAll(new CurrencyUnit[] { dem, dem,
+				chf, null, frf, dem, chf }, NS);
+		assertEquals(7, results.length);
+		assertEquals(eur, results[0]);
+		assertEquals(eur, results[1]);
+		assertNull(results[2]);
+		assertNull(results[3]);
+		assertEquals(eur, results[4]);
+		assertEquals(eur, results[5]);
+		assertNull(results[6]);
+		assertEquals(Integer.valueOf(1), mapper.calls.get("DEM"));
+		assertEquals(Integer.valueOf(1), mapper.calls.get("FRF"));
+		assertEquals(Integer.valueOf(1), mapper.calls.get("CHF"));
+	}
+
+	@Test
+	public void testMapAllEmpty() {
+		DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+		assertEquals(0, spi.mapAll(new CurrencyUnit[0], NS).length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMapAllNull() {
+		new DefaultMonetaryCurrenciesSingletonSpi().mapAll(null, NS);
+	}
+
+	@Test
+	public void testMissesCachedUpToLimit() {
+		DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+		CountingMapper mapper = new CountingMapper();
+		spi.addMapper(mapper);
+		int size = DefaultMonetaryCurrenciesSingletonSpi.MAX_CACHE_SIZE;
+		for (int i = 0; i < size; i++) {
+			assertNull(spi.map(chf, "ns" + i));
+		}
+		assertNull(spi.map(chf, "ns0"));
+		assertEquals(Integer.valueOf(size), mapper.calls.get("CHF"));
+		assertNull(spi.map(chf, "other"));
+		assertNull(spi.map(chf, "other"));
+		assertEquals(Integer.valueOf(size + 2), mapper.calls.get("CHF"));
+	}
+
+	@Test
+	public void testUntimedMappingFollowsValidity() throws InterruptedException {
+		DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+		long end = System.currentTimeMillis() + 100;
+		spi.addMapper(new CurrencyMappingIndex.Builder()
+				.addMapping(dem, NS, Long.MIN_VALUE, end, eur)
+				.addMapping(frf, NS, eur).build());
+		assertEquals(eur, spi.map(dem, NS));
+		assertEquals(eur, spi.map(frf, NS));
+		while (System.currentTimeMillis() <= end) {
+			Thread.sleep(20);
+		}
+		assertNull(spi.map(dem, NS));
+		assertEquals(eur, spi.map(frf, NS));
+	}
+
+	@Test
+	public void testReload() {
+		DefaultMonetaryCurrenciesSingletonSpi spi = new DefaultMonetaryCurrenciesSingletonSpi();
+		CountingMapper mapper = new CountingMapper();
+		spi.addMapper(mapper);
+		assertEquals(eur, spi.map(dem, NS));
+		assertEquals(eur, spi.map(dem, NS));
+		assertEquals(Integer.valueOf(1), mapper.calls.get("DEM"));
+		spi.reload();
+		assertEquals(eur, spi.map(dem, NS));
+		assertEquals(Integer.valueOf(2), mapper.calls.get("DEM"));
+	}
+
+}
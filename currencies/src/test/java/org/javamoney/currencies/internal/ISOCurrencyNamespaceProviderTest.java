@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.Currency;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryCurrencies;
+
+import org.junit.Test;
+
+public class ISOCurrencyNamespaceProviderTest {
+
+	private static final String ISO_NS = "ISO-4217";
+
+	private final ISOCurrencyNamespaceProvider provider = new ISOCurrencyNamespaceProvider();
+
+	@Test
+	public void testGetNamespaces() {
+		assertTrue(provider.getNamespaces("CHF").contains(ISO_NS));
+		assertTrue(provider.getNamespaces("EUR").contains(ISO_NS));
+		assertTrue(provider.getNamespaces("QQQ").isEmpty());
+		assertTrue(provider.getNamespaces("chf").isEmpty());
+		assertTrue(provider.getNamespaces("TOOLONG").isEmpty());
+		assertTrue(provider.getNamespaces(null).isEmpty());
+	}
+
+	@Test
+	public void testGetCurrencies() {
+		Collection<CurrencyUnit> currencies = provider.getCurrencies(ISO_NS);
+		assertEquals(Currency.getAvailableCurrencies().size(),
+				currencies.size());
+		assertTrue(currencies.contains(MonetaryCurrencies.getCurrency("CHF")));
+		assertSame(currencies, provider.getCurrencies(ISO_NS));
+		assertTrue(provider.getCurrencies("foo").isEmpty());
+		assertTrue(provider.isNamespaceAvailable(ISO_NS));
+		assertFalse(provider.isNamespaceAvailable("foo"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testGetCurrenciesImmutable() {
+		provider.getCurrencies(ISO_NS).clear();
+	}
+
+}
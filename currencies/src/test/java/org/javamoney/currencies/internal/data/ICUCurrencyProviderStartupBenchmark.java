@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies.internal.data;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+
+/**
+ * Startup benchmark comparing eager and lazy construction of
+ * {@link ICUCurrencyProvider}. Since class loading and ICU initialization
+ * happen once per JVM, each sample is measured in a fresh JVM. The modes are:
+ * <ul>
+ * <li>{@code eager}: construction followed by materializing all currencies,
+ * as the provider did on construction before.</li>
+ * <li>{@code lazy}: construction only.</li>
+ * <li>{@code lookup}: construction followed by a single lookup.</li>
+ * </ul>
+ * Run with {@code java -cp <test classpath>
+ * org.javamoney.currencies.internal.data.ICUCurrencyProviderStartupBenchmark [samples]}.
+ */
+public final class ICUCurrencyProviderStartupBenchmark {
+
+	private static final String[] MODES = { "eager", "lazy", "lookup" };
+
+	private ICUCurrencyProviderStartupBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length == 2 && "-run".equals(args[0])) {
+			System.out.println(measure(args[1]));
+			return;
+		}
+		int samples = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		for (String mode : MODES) {
+			long[] times = new long[samples];
+			for (int i = 0; i < samples; i++) {
+				times[i] = fork(mode);
+			}
+			Arrays.sort(times);
+			System.out.println(mode + ": median " + times[samples / 2] / 1000L
+					+ " us, min " + times[0] / 1000L + " us, max "
+					+ times[samples - 1] / 1000L + " us");
+		}
+	}
+
+	private static long measure(String mode) {
+		long start = System.nanoTime();
+		ICUCurrencyProvider provider = new ICUCurrencyProvider();
+		if ("eager".equals(mode)) {
+			provider.getCurrencies();
+		} else if ("lookup".equals(mode)) {
+			provider.getCurrencyUnit("CHF");
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static long fork(String mode) throws IOException,
+			InterruptedException {
+		String java = System.getProperty("java.home") + File.separator
+				+ "bin" + File.separator + "java";
+		Process process = new ProcessBuilder(java, "-cp",
+				System.getProperty("java.class.path"),
+				ICUCurrencyProviderStartupBenchmark.class.getName(), "-run",
+				mode).redirectErrorStream(true).start();
+		String result = null;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				process.getInputStream(), "UTF-8"))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				result = line;
+			}
+		}
+		if (process.waitFor() != 0 || result == null) {
+			throw new IllegalStateException("Benchmark run failed: " + result);
+		}
+		return Long.parseLong(result.trim());
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies.internal.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.Locale;
+
+import javax.money.CurrencyUnit;
+
+import org.javamoney.currencies.CurrencyIds;
+import org.junit.Test;
+
+public class ICUCurrencyProviderTest {
+
+	@Test
+	public void testGetCurrencyUnit() {
+		ICUCurrencyProvider provider = new ICUCurrencyProvider();
+		CurrencyUnit chf = provider.getCurrencyUnit("CHF");
+		assertNotNull(chf);
+		assertEquals("CHF", chf.getCurrencyCode());
+		assertSame(chf, provider.getCurrencyUnit("CHF"));
+		assertTrue(CurrencyIds.getId("CHF") >= 0);
+		assertNull(provider.getCurrencyUnit("QQQ"));
+		assertNull(provider.getCurrencyUnit((String) null));
+	}
+
+	@Test
+	public void testGetCurrencyUnitForLocale() {
+		ICUCurrencyProvider provider = new ICUCurrencyProvider();
+		assertEquals("EUR", provider.getCurrencyUnit(Locale.GERMANY)
+				.getCurrencyCode());
+		assertEquals("CHF", provider.getCurrencyUnit(new Locale("de", "CH"))
+				.getCurrencyCode());
+		assertNull(provider.getCurrencyUnit(Locale.ENGLISH));
+	}
+
+	@Test
+	public void testIsAvailable() {
+		ICUCurrencyProvider provider = new ICUCurrencyProvider();
+		assertTrue(provider.isAvailable("EUR"));
+		assertFalse(provider.isAvailable("QQQ"));
+		assertFalse(provider.isAvailable(null));
+	}
+
+	@Test
+	public void testGetCurrencies() {
+		ICUCurrencyProvider provider = new ICUCurrencyProvider();
+		CurrencyUnit usd = provider.getCurrencyUnit("USD");
+		Collection<CurrencyUnit> currencies = provider.getCurrencies();
+		assertEquals(com.ibm.icu.util.Currency.getAvailableCurrencies()
+				.size(), currencies.size());
+		assertTrue(currencies.contains(usd));
+		assertEquals(currencies.size(), provider.getCurrencies().size());
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies.internal.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class IsoCountryMappingProviderTest {
+
+	private static String entry(String name, String code) {
+		return "<ISO_3166-1_Entry><ISO_3166-1_Country_name>" + name
+				+ "</ISO_3166-1_Country_name><ISO_3166-1_Alpha-2_Code_element>"
+				+ code + "</ISO_3166-1_Alpha-2_Code_element></ISO_3166-1_Entry>";
+	}
+
+	@Test
+	public void testLookupDuringWarmup() {
+		IsoCountryMappingProvider provider = IsoCountryMappingProvider
+				.getInstance();
+		assertEquals("CH", provider.getCodeFromName("SWITZERLAND"));
+		assertNotNull(provider.getNameFromCode("DE"));
+		assertTrue(provider.getIsoAlpha2Codes().contains("US"));
+	}
+
+	@Test
+	public void testInitialLoadWithoutConfiguration() {
+		IsoCountryMappingProvider provider = IsoCountryMappingProvider
+				.getInstance();
+		// nothing is configured, so no network access is performed
+		assertTrue(provider.awaitReady(5, TimeUnit.SECONDS));
+		assertTrue(provider.isReady());
+	}
+
+	@Test
+	public void testLoadFromFile() throws Exception {
+		File file = File.createTempFile("iso-countries", ".xml");
+		file.deleteOnExit();
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file),
+				"UTF-8")) {
+			writer.write("<ISO_3166-1_List_en>");
+			writer.write(entry("SWITZERLAND", "CH"));
+			writer.write(entry("GERMANY", "DE"));
+			writer.write(entry("UNITED STATES", "US"));
+			writer.write("</ISO_3166-1_List_en>");
+		}
+		IsoCountryMappingProvider provider = IsoCountryMappingProvider
+				.getInstance();
+		provider.awaitReady(30, TimeUnit.SECONDS);
+		assertTrue(provider.loadCountries(file));
+		assertFalse(provider.isFallback());
+		assertEquals("CH", provider.getCodeFromName("SWITZERLAND"));
+		assertEquals(3, provider.getIsoNames().size());
+		assertFalse(provider.loadCountries(new File(file.getPath()
+				+ ".missing")));
+		assertEquals(3, provider.getIsoNames().size());
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies.internal.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Locale;
+
+import javax.money.CurrencyUnit;
+
+import org.javamoney.util.Displayable;
+import org.junit.Test;
+
+public class IsoCurrencyOnlineProviderTest {
+
+	private static final String CURRENCIES = "<ISO_CCY_CODES>"
+			+ "<ISO_CURRENCY><ENTITY>SWITZERLAND</ENTITY><CURRENCY>Swiss Franc</CURRENCY>"
+			+ "<ALPHABETIC_CODE>CHF</ALPHABETIC_CODE><NUMERIC_CODE>756</NUMERIC_CODE>"
+			+ "<MINOR_UNIT>2</MINOR_UNIT></ISO_CURRENCY>"
+			+ "<ISO_CURRENCY><ENTITY>ANTARCTICA</ENTITY><CURRENCY>No universal currency</CURRENCY>"
+			+ "</ISO_CURRENCY>"
+			+ "<ISO_CURRENCY><ENTITY>ZZ</ENTITY><CURRENCY>Test Currency</CURRENCY>"
+			+ "<ALPHABETIC_CODE>XTS</ALPHABETIC_CODE><NUMERIC_CODE>963</NUMERIC_CODE>"
+			+ "<MINOR_UNIT>N.A.</MINOR_UNIT></ISO_CURRENCY>"
+			+ "</ISO_CCY_CODES>";
+
+	private static File write(String content) throws IOException {
+		File file = File.createTempFile("iso-currencies", ".xml");
+		file.deleteOnExit();
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file),
+				"UTF-8")) {
+			writer.write(content);
+		}
+		return file;
+	}
+
+	@Test
+	public void testBundledSnapshot() {
+		IsoCurrencyOnlineProvider provider = new IsoCurrencyOnlineProvider();
+		CurrencyUnit chf = provider.getCurrencyUnit("CHF");
+		assertNotNull(chf);
+		assertEquals(756, chf.getNumericCode());
+		assertEquals(2, chf.getDefaultFractionDigits());
+		assertTrue(provider.getCurrencies().size() > 100);
+	}
+
+	@Test
+	public void testRefresh() throws Exception {
+		IsoCurrencyOnlineProvider provider = new IsoCurrencyOnlineProvider();
+		provider.setSource(IsoCurrencyOnlineProvider.createURLSource(
+				write(CURRENCIES).toURI().toURL(), null, 1000));
+		assertTrue(provider.refresh());
+		assertEquals(2, provider.getCurrencies().size());
+		assertEquals(756, provider.getCurrencyUnit("CHF").getNumericCode());
+		assertEquals(-1, provider.getCurrencyUnit("XTS")
+				.getDefaultFractionDigits());
+		assertNull(provider.getCurrencyUnit("EUR"));
+	}
+
+	@Test
+	public void testFailedRefreshKeepsData() throws Exception {
+		IsoCurrencyOnlineProvider provider = new IsoCurrencyOnlineProvider();
+		CurrencyUnit eur = provider.getCurrencyUnit("EUR");
+		assertNotNull(eur);
+		provider.setSource(IsoCurrencyOnlineProvider.createURLSource(
+				write("<ISO_CCY_CODES><ISO_CURRENCY>").toURI().toURL(), null,
+				1000));
+		assertFalse(provider.refresh());
+		assertSame(eur, provider.getCurrencyUnit("EUR"));
+		provider.setSource(new IsoCurrencyOnlineProvider.Source() {
+			@Override
+			public InputStream openCountries() throws IOException {
+				return null;
+			}
+
+			@Override
+			public InputStream openCurrencies() throws IOException {
+				throw new IOException("offline");
+			}
+		});
+		assertFalse(provider.refresh());
+		assertSame(eur, provider.getCurrencyUnit("EUR"));
+	}
+
+	@Test
+	public void testSnapshotFile() throws Exception {
+		File snapshot = File.createTempFile("iso-currencies", ".csv");
+		snapshot.deleteOnExit();
+		IsoCurrencyOnlineProvider provider = new IsoCurrencyOnlineProvider();
+		provider.setSnapshotFile(snapshot);
+		provider.setSource(IsoCurrencyOnlineProvider.createURLSource(
+				write(CURRENCIES).toURI().toURL(), null, 1000));
+		Thread loader = provider.refreshInBackground();
+		loader.join(10000L);
+		assertEquals(2, provider.getCurrencies().size());
+		assertTrue(snapshot.length() > 0);
+
+		IsoCurrencyOnlineProvider other = new IsoCurrencyOnlineProvider();
+		assertTrue(other.loadSnapshot(snapshot));
+		assertEquals(2, other.getCurrencies().size());
+		assertEquals("Swiss Franc", ((Displayable) other
+				.getCurrencyUnit("CHF")).getDisplayName(Locale.ENGLISH));
+		assertFalse(other.loadSnapshot(new File(snapshot.getPath()
+				+ ".missing")));
+		assertEquals(2, other.getCurrencies().size());
+	}
+
+	@Test
+	public void testEqualsByCurrencyCode() throws Exception {
+		IsoCurrencyOnlineProvider provider = new IsoCurrencyOnlineProvider();
+		CurrencyUnit bundled = provider.getCurrencyUnit("CHF");
+		provider.setSource(IsoCurrencyOnlineProvider.createURLSource(
+				write(CURRENCIES).toURI().toURL(), null, 1000));
+		assertTrue(provider.refresh());
+		CurrencyUnit refreshed = provider.getCurrencyUnit("CHF");
+		assertNotSame(bundled, refreshed);
+		assertEquals(bundled, refreshed);
+		assertEquals(bundled.hashCode(), refreshed.hashCode());
+		assertEquals(0, bundled.compareTo(refreshed));
+		assertFalse(refreshed.equals(provider.getCurrencyUnit("XTS")));
+	}
+
+	@Test
+	public void testWriteSnapshotReplacesFile() throws Exception {
+		final File snapshot = File.createTempFile("iso-currencies", ".csv");
+		snapshot.deleteOnExit();
+		IsoCurrencyOnlineProvider provider = new IsoCurrencyOnlineProvider();
+		provider.writeSnapshot(snapshot);
+		provider.setSource(IsoCurrencyOnlineProvider.createURLSource(
+				write(CURRENCIES).toURI().toURL(), null, 1000));
+		assertTrue(provider.refresh());
+		provider.writeSnapshot(snapshot);
+		IsoCurrencyOnlineProvider other = new IsoCurrencyOnlineProvider();
+		assertTrue(other.loadSnapshot(snapshot));
+		assertEquals(2, other.getCurrencies().size());
+		assertEquals(0, snapshot.getAbsoluteFile().getParentFile()
+				.listFiles(new FilenameFilter() {
+					@Override
+					public boolean accept(File dir, String name) {
+						return name.startsWith(snapshot.getName())
+								&& name.endsWith(".tmp");
+					}
+				}).length);
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.currencies.spi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.Set;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryCurrencies;
+
+import org.junit.Test;
+
+/**
+ * Tests class for the batch mappings of
+ * {@link AbstractCurrencyMappingsSingletonSpi}, as used for SPIs only
+ * implementing {@link CurrencyMappingsSingletonSpi}.
+ */
+public class AbstractCurrencyMappingsSingletonSpiTest {
+
+	private static final String NS = "test";
+
+	private final CurrencyUnit dem = MonetaryCurrencies.getCurrency("DEM");
+	private final CurrencyUnit chf = MonetaryCurrencies.getCurrency("CHF");
+	private final CurrencyUnit eur = MonetaryCurrencies.getCurrency("EUR");
+
+	@Test
+	public void testMapTimestamps() {
+		TestSpi spi = new TestSpi();
+		assertArrayEquals(new CurrencyUnit[] { dem, eur, dem },
+				spi.map(dem, NS, new long[] { 0L, 1000L, 999L }));
+		assertEquals(0, spi.map(dem, NS, new long[0]).length);
+	}
+
+	@Test
+	public void testMapAll() {
+		TestSpi spi = new TestSpi();
+		assertArrayEquals(new CurrencyUnit[] { eur, eur, null, null, eur },
+				spi.mapAll(new CurrencyUnit[] { dem, dem, chf, null, dem },
+						NS));
+		assertEquals(2, spi.calls);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMapAllNull() {
+		new TestSpi().mapAll(null, NS);
+	}
+
+	/**
+	 * Maps DEM to EUR, from timestamp 1000 for timestamped mappings, and
+	 * counts the single mappings.
+	 */
+	private final class TestSpi extends AbstractCurrencyMappingsSingletonSpi {
+		int calls;
+
+		@Override
+		public boolean isNamespaceAvailable(String namespace) {
+			return NS.equals(namespace);
+		}
+
+		@Override
+		public Set<String> getNamespaces() {
+			return Collections.singleton(NS);
+		}
+
+		@Override
+		public CurrencyUnit map(CurrencyUnit currencyUnit,
+				String targetNamespace) {
+			calls++;
+			return dem.equals(currencyUnit) ? eur : null;
+		}
+
+		@Override
+		public CurrencyUnit map(CurrencyUnit currencyUnit,
+				String targetNamespace, long timestamp) {
+			return timestamp >= 1000L ? map(currencyUnit, targetNamespace)
+					: currencyUnit;
+		}
+
+		@Override
+		public Set<CurrencyUnit> getCurrencies(String namespace) {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Set<String> getNamespaces(String code) {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Set<String> getNamespaces(CurrencyUnit currency) {
+			return Collections.emptySet();
+		}
+	}
+
+}
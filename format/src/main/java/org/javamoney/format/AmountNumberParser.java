@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * Parser that decodes a decimal number, as formatted by the locale's grouped
+ * {@link DecimalFormat}, directly from the input characters into an unscaled
+ * {@code long} value and a scale. Only if the number does not fit into a
+ * {@code long} a {@link BigDecimal} is created.
+ * <p>
+ * The number accepted consists of an optional negative prefix (the locale's
+ * negative prefix, or {@code '-'}), integer digits optionally separated by
+ * the locale's grouping separator, and optionally the locale's decimal
+ * separator followed by fraction digits. If the locale's grouping separator is
+ * a non breaking space, a normal space is accepted as well. A negative number
+ * may be followed by the locale's negative suffix. The scale equals
+ * the number of fraction digits parsed.
+ * <p>
+ * The result of the last successful parse is held by the instance, so it can
+ * be read without any allocation. This class is mutable and not thread-safe,
+ * create one instance per thread and reuse it.
+ */
+public final class AmountNumberParser {
+	/** The maximal value that can be multiplied by 10 without overflow. */
+	private static final long MAX_DIVIDED = Long.MAX_VALUE / 10;
+
+	private final Locale locale;
+	private final char zeroDigit;
+	private final char groupingSeparator;
+	private final char alternativeGroupingSeparator;
+	private final char decimalSeparator;
+	private final String negativePrefix;
+	private final String negativeSuffix;
+
+	private long unscaledValue;
+	private int scale;
+	private BigDecimal bigValue;
+
+	/**
+	 * Creates a new parser for the given {@link Locale}.
+	 * 
+	 * @param locale
+	 *            the target locale, not {@code null}.
+	 */
+	public AmountNumberParser(Locale locale) {
+		if (locale == null) {
+			throw new IllegalArgumentException("locale is required.");
+		}
+		this.locale = locale;
+		NumberFormat format = NumberFormat.getInstance(locale);
+		DecimalFormatSymbols symbols = DecimalFormatSymbols
+				.getInstance(locale);
+		this.zeroDigit = symbols.getZeroDigit();
+		this.groupingSeparator = symbols.getGroupingSeparator();
+		this.alternativeGroupingSeparator = Character
+				.isSpaceChar(groupingSeparator) ? ' ' : groupingSeparator;
+		this.decimalSeparator = symbols.getDecimalSeparator();
+		if (format instanceof DecimalFormat) {
+			this.negativePrefix = ((DecimalFormat) format).getNegativePrefix();
+			this.negativeSuffix = ((DecimalFormat) format).getNegativeSuffix();
+		} else {
+			this.negativePrefix = String.valueOf(symbols.getMinusSign());
+			this.negativeSuffix = "";
+		}
+	}
+
+	/**
+	 * Get the parser's locale.
+	 * 
+	 * @return the locale, never {@code null}.
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Parses a number from the given range of the text. Parsing stops at the
+	 * first character not being part of the number.
+	 * 
+	 * @param text
+	 *            the text, not {@code null}.
+	 * @param start
+	 *            the start index, inclusive.
+	 * @param end
+	 *            the end index, exclusive.
+	 * @return the index after the last character parsed, or -1, if no number
+	 *         was found at {@code start}.
+	 */
+	public int parse(CharSequence text, int start, int end) {
+		int pos = start;
+		boolean negative = false;
+		if (startsWith(text, pos, end, negativePrefix)) {
+			negative = true;
+			pos += negativePrefix.length();
+		} else if (pos < end && text.charAt(pos) == '-') {
+			negative = true;
+			pos++;
+		}
+		long value = 0;
+		int digits = 0;
+		int fractionDigits = 0;
+		boolean overflow = false;
+		boolean fraction = false;
+		int numberStart = pos;
+		for (; pos < end; pos++) {
+			char c = text.charAt(pos);
+			int digit = toDigit(c);
+			if (digit >= 0) {
+				if (!overflow) {
+					if (value > MAX_DIVIDED
+							|| (value == MAX_DIVIDED && digit > 7)) {
+						overflow = true;
+					} else {
+						value = value * 10 + digit;
+					}
+				}
+				digits++;
+				if (fraction) {
+					fractionDigits++;
+				}
+			} else if (!fraction && digits > 0
+					&& (c == groupingSeparator || c == alternativeGroupingSeparator)
+					&& pos + 1 < end && toDigit(text.charAt(pos + 1)) >= 0) {
+				// grouping separator, only between integer digits
+			} else if (!fraction && c == decimalSeparator && pos + 1 < end
+					&& toDigit(text.charAt(pos + 1)) >= 0) {
+				fraction = true;
+			} else {
+				break;
+			}
+		}
+		if (digits == 0) {
+			return -1;
+		}
+		if (negative && startsWith(text, pos, end, negativeSuffix)) {
+			pos += negativeSuffix.length();
+		}
+		this.scale = fractionDigits;
+		if (overflow) {
+			this.unscaledValue = 0;
+			this.bigValue = new BigDecimal(collectDigits(text, numberStart,
+					pos, negative), fractionDigits);
+		} else {
+			this.unscaledValue = negative ? -value : value;
+			this.bigValue = null;
+		}
+		return pos;
+	}
+
+	/**
+	 * Negates the value parsed last, used if the sign was parsed as part of a
+	 * surrounding literal.
+	 */
+	void negate() {
+		if (bigValue != null) {
+			bigValue = bigValue.negate();
+		} else {
+			unscaledValue = -unscaledValue;
+		}
+	}
+
+	/**
+	 * Checks, if the value parsed last is available as unscaled {@code long}.
+	 * 
+	 * @return {@code true}, if {@link #getUnscaledValue()} can be used.
+	 */
+	public boolean isLongValue() {
+		return bigValue == null;
+	}
+
+	/**
+	 * Get the unscaled value parsed last.
+	 * 
+	 * @return the unscaled value.
+	 * @throws ArithmeticException
+	 *             if the value does not fit into a {@code long}.
+	 */
+	public long getUnscaledValue() {
+		if (bigValue != null) {
+			throw new ArithmeticException("Number exceeds long: " + bigValue);
+		}
+		return unscaledValue;
+	}
+
+	/**
+	 * Get the scale of the value parsed last.
+	 * 
+	 * @return the scale.
+	 */
+	public int getScale() {
+		return scale;
+	}
+
+	/**
+	 * Get the value parsed last as {@link BigDecimal}.
+	 * 
+	 * @return the value, never {@code null}.
+	 */
+	public BigDecimal getBigDecimal() {
+		if (bigValue != null) {
+			return bigValue;
+		}
+		return BigDecimal.valueOf(unscaledValue, scale);
+	}
+
+	private int toDigit(char c) {
+		int digit = c - zeroDigit;
+		if (digit >= 0 && digit <= 9) {
+			return digit;
+		}
+		digit = c - '0';
+		if (digit >= 0 && digit <= 9) {
+			return digit;
+		}
+		return -1;
+	}
+
+	private BigInteger collectDigits(CharSequence text, int start, int end,
+			boolean negative) {
+		StringBuilder b = new StringBuilder(end - start + 1);
+		if (negative) {
+			b.append('-');
+		}
+		for (int i = start; i < end; i++) {
+			int digit = toDigit(text.charAt(i));
+			if (digit >= 0) {
+				b.append((char) ('0' + digit));
+			}
+		}
+		return new BigInteger(b.toString());
+	}
+
+	private static boolean startsWith(CharSequence text, int pos, int end,
+			String token) {
+		int length = token.length();
+		if (length == 0 || pos + length > end) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (text.charAt(pos + i) != token.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "AmountNumberParser [locale=" + locale + "]";
+	}
+
+}
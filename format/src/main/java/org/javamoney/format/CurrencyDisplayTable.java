@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable table of the rendered representations of the ISO currencies
+ * available from the JDK for one {@link Locale}: code, symbol, display name and
+ * numeric code. Currencies are addressed by a dense id, which is the index of
+ * the currency code within {@link #getCurrencyCodes()}, so rendering is an
+ * array access. For parsing a reverse map from all rendered representations to
+ * the currency id is held.
+ * <p>
+ * Tables are created lazily per {@link Locale} and shared. They can be stored
+ * to a binary file using {@link #save(File, Collection)}, and installed again
+ * using {@link #load(File)}, thus avoiding rebuilding them on startup.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class CurrencyDisplayTable {
+
+	private static final Logger LOG = LoggerFactory
+			.getLogger(CurrencyDisplayTable.class);
+	/** The magic number of the persistent format. */
+	private static final int MAGIC = 0x4A4D4354;
+	/** The version of the persistent format. */
+	private static final int VERSION = 1;
+	/** The currency codes, sorted, the index is the currency id. */
+	private static final String[] CODES;
+	/** The numeric codes, by currency id. */
+	private static final int[] NUMERIC_CODES;
+	/** The currency ids, by code. */
+	private static final Map<String, Integer> IDS;
+	/** The tables created so far, by locale. */
+	private static final Map<Locale, CurrencyDisplayTable> TABLES = new ConcurrentHashMap<Locale, CurrencyDisplayTable>();
+
+	static {
+		List<String> codes = new ArrayList<String>();
+		for (Currency currency : Currency.getAvailableCurrencies()) {
+			codes.add(currency.getCurrencyCode());
+		}
+		Collections.sort(codes);
+		CODES = codes.toArray(new String[codes.size()]);
+		NUMERIC_CODES = new int[CODES.length];
+		Map<String, Integer> ids = new HashMap<String, Integer>();
+		for (int i = 0; i < CODES.length; i++) {
+			NUMERIC_CODES[i] = Currency.getInstance(CODES[i])
+					.getNumericCode();
+			ids.put(CODES[i], i);
+		}
+		IDS = ids;
+	}
+
+	private final Locale locale;
+	private final String[] symbols;
+	private final String[] displayNames;
+	private final Map<String, Integer> reverse;
+
+	private CurrencyDisplayTable(Locale locale, String[] symbols,
+			String[] displayNames) {
+		this.locale = locale;
+		this.symbols = symbols;
+		this.displayNames = displayNames;
+		this.reverse = createReverseMap(locale, symbols, displayNames);
+	}
+
+	/**
+	 * Access the table for the given {@link Locale}, creating it if not yet
+	 * available.
+	 * 
+	 * @param locale
+	 *            the target locale, not {@code null}.
+	 * @return the table, never {@code null}.
+	 */
+	public static CurrencyDisplayTable of(Locale locale) {
+		if (locale == null) {
+			throw new IllegalArgumentException("Locale is required.");
+		}
+		CurrencyDisplayTable table = TABLES.get(locale);
+		if (table == null) {
+			table = create(locale);
+			TABLES.put(locale, table);
+		}
+		return table;
+	}
+
+	/**
+	 * Access the id of the currency with the given code.
+	 * 
+	 * @param currencyCode
+	 *            the currency code.
+	 * @return the currency id, or -1, if the currency is not available from
+	 *         the JDK.
+	 */
+	public static int getCurrencyId(String currencyCode) {
+		Integer id = IDS.get(currencyCode);
+		if (id == null) {
+			return -1;
+		}
+		return id;
+	}
+
+	/**
+	 * Access the currency codes known, ordered by currency id.
+	 * 
+	 * @return the currency codes, never {@code null}.
+	 */
+	public static List<String> getCurrencyCodes() {
+		return Collections.unmodifiableList(Arrays.asList(CODES));
+	}
+
+	/**
+	 * Get the table's locale.
+	 * 
+	 * @return the locale, never {@code null}.
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Get the currency code for the given currency id.
+	 * 
+	 * @param id
+	 *            the currency id.
+	 * @return the currency code.
+	 */
+	public String getCode(int id) {
+		return CODES[id];
+	}
+
+	/**
+	 * Get the localized symbol for the given currency id.
+	 * 
+	 * @param id
+	 *            the currency id.
+	 * @return the symbol.
+	 */
+	public String getSymbol(int id) {
+		return symbols[id];
+	}
+
+	/**
+	 * Get the localized display name for the given currency id.
+	 * 
+	 * @param id
+	 *            the currency id.
+	 * @return the display name.
+	 */
+	public String getDisplayName(int id) {
+		return displayNames[id];
+	}
+
+	/**
+	 * Get the numeric code for the given currency id.
+	 * 
+	 * @param id
+	 *            the currency id.
+	 * @return the numeric code, or -1, if not defined.
+	 */
+	public int getNumericCode(int id) {
+		return NUMERIC_CODES[id];
+	}
+
+	/**
+	 * Evaluates the currency id for the given rendered text, which may be a
+	 * currency code, or a symbol or display name of this table's locale.
+	 * Codes take precedence over symbols, symbols over display names. If
+	 * several currencies share a symbol, the currency of the locale's country
+	 * is preferred.
+	 * 
+	 * @param text
+	 *            the rendered text.
+	 * @return the currency id, or -1.
+	 */
+	public int findCurrencyId(String text) {
+		Integer id = reverse.get(text);
+		if (id == null) {
+			return -1;
+		}
+		return id;
+	}
+
+	/**
+	 * Stores the tables for the given locales into the given file.
+	 * 
+	 * @param file
+	 *            the target file, not {@code null}.
+	 * @param locales
+	 *            the locales to be stored, not {@code null}.
+	 * @throws IOException
+	 *             if writing fails.
+	 */
+	public static void save(File file, Collection<Locale> locales)
+			throws IOException {
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(CODES.length);
+			for (String code : CODES) {
+				out.writeUTF(code);
+			}
+			out.writeInt(locales.size());
+			for (Locale locale : locales) {
+				CurrencyDisplayTable table = of(locale);
+				out.writeUTF(locale.toLanguageTag());
+				for (int i = 0; i < CODES.length; i++) {
+					out.writeUTF(table.symbols[i]);
+					out.writeUTF(table.displayNames[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Installs the tables stored in the given file, as written by
+	 * {@link #save(File, Collection)}. The file is ignored, if it does not
+	 * match the currencies currently available.
+	 * 
+	 * @param file
+	 *            the source file, not {@code null}.
+	 * @return the number of tables installed.
+	 * @throws IOException
+	 *             if reading fails, or the file is not a valid table file.
+	 */
+	public static int load(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a currency display table file: "
+						+ file);
+			}
+			int count = in.readInt();
+			boolean current = count == CODES.length;
+			for (int i = 0; i < count; i++) {
+				String code = in.readUTF();
+				current = current && CODES[i].equals(code);
+			}
+			if (!current) {
+				LOG.info("Ignoring outdated currency display tables in " + file);
+				return 0;
+			}
+			int locales = in.readInt();
+			for (int l = 0; l < locales; l++) {
+				Locale locale = Locale.forLanguageTag(in.readUTF());
+				String[] symbols = new String[count];
+				String[] displayNames = new String[count];
+				for (int i = 0; i < count; i++) {
+					symbols[i] = in.readUTF();
+					displayNames[i] = in.readUTF();
+				}
+				TABLES.put(locale, new CurrencyDisplayTable(locale, symbols,
+						displayNames));
+			}
+			return locales;
+		}
+	}
+
+	private static CurrencyDisplayTable create(Locale locale) {
+		String[] symbols = new String[CODES.length];
+		String[] displayNames = new String[CODES.length];
+		for (int i = 0; i < CODES.length; i++) {
+			Currency currency = Currency.getInstance(CODES[i]);
+			symbols[i] = currency.getSymbol(locale);
+			displayNames[i] = currency.getDisplayName(locale);
+		}
+		return new CurrencyDisplayTable(locale, symbols, displayNames);
+	}
+
+	private static Map<String, Integer> createReverseMap(Locale locale,
+			String[] symbols, String[] displayNames) {
+		Map<String, Integer> reverse = new HashMap<String, Integer>(
+				CODES.length * 4);
+		for (int i = 0; i < CODES.length; i++) {
+			reverse.put(CODES[i], i);
+		}
+		int localId = -1;
+		try {
+			Currency localCurrency = Currency.getInstance(locale);
+			if (localCurrency != null) {
+				localId = getCurrencyId(localCurrency.getCurrencyCode());
+			}
+		} catch (IllegalArgumentException e) {
+			// locale without country, no preferred currency
+		}
+		if (localId >= 0) {
+			putIfAbsent(reverse, symbols[localId], localId);
+		}
+		for (int i = 0; i < CODES.length; i++) {
+			putIfAbsent(reverse, symbols[i], i);
+		}
+		for (int i = 0; i < CODES.length; i++) {
+			putIfAbsent(reverse, displayNames[i], i);
+		}
+		return reverse;
+	}
+
+	private static void putIfAbsent(Map<String, Integer> map, String key,
+			int id) {
+		if (!map.containsKey(key)) {
+			map.put(key, id);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "CurrencyDisplayTable [locale=" + locale + ", currencies="
+				+ CODES.length + "]";
+	}
+
+}
@@ -66,6 +66,9 @@ public class DefaultAmountFormatFactory implements
 	public ItemFormat<MonetaryAmount> getItemFormat(LocalizationStyle style)
 			throws ItemFormatException {
         Objects.requireNonNull(style);
+        if (PlainAmountFormat.isEligible(style)) {
+            return new PlainAmountFormat(style);
+        }
         return new DefaultAmountFormat(style);
 	}
 
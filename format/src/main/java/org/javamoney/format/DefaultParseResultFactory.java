@@ -60,10 +60,7 @@ public class DefaultParseResultFactory<T> implements ParseResultFactory<T>{
 	 */
 	@Override
 	public T createItemParsed(ItemParseContext<T> context) {
-		T item = context.getResult(itemClass, itemClass);
-		if (item == null) {
-			item = context.getResult(itemClass.getName(), itemClass);
-		}
+		T item = lookupItem(context);
 		if (item == null) {
 			throw new IllegalStateException("Parsing is not complete.");
 		}
@@ -81,8 +78,23 @@ public class DefaultParseResultFactory<T> implements ParseResultFactory<T>{
 	 */
 	@Override
 	public boolean isComplete(ItemParseContext<T> context) {
-		return context.getResult(itemClass, itemClass) != null
-				|| context.getResult(itemClass.getName(), itemClass) != null;
+		return lookupItem(context) != null;
+	}
+
+	/**
+	 * Looks up the item by class, and only if other results than the common
+	 * typed results are present, also by class name.
+	 * 
+	 * @param context
+	 *            the {@link ItemParseContext}.
+	 * @return the item, or {@code null}.
+	 */
+	private T lookupItem(ItemParseContext<T> context) {
+		T item = context.getResult(itemClass, itemClass);
+		if (item == null && context.hasMappedResults()) {
+			item = context.getResult(itemClass.getName(), itemClass);
+		}
+		return item;
 	}
 
 	/*
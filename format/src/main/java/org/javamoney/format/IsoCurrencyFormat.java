@@ -17,7 +17,6 @@ package org.javamoney.format;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.Currency;
 import java.util.Locale;
 
 import javax.money.CurrencyUnit;
@@ -30,7 +29,7 @@ public class IsoCurrencyFormat implements ItemFormat<CurrencyUnit> {
 	}
 
 	public enum ParsedField {
-		ID, CODE
+		ID, CODE, SYMBOL, DISPLAYNAME
 	}
 
 	private ParsedField[] parsedFields = new ParsedField[] { ParsedField.CODE };
@@ -94,28 +93,19 @@ public class IsoCurrencyFormat implements ItemFormat<CurrencyUnit> {
 			return String.valueOf(currency.getNumericCode());
 		}
 		// check for iso currencies
-		if (isJavaCurrency(currency.getCurrencyCode())) {
-			Currency isoCurrency = Currency.getInstance(currency.getCurrencyCode());
+		int id = CurrencyDisplayTable.getCurrencyId(currency.getCurrencyCode());
+		if (id >= 0) {
 			switch (renderedField) {
 			case SYMBOL:
-				return isoCurrency.getSymbol(locale);
+				return CurrencyDisplayTable.of(locale).getSymbol(id);
 			case DISPLAYNAME:
-				return isoCurrency.getDisplayName(locale);
+				return CurrencyDisplayTable.of(locale).getDisplayName(id);
 			}
 		}
 		// Overall fallback, return code...
 		return currency.getCurrencyCode();
 	}
 
-	private boolean isJavaCurrency(String currencyCode) {
-		try {
-			Currency.getInstance(currencyCode);
-			return true;
-		} catch (Exception e) {
-			return false;
-		}
-	}
-
 	@Override
 	public void print(Appendable appendable, CurrencyUnit item, Locale locale)
 			throws IOException {
@@ -132,6 +122,16 @@ public class IsoCurrencyFormat implements ItemFormat<CurrencyUnit> {
 			switch (f) {
 			case CODE:
 				return MonetaryCurrencies.getCurrency(text.toString());
+			case SYMBOL:
+			case DISPLAYNAME:
+				CurrencyDisplayTable table = CurrencyDisplayTable.of(locale);
+				int id = table.findCurrencyId(textString);
+				if (id >= 0
+						&& textString.equals(f == ParsedField.SYMBOL ? table
+								.getSymbol(id) : table.getDisplayName(id))) {
+					return MonetaryCurrencies.getCurrency(table.getCode(id));
+				}
+				break;
 			}
 		}
 		throw new ItemParseException("Currency not parseable: " + text);
@@ -366,18 +366,23 @@ public class ItemFormatBuilder<T> {
 		 */
 		public T parse(CharSequence text, Locale locale)
 				throws ItemParseException {
-			ItemParseContext<T> ctx = new ItemParseContext<T>(text, parseResultFactory);
-			for (StyleableItemFormatToken<T> token : tokens) {
-				token.parse(ctx, locale, style);
+			ItemParseContext<T> ctx = ItemParseContext.acquire(text,
+					parseResultFactory);
+			try {
+				for (StyleableItemFormatToken<T> token : tokens) {
+					token.parse(ctx, locale, style);
+					if (ctx.isComplete()) {
+						return ctx.getItem();
+					}
+				}
 				if (ctx.isComplete()) {
 					return ctx.getItem();
 				}
+				throw new ItemParseException("Parsing of item of type "
+						+ getTargetClass() + " failed from " + ctx);
+			} finally {
+				ctx.release();
 			}
-			if (ctx.isComplete()) {
-				return ctx.getItem();
-			}
-			throw new ItemParseException("Parsing of item of type "
-					+ getTargetClass() + " failed from " + ctx);
 		}
 
 		/*
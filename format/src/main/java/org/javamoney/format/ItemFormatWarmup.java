@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.javamoney.format.internal.DefaultTokenizeableFormatsSingletonSpi;
+import org.javamoney.format.spi.TokenizeableFormatsSingletonSpi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warms up the formatting infrastructure for a declared set of target type,
+ * style id and {@link Locale} combinations, so the first formatting requests
+ * do not pay for class loading, factory lookup, style registration and the
+ * evaluation of locale specific data such as number patterns and currency
+ * names.
+ * <p>
+ * For each combination the {@link ItemFormat} is resolved from the
+ * {@link TokenizeableFormatsSingletonSpi}. If it is a
+ * {@link DefaultTokenizeableFormatsSingletonSpi}, the combination is
+ * precompiled, so the factory resolved is shared with all other threads, which
+ * then only create their own {@link ItemFormat} instance from it on first
+ * access. If a sample item was declared, it is formatted and the result is
+ * parsed again. The time required is recorded per combination and can be
+ * accessed by {@link #getTimings()} after completion.
+ * <p>
+ * Combinations must be declared before {@link #start()} or {@link #run()} is
+ * called. This class is thread-safe.
+ */
+public final class ItemFormatWarmup implements Runnable {
+
+	private static final Logger LOG = LoggerFactory
+			.getLogger(ItemFormatWarmup.class);
+
+	/** The SPI warmed up. */
+	private final TokenizeableFormatsSingletonSpi spi;
+	/** The combinations declared. */
+	private final List<Combination<?>> combinations = new ArrayList<Combination<?>>();
+	/** The timings recorded. */
+	private final List<Timing> timings = Collections
+			.synchronizedList(new ArrayList<Timing>());
+	/** Latch released on completion. */
+	private final CountDownLatch done = new CountDownLatch(1);
+	/** Flag, if the warm-up was started. */
+	private boolean started;
+
+	/**
+	 * Creates a warm-up for the SPI used by {@link ItemFormats}.
+	 */
+	public ItemFormatWarmup() {
+		this(ItemFormats.getFormatSpi());
+	}
+
+	/**
+	 * Creates a warm-up for the given SPI.
+	 * 
+	 * @param spi
+	 *            the SPI, not {@code null}.
+	 */
+	public ItemFormatWarmup(TokenizeableFormatsSingletonSpi spi) {
+		if (spi == null) {
+			throw new IllegalArgumentException("spi is required.");
+		}
+		this.spi = spi;
+	}
+
+	/**
+	 * Declares combinations to be warmed up, without sample item.
+	 * 
+	 * @param targetType
+	 *            the target type, not {@code null}.
+	 * @param styleId
+	 *            the style id, not {@code null}.
+	 * @param locales
+	 *            the locales, not {@code null}.
+	 * @return this instance, for chaining.
+	 */
+	public <T> ItemFormatWarmup add(Class<T> targetType, String styleId,
+			Locale... locales) {
+		return add(targetType, styleId, null, locales);
+	}
+
+	/**
+	 * Declares combinations to be warmed up.
+	 * 
+	 * @param targetType
+	 *            the target type, not {@code null}.
+	 * @param styleId
+	 *            the style id, not {@code null}.
+	 * @param sample
+	 *            the item formatted and parsed again, or {@code null}.
+	 * @param locales
+	 *            the locales, not {@code null}.
+	 * @return this instance, for chaining.
+	 */
+	public synchronized <T> ItemFormatWarmup add(Class<T> targetType,
+			String styleId, T sample, Locale... locales) {
+		if (targetType == null) {
+			throw new IllegalArgumentException("targetType is required.");
+		}
+		if (styleId == null) {
+			throw new IllegalArgumentException("styleId is required.");
+		}
+		if (locales == null) {
+			throw new IllegalArgumentException("locales are required.");
+		}
+		if (started) {
+			throw new IllegalStateException("Warm-up already started.");
+		}
+		for (Locale locale : locales) {
+			combinations.add(new Combination<T>(targetType, styleId, sample,
+					locale));
+		}
+		return this;
+	}
+
+	/**
+	 * Starts the warm-up on a background daemon thread.
+	 * 
+	 * @return this instance, for chaining.
+	 * @throws IllegalStateException
+	 *             if the warm-up was already started.
+	 */
+	public ItemFormatWarmup start() {
+		final List<Combination<?>> toRun = markStarted();
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				execute(toRun);
+			}
+		}, "ItemFormatWarmup");
+		thread.setDaemon(true);
+		thread.start();
+		return this;
+	}
+
+	/**
+	 * Performs the warm-up on the current thread.
+	 * 
+	 * @throws IllegalStateException
+	 *             if the warm-up was already started.
+	 */
+	@Override
+	public void run() {
+		execute(markStarted());
+	}
+
+	private synchronized List<Combination<?>> markStarted() {
+		if (started) {
+			throw new IllegalStateException("Warm-up already started.");
+		}
+		started = true;
+		return new ArrayList<Combination<?>>(combinations);
+	}
+
+	private void execute(List<Combination<?>> toRun) {
+		long start = System.nanoTime();
+		try {
+			for (Combination<?> combination : toRun) {
+				Timing timing = combination.run(spi);
+				timings.add(timing);
+				if (timing.getError() != null) {
+					LOG.warn("Format warm-up failed for " + timing,
+							timing.getError());
+				} else if (LOG.isDebugEnabled()) {
+					LOG.debug("Format warm-up: " + timing);
+				}
+			}
+		} finally {
+			done.countDown();
+		}
+		LOG.info("Format warm-up of " + toRun.size()
+				+ " combinations completed in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+				+ " ms.");
+	}
+
+	/**
+	 * Waits until the warm-up is completed.
+	 * 
+	 * @param timeout
+	 *            the maximal time to wait.
+	 * @param unit
+	 *            the time unit, not {@code null}.
+	 * @return {@code true}, if the warm-up has completed.
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted.
+	 */
+	public boolean awaitCompletion(long timeout, TimeUnit unit)
+			throws InterruptedException {
+		return done.await(timeout, unit);
+	}
+
+	/**
+	 * Checks if the warm-up has completed.
+	 * 
+	 * @return {@code true}, if completed.
+	 */
+	public boolean isCompleted() {
+		return done.getCount() == 0;
+	}
+
+	/**
+	 * Access the timings recorded so far, in the order of declaration.
+	 * 
+	 * @return the timings, never {@code null}.
+	 */
+	public List<Timing> getTimings() {
+		synchronized (timings) {
+			return new ArrayList<Timing>(timings);
+		}
+	}
+
+	/**
+	 * The time required for warming up a single combination.
+	 */
+	public static final class Timing {
+		private final Class<?> targetType;
+		private final String styleId;
+		private final Locale locale;
+		private final long nanos;
+		private final Exception error;
+
+		Timing(Class<?> targetType, String styleId, Locale locale, long nanos,
+				Exception error) {
+			this.targetType = targetType;
+			this.styleId = styleId;
+			this.locale = locale;
+			this.nanos = nanos;
+			this.error = error;
+		}
+
+		public Class<?> getTargetType() {
+			return targetType;
+		}
+
+		public String getStyleId() {
+			return styleId;
+		}
+
+		public Locale getLocale() {
+			return locale;
+		}
+
+		/**
+		 * Get the time required.
+		 * 
+		 * @param unit
+		 *            the target unit, not {@code null}.
+		 * @return the time required.
+		 */
+		public long getTime(TimeUnit unit) {
+			return unit.convert(nanos, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * Get the error that occurred.
+		 * 
+		 * @return the error, or {@code null}, if the warm-up succeeded.
+		 */
+		public Exception getError() {
+			return error;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return "Timing [targetType=" + targetType.getName() + ", styleId="
+					+ styleId + ", locale=" + locale + ", micros="
+					+ TimeUnit.NANOSECONDS.toMicros(nanos)
+					+ (error != null ? ", error=" + error : "") + "]";
+		}
+	}
+
+	/**
+	 * A combination declared.
+	 */
+	private static final class Combination<T> {
+		private final Class<T> targetType;
+		private final String styleId;
+		private final T sample;
+		private final Locale locale;
+
+		Combination(Class<T> targetType, String styleId, T sample,
+				Locale locale) {
+			this.targetType = targetType;
+			this.styleId = styleId;
+			this.sample = sample;
+			this.locale = locale;
+		}
+
+		Timing run(TokenizeableFormatsSingletonSpi spi) {
+			long start = System.nanoTime();
+			Exception error = null;
+			try {
+				LocalizationStyle style = spi.getLocalizationStyle(targetType,
+						styleId);
+				if (style == null) {
+					throw new ItemFormatException("No style " + styleId
+							+ " for " + targetType.getName());
+				}
+				ItemFormat<T> format;
+				if (spi instanceof DefaultTokenizeableFormatsSingletonSpi) {
+					format = ((DefaultTokenizeableFormatsSingletonSpi) spi)
+							.precompile(targetType, style);
+				} else {
+					format = spi.getItemFormat(targetType, style);
+				}
+				if (format == null) {
+					throw new ItemFormatException("No format for "
+							+ targetType.getName() + ", " + style);
+				}
+				if (sample != null) {
+					format.parse(format.format(sample, locale), locale);
+				}
+			} catch (Exception e) {
+				error = e;
+			}
+			return new Timing(targetType, styleId, locale, System.nanoTime()
+					- start, error);
+		}
+	}
+
+}
@@ -76,6 +76,15 @@ public final class ItemFormats{
 		return new DefaultTokenizeableFormatsSpi();
 	}
 
+	/**
+	 * Access the SPI loaded.
+	 * 
+	 * @return the SPI, never {@code null}.
+	 */
+	static TokenizeableFormatsSingletonSpi getFormatSpi() {
+		return monetaryFormatSpi;
+	}
+
 	/**
 	 * Return the style id's supported by this {@link ItemFormatterFactorySpi}
 	 * instance.
@@ -20,16 +20,28 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.money.CurrencyUnit;
+
 /**
  * Context passed along to each {@link StyleableItemFormatToken} in-line, when parsing an
  * input stream using a {@link ItemFormatBuilder}. It allows to inspect the
  * next tokens, the whole input String, or just the current input substring,
  * based on the current parsing position etc.
  * <p>
- * This class is mutable and intended for use by a single thread. A new instance
- * is created for each parse.
+ * This class is mutable and intended for use by a single thread. Instances may
+ * be reused for subsequent parses of the same thread, by calling
+ * {@link #reset(CharSequence)}, or obtained from a per thread pool using
+ * {@link #acquire(CharSequence, ParseResultFactory)} and
+ * {@link #release()}.
+ * <p>
+ * The common results, the {@link Number} and the {@link CurrencyUnit} parsed,
+ * are held in dedicated fields, whereas other results are stored
+ * in a map created on demand. Results added with {@link Number} or
+ * {@link CurrencyUnit} as key are stored in the dedicated fields.
  */
 public final class ItemParseContext<T>{
+	/** The context pooled for each thread. */
+	private static final ThreadLocal<ItemParseContext<?>> POOL = new ThreadLocal<ItemParseContext<?>>();
 	/** The current position of parsing. */
 	private int index;
 	/** The error index position. */
@@ -46,7 +58,13 @@ public final class ItemParseContext<T>{
 	 * can be used by an according {@code MonetaryFunction<ItemParseContext,T>} to
 	 * create an instance of T.
 	 */
-	private Map<Object, Object> results = new HashMap<Object, Object>();
+	private Map<Object, Object> results;
+	/** The number parsed, or null. */
+	private Number number;
+	/** The currency parsed, or null. */
+	private CurrencyUnit currency;
+	/** Flag set, while the instance is acquired from the pool. */
+	private boolean acquired;
     /** The parse error message. */
     private String errorMessage;
 
@@ -67,6 +85,52 @@ public final class ItemParseContext<T>{
 		this.parseResultFactory = parseResultFactory;
 	}
 
+	/**
+	 * Access a reset context for parsing the given text, reusing the instance
+	 * pooled for the current thread, if it is not in use. The context should
+	 * be given back by calling {@link #release()} when parsing is finished.
+	 * 
+	 * @param text
+	 *            The text to be parsed, not {@code null}.
+	 * @param parseResultFactory
+	 *            the factory for the item parsed, not {@code null}.
+	 * @return a context, never {@code null}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ItemParseContext<T> acquire(CharSequence text,
+			ParseResultFactory<T> parseResultFactory) {
+		ItemParseContext<T> ctx = (ItemParseContext<T>) POOL.get();
+		if (ctx == null) {
+			ctx = new ItemParseContext<T>(text, parseResultFactory);
+			POOL.set(ctx);
+		} else if (ctx.acquired) {
+			// nested parse, the pooled instance is in use
+			return new ItemParseContext<T>(text, parseResultFactory);
+		} else {
+			if (parseResultFactory == null) {
+				throw new IllegalArgumentException(
+						"parseResultFactory is required");
+			}
+			ctx.reset(text);
+			ctx.parseResultFactory = parseResultFactory;
+		}
+		ctx.acquired = true;
+		return ctx;
+	}
+
+	/**
+	 * Gives back a context obtained from
+	 * {@link #acquire(CharSequence, ParseResultFactory)}, so it can be reused
+	 * by the current thread. The instance must not be used afterwards.
+	 */
+	public void release() {
+		if (this.acquired) {
+			this.acquired = false;
+			this.originalInput = "";
+			clearResults();
+		}
+	}
+
 	/**
 	 * Method allows to determine if the item being parsed is available from the
 	 * {@link ItemParseContext}.
@@ -111,11 +175,17 @@ public final class ItemParseContext<T>{
 	 *         by {@code token.size()}.
 	 */
 	public boolean consume(String token) {
-		if (getInput().toString().startsWith(token)) {
-			index += token.length();
-			return true;
+		int length = token.length();
+		if (index + length > originalInput.length()) {
+			return false;
 		}
-		return false;
+		for (int i = 0; i < length; i++) {
+			if (originalInput.charAt(index + i) != token.charAt(i)) {
+				return false;
+			}
+		}
+		index += length;
+		return true;
 	}
 
 	/**
@@ -127,7 +197,7 @@ public final class ItemParseContext<T>{
 	 *         by one.
 	 */
 	public boolean consume(char c) {
-		if (originalInput.charAt(index) == c) {
+		if (index < originalInput.length() && originalInput.charAt(index) == c) {
 			index++;
 			return true;
 		}
@@ -188,6 +258,43 @@ public final class ItemParseContext<T>{
 		return index;
 	}
 
+	/**
+	 * Sets the current parse position, e.g. after a token has been matched
+	 * directly against the input.
+	 * 
+	 * @param index
+	 *            the new parse position, between the current position and
+	 *            {@link #getInputLength()}.
+	 */
+	public void setIndex(int index) {
+		if (index < 0 || index > originalInput.length()) {
+			throw new IndexOutOfBoundsException("Invalid parse index: "
+					+ index);
+		}
+		this.index = index;
+	}
+
+	/**
+	 * Gets the length of the full input text.
+	 * 
+	 * @return the input's length.
+	 */
+	public int getInputLength() {
+		return originalInput.length();
+	}
+
+	/**
+	 * Access a single character of the full input text, without creating any
+	 * intermediate {@link String} instances.
+	 * 
+	 * @param index
+	 *            the absolute position within the full input.
+	 * @return the character at the given position.
+	 */
+	public char charAt(int index) {
+		return originalInput.charAt(index);
+	}
+
 	/**
 	 * Gets the residual input text starting from the current parse position.
 	 * 
@@ -206,6 +313,16 @@ public final class ItemParseContext<T>{
 		return originalInput.toString();
 	}
 
+	/**
+	 * Gets the full input text, as passed, without converting it to a
+	 * {@link String}.
+	 * 
+	 * @return the full input.
+	 */
+	public CharSequence getInputSequence() {
+		return originalInput;
+	}
+
 	/**
 	 * Resets this instance; this will reset the parsing position, the error
 	 * index and also all containing results.
@@ -213,7 +330,31 @@ public final class ItemParseContext<T>{
 	public void reset() {
 		this.index = 0;
 		this.errorIndex = -1;
-		this.results.clear();
+		this.errorMessage = null;
+		clearResults();
+	}
+
+	private void clearResults() {
+		this.number = null;
+		this.currency = null;
+		if (this.results != null) {
+			this.results.clear();
+		}
+	}
+
+	/**
+	 * Resets this instance and replaces the input to be parsed, so the same
+	 * context can be reused for parsing another input on the same thread.
+	 * 
+	 * @param text
+	 *            The next text to be parsed, not {@code null}.
+	 */
+	public void reset(CharSequence text) {
+		if (text == null) {
+			throw new IllegalArgumentException("text is required");
+		}
+		this.originalInput = text;
+		reset();
 	}
 
 	/**
@@ -225,7 +366,55 @@ public final class ItemParseContext<T>{
 	 *            The result value
 	 */
 	public void addParseResult(Object key, Object value) {
-		this.results.put(key, value);
+		if (key == Number.class && (value == null || value instanceof Number)) {
+			this.number = (Number) value;
+		} else if (key == CurrencyUnit.class
+				&& (value == null || value instanceof CurrencyUnit)) {
+			this.currency = (CurrencyUnit) value;
+		} else {
+			if (this.results == null) {
+				this.results = new HashMap<Object, Object>();
+			}
+			this.results.put(key, value);
+		}
+	}
+
+	/**
+	 * Sets the number parsed.
+	 * 
+	 * @param number
+	 *            the number, or {@code null}.
+	 */
+	public void setNumber(Number number) {
+		this.number = number;
+	}
+
+	/**
+	 * Get the number parsed.
+	 * 
+	 * @return the number parsed, or {@code null}.
+	 */
+	public Number getNumber() {
+		return this.number;
+	}
+
+	/**
+	 * Sets the currency parsed.
+	 * 
+	 * @param currency
+	 *            the currency, or {@code null}.
+	 */
+	public void setCurrency(CurrencyUnit currency) {
+		this.currency = currency;
+	}
+
+	/**
+	 * Get the currency parsed.
+	 * 
+	 * @return the currency parsed, or {@code null}.
+	 */
+	public CurrencyUnit getCurrency() {
+		return this.currency;
 	}
 
 	/**
@@ -234,7 +423,23 @@ public final class ItemParseContext<T>{
 	 * @return the unmodifiable map of the results.
 	 */
 	public Map<Object, Object> getParseResults() {
-		return Collections.unmodifiableMap(this.results);
+		if (number == null && currency == null) {
+			if (this.results == null) {
+				return Collections.emptyMap();
+			}
+			return Collections.unmodifiableMap(this.results);
+		}
+		Map<Object, Object> all = new HashMap<Object, Object>();
+		if (this.results != null) {
+			all.putAll(this.results);
+		}
+		if (number != null) {
+			all.put(Number.class, number);
+		}
+		if (currency != null) {
+			all.put(CurrencyUnit.class, currency);
+		}
+		return Collections.unmodifiableMap(all);
 	}
 
 	/**
@@ -267,9 +472,28 @@ public final class ItemParseContext<T>{
 	 */
 	@SuppressWarnings("unchecked")
 	public <T> T getResult(Object key, Class<T> type) {
+		if (key == Number.class) {
+			return (T) number;
+		}
+		if (key == CurrencyUnit.class) {
+			return (T) currency;
+		}
+		if (results == null) {
+			return null;
+		}
 		return (T) results.get(key);
 	}
 
+	/**
+	 * Checks if any results are stored under keys other than {@link Number}
+	 * and {@link CurrencyUnit}.
+	 * 
+	 * @return {@code true}, if further results are stored.
+	 */
+	boolean hasMappedResults() {
+		return results != null && !results.isEmpty();
+	}
+
 	/**
 	 * This method skips all whitespaces and returns the full text, until
 	 * another whitespace area or the end of the input is reached. The method
@@ -308,8 +532,8 @@ public final class ItemParseContext<T>{
 	@Override
 	public String toString() {
 		return "ItemParseContext [index=" + index + ", errorIndex=" + errorIndex
-				+ ", originalInput='" + originalInput + "', results=" + results
-				+ "]";
+				+ ", originalInput='" + originalInput + "', results="
+				+ getParseResults() + "]";
 	}
 
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+/**
+ * Receiver of the items parsed by an {@link ItemStreamParser}. Items are
+ * passed in the order they occur within the input stream.
+ * <p>
+ * Implementations are only called from the thread running the parse and
+ * therefore are not required to be thread-safe.
+ * 
+ * @param <T>
+ *            the item type.
+ */
+public interface ItemSink<T> {
+
+	/**
+	 * Called for each item successfully parsed.
+	 * 
+	 * @param item
+	 *            the item parsed, never {@code null}.
+	 */
+	public void accept(T item);
+
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Parser that reads delimited items, e.g. a feed of monetary amounts, from a
+ * {@link Reader} or {@link ReadableByteChannel} and passes each item parsed to
+ * an {@link ItemSink}. Items are separated by line breaks and optionally by an
+ * additional field delimiter, see {@link #setFieldDelimiter(char)}.
+ * <p>
+ * The input is tokenized directly within an internal character buffer, which
+ * is reused for all subsequent parses. Each token is passed as a
+ * {@link CharSequence} view onto this buffer to
+ * {@link ItemFormat#parse(CharSequence, Locale)}, so no intermediate
+ * {@link String} is created unless the {@link ItemFormat} used requires one.
+ * If a {@link PlainAmountFormat} is used with a {@link MonetaryAmountColumn}
+ * as sink, the amounts are added to the column directly, using
+ * {@link PlainAmountFormat#parseInto(CharSequence, Locale, MonetaryAmountColumn)}.
+ * <p>
+ * This class is mutable and not thread-safe. Create one instance per thread
+ * and reuse it for parsing subsequent inputs.
+ * 
+ * @param <T>
+ *            the item type.
+ */
+public final class ItemStreamParser<T> {
+	/** The default size of the character buffer. */
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+	/** Marker for no field delimiter being defined. */
+	private static final int NO_DELIMITER = -1;
+	/** The format used for parsing the single items. */
+	private final ItemFormat<T> format;
+	/** The target locale. */
+	private final Locale locale;
+	/** The field delimiter, or {@link #NO_DELIMITER}. */
+	private int fieldDelimiter = NO_DELIMITER;
+	/** Flag, if leading and trailing whitespaces should be ignored. */
+	private boolean trimWhitespace = true;
+	/** Flag, if unparseable items should be skipped. */
+	private boolean skipUnparseable;
+	/** The buffer, grown when a single token exceeds its size. */
+	private char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+	/** The reused token view onto the buffer. */
+	private final TokenSequence token = new TokenSequence();
+	/** The number of tokens skipped during the last parse. */
+	private long errorCount;
+	/** The column amounts are added to directly, during the current parse. */
+	private MonetaryAmountColumn directColumn;
+
+	/**
+	 * Creates a new parser.
+	 * 
+	 * @param format
+	 *            the {@link ItemFormat} used for parsing the items, not
+	 *            {@code null}.
+	 * @param locale
+	 *            the target {@link Locale}, not {@code null}.
+	 */
+	public ItemStreamParser(ItemFormat<T> format, Locale locale) {
+		if (format == null) {
+			throw new IllegalArgumentException("format is required.");
+		}
+		if (locale == null) {
+			throw new IllegalArgumentException("locale is required.");
+		}
+		this.format = format;
+		this.locale = locale;
+	}
+
+	/**
+	 * Sets an additional delimiter separating items within a line.
+	 * 
+	 * @param delimiter
+	 *            the delimiter, e.g. {@code ';'} or {@code '\t'}.
+	 * @return this instance, for chaining.
+	 */
+	public ItemStreamParser<T> setFieldDelimiter(char delimiter) {
+		this.fieldDelimiter = delimiter;
+		return this;
+	}
+
+	/**
+	 * Defines if leading and trailing whitespaces of each item should be
+	 * ignored, by default {@code true}.
+	 * 
+	 * @param trimWhitespace
+	 *            the new flag value.
+	 * @return this instance, for chaining.
+	 */
+	public ItemStreamParser<T> setTrimWhitespace(boolean trimWhitespace) {
+		this.trimWhitespace = trimWhitespace;
+		return this;
+	}
+
+	/**
+	 * Defines if items that can not be parsed should be skipped, instead of
+	 * aborting the parse, by default {@code false}.
+	 * 
+	 * @see #getErrorCount()
+	 * @param skipUnparseable
+	 *            the new flag value.
+	 * @return this instance, for chaining.
+	 */
+	public ItemStreamParser<T> setSkipUnparseable(boolean skipUnparseable) {
+		this.skipUnparseable = skipUnparseable;
+		return this;
+	}
+
+	/**
+	 * Sets the initial size of the character buffer.
+	 * 
+	 * @param size
+	 *            the buffer size, greater than zero.
+	 * @return this instance, for chaining.
+	 */
+	public ItemStreamParser<T> setBufferSize(int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Invalid buffer size: " + size);
+		}
+		this.buffer = new char[size];
+		return this;
+	}
+
+	/**
+	 * Access the {@link ItemFormat} used for parsing the items.
+	 * 
+	 * @return the format, never {@code null}.
+	 */
+	public ItemFormat<T> getFormat() {
+		return this.format;
+	}
+
+	/**
+	 * Get the number of items skipped during the last parse.
+	 * 
+	 * @see #setSkipUnparseable(boolean)
+	 * @return the number of unparseable items.
+	 */
+	public long getErrorCount() {
+		return this.errorCount;
+	}
+
+	/**
+	 * Parses all items from the given channel.
+	 * 
+	 * @param channel
+	 *            the channel to read from, not {@code null}. The channel is
+	 *            not closed by this method.
+	 * @param charset
+	 *            the channel's {@link Charset}, not {@code null}.
+	 * @param sink
+	 *            the sink receiving the items parsed, not {@code null}.
+	 * @return the number of items parsed.
+	 * @throws IOException
+	 *             if reading from the channel fails.
+	 * @throws ItemParseException
+	 *             if an item could not be parsed and
+	 *             {@link #setSkipUnparseable(boolean)} is not set.
+	 */
+	public long parse(ReadableByteChannel channel, Charset charset,
+			ItemSink<? super T> sink) throws IOException, ItemParseException {
+		if (charset == null) {
+			throw new IllegalArgumentException("charset is required.");
+		}
+		return parse(Channels.newReader(channel, charset.newDecoder(), -1),
+				sink);
+	}
+
+	/**
+	 * Parses all items from the given reader.
+	 * 
+	 * @param reader
+	 *            the reader, not {@code null}. The reader is not closed by
+	 *            this method.
+	 * @param sink
+	 *            the sink receiving the items parsed, not {@code null}.
+	 * @return the number of items parsed.
+	 * @throws IOException
+	 *             if reading from the reader fails.
+	 * @throws ItemParseException
+	 *             if an item could not be parsed and
+	 *             {@link #setSkipUnparseable(boolean)} is not set.
+	 */
+	public long parse(Reader reader, ItemSink<? super T> sink)
+			throws IOException, ItemParseException {
+		if (reader == null) {
+			throw new IllegalArgumentException("reader is required.");
+		}
+		if (sink == null) {
+			throw new IllegalArgumentException("sink is required.");
+		}
+		this.errorCount = 0;
+		if (format instanceof PlainAmountFormat
+				&& sink instanceof MonetaryAmountColumn) {
+			this.directColumn = (MonetaryAmountColumn) sink;
+		} else {
+			this.directColumn = null;
+		}
+		long count = 0;
+		char[] buf = this.buffer;
+		int start = 0;
+		int pos = 0;
+		int end = 0;
+		while (true) {
+			if (pos == end) {
+				if (start > 0) {
+					// move the pending token to the buffer's start
+					System.arraycopy(buf, start, buf, 0, end - start);
+					pos -= start;
+					end -= start;
+					start = 0;
+				}
+				if (end == buf.length) {
+					buf = Arrays.copyOf(buf, buf.length * 2);
+					this.buffer = buf;
+				}
+				int read = reader.read(buf, end, buf.length - end);
+				if (read < 0) {
+					break;
+				}
+				end += read;
+				continue;
+			}
+			char c = buf[pos];
+			if (c == '\n' || c == '\r' || c == fieldDelimiter) {
+				if (emit(buf, start, pos, sink)) {
+					count++;
+				}
+				start = pos + 1;
+			}
+			pos++;
+		}
+		if (emit(buf, start, end, sink)) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Parses the token within the given buffer range and passes the result to
+	 * the sink.
+	 * 
+	 * @return {@code true}, if an item was passed to the sink.
+	 * @throws ItemParseException
+	 *             if the token is not parseable and unparseable items are not
+	 *             skipped.
+	 */
+	private boolean emit(char[] buf, int start, int end,
+			ItemSink<? super T> sink) throws ItemParseException {
+		if (trimWhitespace) {
+			while (start < end && Character.isWhitespace(buf[start])) {
+				start++;
+			}
+			while (end > start && Character.isWhitespace(buf[end - 1])) {
+				end--;
+			}
+		}
+		if (start == end) {
+			return false;
+		}
+		token.set(buf, start, end - start);
+		if (directColumn != null) {
+			try {
+				((PlainAmountFormat) format).parseInto(token, locale,
+						directColumn);
+			} catch (ItemParseException e) {
+				return handleError(e);
+			} catch (RuntimeException e) {
+				return handleError(new ItemParseException("Failed to parse '"
+						+ token + "'.", e));
+			}
+			return true;
+		}
+		T item;
+		try {
+			item = format.parse(token, locale);
+		} catch (ItemParseException e) {
+			return handleError(e);
+		} catch (RuntimeException e) {
+			return handleError(new ItemParseException("Failed to parse '"
+					+ token + "'.", e));
+		}
+		sink.accept(item);
+		return true;
+	}
+
+	private boolean handleError(ItemParseException e)
+			throws ItemParseException {
+		if (skipUnparseable) {
+			errorCount++;
+			return false;
+		}
+		throw e;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ItemStreamParser [format=" + format + ", locale=" + locale
+				+ ", fieldDelimiter=" + fieldDelimiter + ", trimWhitespace="
+				+ trimWhitespace + ", skipUnparseable=" + skipUnparseable + "]";
+	}
+
+	/**
+	 * Mutable {@link CharSequence} view onto a range of the parser's buffer.
+	 * The view is only valid until the next token is parsed.
+	 */
+	private static final class TokenSequence implements CharSequence {
+		private char[] chars;
+		private int offset;
+		private int length;
+
+		void set(char[] chars, int offset, int length) {
+			this.chars = chars;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= length) {
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			}
+			return chars[offset + index];
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			if (start < 0 || end > length || start > end) {
+				throw new IndexOutOfBoundsException(start + ".." + end);
+			}
+			return new String(chars, offset + start, end - start);
+		}
+
+		@Override
+		public String toString() {
+			return new String(chars, offset, length);
+		}
+	}
+
+}
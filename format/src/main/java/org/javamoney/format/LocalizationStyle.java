@@ -85,9 +85,15 @@ public final class LocalizationStyle implements Serializable{
     private Map<String,Object> attributes = new HashMap<String,Object>();
 
     /**
-     * The shared map of LocalizationStyle instances.
+     * The shared map of LocalizationStyle instances, by target type and style id.
      */
-    private static final Map<String,LocalizationStyle> STYLE_MAP = new ConcurrentHashMap<String,LocalizationStyle>();
+    private static final Map<Class<?>,Map<String,LocalizationStyle>> STYLE_MAP =
+            new ConcurrentHashMap<Class<?>,Map<String,LocalizationStyle>>();
+
+    /**
+     * The read-only views of the style ids registered, by target type.
+     */
+    private static final Map<Class<?>,Set<String>> STYLE_IDS = new ConcurrentHashMap<Class<?>,Set<String>>();
 
     /**
      * Access a cached <i>default</i> style for a type. This equals to
@@ -100,7 +106,11 @@ public final class LocalizationStyle implements Serializable{
      * {@code null].
      */
     public static final LocalizationStyle of(Class<?> targetType, String styleId){
-        return STYLE_MAP.get(getKey(targetType, styleId));
+        Map<String,LocalizationStyle> styles = STYLE_MAP.get(targetType);
+        if(styles == null){
+            return null;
+        }
+        return styles.get(styleId != null ? styleId : DEFAULT_ID);
     }
 
     /**
@@ -121,30 +131,48 @@ public final class LocalizationStyle implements Serializable{
      * given type.
      *
      * @param targetType the target type, not {@code null}.
-     * @return a set of style identifiers for the given type, never null.
+     * @return a read-only set of style identifiers for the given type,
+     * reflecting subsequent registrations, never null.
      */
     public static Collection<String> getSupportedStyleIds(Class<?> targetType){
-        Set<String> result = new HashSet<String>();
-        String className = targetType.getName();
-        for(String key : STYLE_MAP.keySet()){
-            int index = key.indexOf('_');
-            if(className.equals(key.substring(0, index))){
-                result.add(key.substring(index + 1));
-            }
+        Set<String> result = STYLE_IDS.get(targetType);
+        if(result == null){
+            // create the entry, so the view returned reflects later registrations
+            getStyles(targetType);
+            result = STYLE_IDS.get(targetType);
         }
         return result;
     }
 
     /**
-     * Access a cached style for a type.
+     * Access the styles of a type within the shared style map, creating the
+     * entry and its id view if needed.
      *
-     * @param targetType The target type, not {@code null}.
-     * @param styleId    The style's id, not {@code null}.
-     * @return the according style, if a corresponding style is cached, or
-     * {@code null].
+     * @param targetType the target type, not {@code null}.
+     * @return the styles by id, never {@code null}.
+     */
+    private static Map<String,LocalizationStyle> getStyles(Class<?> targetType){
+        Map<String,LocalizationStyle> styles = STYLE_MAP.get(targetType);
+        if(styles == null){
+            synchronized(STYLE_MAP){
+                styles = STYLE_MAP.get(targetType);
+                if(styles == null){
+                    styles = new ConcurrentHashMap<String,LocalizationStyle>();
+                    STYLE_IDS.put(targetType, Collections.unmodifiableSet(styles.keySet()));
+                    STYLE_MAP.put(targetType, styles);
+                }
+            }
+        }
+        return styles;
+    }
+
+    /**
+     * Registers a style within the shared style map.
+     *
+     * @param style the style, not {@code null}.
      */
-    private static String getKey(Class<?> targetType, String styleId){
-        return targetType.getName() + "_" + (styleId != null ? styleId : "default");
+    private static void register(LocalizationStyle style){
+        getStyles(style.getTargetType()).put(style.getId(), style);
     }
 
     /**
@@ -376,7 +404,7 @@ public final class LocalizationStyle implements Serializable{
         public LocalizationStyle build(boolean register){
             LocalizationStyle style = new LocalizationStyle(this);
             if(register){
-                STYLE_MAP.put(getKey(this.targetType, this.id), style);
+                register(style);
             }
             return style;
         }
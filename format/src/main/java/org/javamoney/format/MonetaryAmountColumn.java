@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+
+/**
+ * {@link ItemSink} that collects {@link MonetaryAmount} instances into a
+ * columnar representation: the currency of each amount, and its number as
+ * unscaled {@code long} value and scale. Numbers not representable as
+ * unscaled {@code long} are kept as {@link BigDecimal}.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+public final class MonetaryAmountColumn implements ItemSink<MonetaryAmount> {
+	/** The default initial capacity. */
+	private static final int DEFAULT_CAPACITY = 1024;
+	/** The currencies. */
+	private CurrencyUnit[] currencies;
+	/** The unscaled values. */
+	private long[] unscaledValues;
+	/** The scales. */
+	private int[] scales;
+	/** The numbers not fitting into a {@code long}, created on demand. */
+	private BigDecimal[] overflow;
+	/** The number of amounts contained. */
+	private int size;
+
+	/**
+	 * Creates a new column with a default initial capacity.
+	 */
+	public MonetaryAmountColumn() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new column.
+	 * 
+	 * @param capacity
+	 *            the initial capacity, not negative.
+	 */
+	public MonetaryAmountColumn(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+		this.currencies = new CurrencyUnit[capacity];
+		this.unscaledValues = new long[capacity];
+		this.scales = new int[capacity];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.javamoney.format.ItemSink#accept(java.lang.Object)
+	 */
+	@Override
+	public void accept(MonetaryAmount amount) {
+		add(amount.getCurrency(),
+				amount.getNumber().numberValue(BigDecimal.class));
+	}
+
+	/**
+	 * Adds an amount.
+	 * 
+	 * @param currency
+	 *            the amount's currency, not {@code null}.
+	 * @param number
+	 *            the amount's number, not {@code null}.
+	 */
+	public void add(CurrencyUnit currency, BigDecimal number) {
+		if (number.unscaledValue().bitLength() < 64) {
+			add(currency, number.unscaledValue().longValue(), number.scale());
+			return;
+		}
+		int index = addSlot(currency);
+		if (overflow == null) {
+			overflow = new BigDecimal[currencies.length];
+		}
+		overflow[index] = number;
+	}
+
+	/**
+	 * Adds an amount given as unscaled value and scale.
+	 * 
+	 * @param currency
+	 *            the amount's currency, not {@code null}.
+	 * @param unscaledValue
+	 *            the unscaled value.
+	 * @param scale
+	 *            the scale.
+	 */
+	public void add(CurrencyUnit currency, long unscaledValue, int scale) {
+		int index = addSlot(currency);
+		unscaledValues[index] = unscaledValue;
+		scales[index] = scale;
+	}
+
+	private int addSlot(CurrencyUnit currency) {
+		if (currency == null) {
+			throw new IllegalArgumentException("currency is required.");
+		}
+		if (size == currencies.length) {
+			int capacity = Math.max(DEFAULT_CAPACITY, size * 2);
+			currencies = Arrays.copyOf(currencies, capacity);
+			unscaledValues = Arrays.copyOf(unscaledValues, capacity);
+			scales = Arrays.copyOf(scales, capacity);
+			if (overflow != null) {
+				overflow = Arrays.copyOf(overflow, capacity);
+			}
+		}
+		currencies[size] = currency;
+		if (overflow != null) {
+			overflow[size] = null;
+		}
+		return size++;
+	}
+
+	/**
+	 * Get the number of amounts contained.
+	 * 
+	 * @return the number of amounts.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Access the currency of the amount at the given index.
+	 * 
+	 * @param index
+	 *            the index.
+	 * @return the currency, never {@code null}.
+	 */
+	public CurrencyUnit getCurrency(int index) {
+		checkIndex(index);
+		return currencies[index];
+	}
+
+	/**
+	 * Checks if the number at the given index is available as unscaled
+	 * {@code long} value.
+	 * 
+	 * @param index
+	 *            the index.
+	 * @return {@code true}, if {@link #getUnscaledValue(int)} and
+	 *         {@link #getScale(int)} can be used.
+	 */
+	public boolean isLongValue(int index) {
+		checkIndex(index);
+		return overflow == null || overflow[index] == null;
+	}
+
+	/**
+	 * Access the unscaled value of the amount at the given index.
+	 * 
+	 * @param index
+	 *            the index.
+	 * @return the unscaled value.
+	 * @throws ArithmeticException
+	 *             if the number does not fit into a {@code long}.
+	 */
+	public long getUnscaledValue(int index) {
+		if (!isLongValue(index)) {
+			throw new ArithmeticException("Number exceeds long: "
+					+ overflow[index]);
+		}
+		return unscaledValues[index];
+	}
+
+	/**
+	 * Access the scale of the amount at the given index.
+	 * 
+	 * @param index
+	 *            the index.
+	 * @return the scale.
+	 */
+	public int getScale(int index) {
+		if (!isLongValue(index)) {
+			return overflow[index].scale();
+		}
+		return scales[index];
+	}
+
+	/**
+	 * Access the number of the amount at the given index.
+	 * 
+	 * @param index
+	 *            the index.
+	 * @return the number, never {@code null}.
+	 */
+	public BigDecimal getNumber(int index) {
+		if (!isLongValue(index)) {
+			return overflow[index];
+		}
+		return BigDecimal.valueOf(unscaledValues[index], scales[index]);
+	}
+
+	/**
+	 * Removes all amounts, keeping the allocated capacity.
+	 */
+	public void clear() {
+		Arrays.fill(currencies, 0, size, null);
+		if (overflow != null) {
+			Arrays.fill(overflow, 0, size, null);
+		}
+		size = 0;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: "
+					+ size);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "MonetaryAmountColumn [size=" + size + "]";
+	}
+
+}
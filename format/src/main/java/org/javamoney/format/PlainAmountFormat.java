@@ -0,0 +1,865 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+import javax.money.MonetaryAmounts;
+import javax.money.MonetaryCurrencies;
+import javax.money.format.MonetaryAmountFormat;
+import javax.money.format.MonetaryFormats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ItemFormat} producing the same output as {@link DefaultAmountFormat}
+ * for styles without an explicit {@link MonetaryAmountFormat}, i.e. the output
+ * of {@link MonetaryFormats#getAmountFormat(Locale)}, without going through
+ * {@link DecimalFormat} for each amount.
+ * <p>
+ * For each {@link Locale} the layout of the general path is detected once:
+ * the literals surrounding the currency code or symbol and the number, for
+ * positive and negative amounts. A layout is only used, if the number is the
+ * locale's grouped decimal number with the currency's default fraction digits,
+ * rounded {@link RoundingMode#HALF_EVEN}, and if re-rendering a set of probe
+ * amounts in several currencies reproduces the general path's output exactly.
+ * Since the currency symbols of the general path may come from a different
+ * source than the {@link CurrencyDisplayTable} used here, the probe amounts
+ * are also re-rendered for each other currency, once per locale, before the
+ * layout is used for it. Otherwise, and for numbers exceeding {@code long}, currencies without
+ * default fraction digits, and negative amounts rounding to zero, the
+ * general path is used.
+ * <p>
+ * The digits are emitted directly from the unscaled value and scale of the
+ * amount's number, using the locale's decimal symbols, which are evaluated
+ * once per locale.
+ * <p>
+ * Parsing decodes the number directly into an unscaled {@code long} value and
+ * scale using an {@link AmountNumberParser}. Using
+ * {@link #parseInto(CharSequence, Locale, MonetaryAmountColumn)} the amounts
+ * parsed are added to a {@link MonetaryAmountColumn} without creating any
+ * intermediate objects, as long as the currency matches the one parsed
+ * previously and the number fits into a {@code long}. Input not matching the
+ * detected layout is parsed by the general path.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class PlainAmountFormat implements ItemFormat<MonetaryAmount> {
+
+	/**
+	 * The currency field rendered by a layout.
+	 */
+	public enum CurrencyField {
+		CODE, SYMBOL
+	}
+
+	private static final Logger LOG = LoggerFactory
+			.getLogger(PlainAmountFormat.class);
+	/** The powers of ten fitting into a {@code long}. */
+	private static final long[] POWERS_OF_TEN = new long[19];
+	/** The currencies used for verifying a detected layout. */
+	private static final String[] PROBE_CURRENCIES = new String[] { "CHF",
+			"JPY", "BHD", "EUR", "USD" };
+	/** The numbers used for verifying a detected layout. */
+	private static final String[] PROBE_NUMBERS = new String[] { "0", "1",
+			"0.5", "1.5", "2.5", "12.345", "12.3456", "-12.345", "1000",
+			"-1000.125", "1234567.891", "-98765.4321", "999999.9999" };
+	/** The number symbols, by locale. */
+	private static final Map<Locale, NumberSymbols> SYMBOLS = new ConcurrentHashMap<Locale, NumberSymbols>();
+	/** The layouts detected, by locale. */
+	private static final Map<Locale, Layouts> LAYOUTS = new ConcurrentHashMap<Locale, Layouts>();
+	/** The maximal number of currencies verified per locale. */
+	private static final int MAX_CACHE_SIZE = 4096;
+	/** Marker for locales, whose general path is not reproduced. */
+	private static final Layouts UNSUPPORTED = new Layouts(null, null);
+
+	static {
+		long value = 1;
+		for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = value;
+			value *= 10;
+		}
+	}
+
+	private final LocalizationStyle style;
+	/** The general path, used for everything not covered by a layout. */
+	private final DefaultAmountFormat generalFormat;
+	/** The number parser used by each thread. */
+	private final ThreadLocal<AmountNumberParser> numberParsers = new ThreadLocal<AmountNumberParser>();
+	/** The currency parsed last, for avoiding repeated lookups. */
+	private volatile ParsedCurrency lastCurrency;
+
+	/**
+	 * Creates a new instance.
+	 * 
+	 * @param style
+	 *            the style, not {@code null}, without a
+	 *            {@link MonetaryAmountFormat} attribute.
+	 * @see #isEligible(LocalizationStyle)
+	 */
+	public PlainAmountFormat(LocalizationStyle style) {
+		if (style == null) {
+			throw new IllegalArgumentException("style is required.");
+		}
+		if (!isEligible(style)) {
+			throw new ItemFormatException(
+					"style must not define a MonetaryAmountFormat: " + style);
+		}
+		this.style = style;
+		this.generalFormat = new DefaultAmountFormat(style);
+	}
+
+	/**
+	 * Checks if a {@link DefaultAmountFormat} with the given style can be
+	 * replaced by a {@link PlainAmountFormat}, which is the case if the style
+	 * does not define its own {@link MonetaryAmountFormat}.
+	 * 
+	 * @param style
+	 *            the style, not {@code null}.
+	 * @return {@code true}, if the style is eligible.
+	 */
+	public static boolean isEligible(LocalizationStyle style) {
+		return style.getAttribute(MonetaryAmountFormat.class) == null;
+	}
+
+	/**
+	 * Checks if amounts are rendered directly for the given locale, or if the
+	 * locale's output could not be reproduced and the general path is used.
+	 * 
+	 * @param locale
+	 *            the target locale, not {@code null}.
+	 * @return {@code true}, if a layout was detected for the locale.
+	 */
+	public static boolean isDirectRendering(Locale locale) {
+		return getLayouts(locale) != UNSUPPORTED;
+	}
+
+	@Override
+	public Class<MonetaryAmount> getTargetClass() {
+		return MonetaryAmount.class;
+	}
+
+	@Override
+	public LocalizationStyle getStyle() {
+		return style;
+	}
+
+	@Override
+	public String format(MonetaryAmount item, Locale locale) {
+		StringBuilder b = new StringBuilder(24);
+		appendTo(b, item, locale);
+		return b.toString();
+	}
+
+	@Override
+	public void print(Appendable appendable, MonetaryAmount item, Locale locale)
+			throws IOException {
+		if (appendable instanceof StringBuilder) {
+			appendTo((StringBuilder) appendable, item, locale);
+		} else {
+			appendable.append(format(item, locale));
+		}
+	}
+
+	/**
+	 * Formats an amount given as unscaled value and scale, without creating
+	 * any intermediate {@link BigDecimal}, if possible.
+	 * 
+	 * @param b
+	 *            the target builder, not {@code null}.
+	 * @param currency
+	 *            the currency, not {@code null}.
+	 * @param unscaledValue
+	 *            the unscaled value.
+	 * @param scale
+	 *            the scale.
+	 * @param locale
+	 *            the target locale, not {@code null}.
+	 */
+	public void appendTo(StringBuilder b, CurrencyUnit currency,
+			long unscaledValue, int scale, Locale locale) {
+		if (!appendDirect(b, currency, unscaledValue, scale, locale)) {
+			b.append(generalFormat.format(
+					createAmount(currency,
+							BigDecimal.valueOf(unscaledValue, scale)), locale));
+		}
+	}
+
+	private void appendTo(StringBuilder b, MonetaryAmount item, Locale locale) {
+		CurrencyUnit currency = item.getCurrency();
+		BigDecimal number = item.getNumber().numberValue(BigDecimal.class);
+		BigInteger unscaled = number.unscaledValue();
+		if (unscaled.bitLength() >= 64
+				|| !appendDirect(b, currency, unscaled.longValue(),
+						number.scale(), locale)) {
+			b.append(generalFormat.format(item, locale));
+		}
+	}
+
+	/**
+	 * Renders the amount using the locale's layout.
+	 * 
+	 * @return {@code true}, if the amount was rendered, {@code false}, if the
+	 *         general path must be used.
+	 */
+	private static boolean appendDirect(StringBuilder b, CurrencyUnit currency,
+			long unscaledValue, int scale, Locale locale) {
+		Layouts layouts = getLayouts(locale);
+		int digits = currency.getDefaultFractionDigits();
+		if (layouts == UNSUPPORTED || digits < 0
+				|| digits >= POWERS_OF_TEN.length
+				|| unscaledValue == Long.MIN_VALUE) {
+			return false;
+		}
+		long value = rescale(Math.abs(unscaledValue), scale, digits);
+		if (value < 0 || (value == 0 && unscaledValue < 0)) {
+			return false;
+		}
+		Layout layout = unscaledValue < 0 ? layouts.negative
+				: layouts.positive;
+		String currencyToken = getCurrencyToken(layout.currencyField,
+				currency, locale);
+		if (currencyToken == null || !isVerified(layouts, currency, locale)) {
+			return false;
+		}
+		layout.append(b, currencyToken, getSymbols(locale), value, digits);
+		return true;
+	}
+
+	/**
+	 * Checks if the layouts reproduce the general path for the given
+	 * currency, verifying the currency on first use.
+	 */
+	private static boolean isVerified(Layouts layouts, CurrencyUnit currency,
+			Locale locale) {
+		Boolean verified = layouts.verified.get(currency.getCurrencyCode());
+		if (verified == null) {
+			try {
+				verified = verify(layouts,
+						MonetaryFormats.getAmountFormat(locale), currency,
+						locale);
+			} catch (RuntimeException e) {
+				LOG.debug("Failed to verify amount layout for " + currency
+						+ " and " + locale, e);
+				verified = Boolean.FALSE;
+			}
+			if (!verified) {
+				LOG.debug("Amounts in " + currency
+						+ " are not rendered directly for " + locale);
+			}
+			if (layouts.verified.size() < MAX_CACHE_SIZE) {
+				layouts.verified.put(currency.getCurrencyCode(), verified);
+			}
+		}
+		return verified;
+	}
+
+	private static String getCurrencyToken(CurrencyField field,
+			CurrencyUnit currency, Locale locale) {
+		if (field == CurrencyField.SYMBOL) {
+			int id = CurrencyDisplayTable.getCurrencyId(currency
+					.getCurrencyCode());
+			if (id < 0) {
+				return null;
+			}
+			return CurrencyDisplayTable.of(locale).getSymbol(id);
+		}
+		return currency.getCurrencyCode();
+	}
+
+	/**
+	 * Rescales the given non negative unscaled value to the target scale,
+	 * rounding {@link RoundingMode#HALF_EVEN}.
+	 * 
+	 * @return the rescaled value, or -1, if it does not fit into a
+	 *         {@code long}.
+	 */
+	private static long rescale(long value, int scale, int targetScale) {
+		if (scale == targetScale) {
+			return value;
+		}
+		if (scale < targetScale) {
+			int diff = targetScale - scale;
+			if (diff >= POWERS_OF_TEN.length
+					|| value > Long.MAX_VALUE / POWERS_OF_TEN[diff]) {
+				return -1;
+			}
+			return value * POWERS_OF_TEN[diff];
+		}
+		int diff = scale - targetScale;
+		if (diff >= POWERS_OF_TEN.length) {
+			return -1;
+		}
+		long divisor = POWERS_OF_TEN[diff];
+		long result = value / divisor;
+		long remainder = value % divisor;
+		long twice = remainder * 2;
+		if (twice > divisor || (twice == divisor && (result & 1) == 1)) {
+			result++;
+		}
+		return result;
+	}
+
+	private static MonetaryAmount createAmount(CurrencyUnit currency,
+			BigDecimal number) {
+		return MonetaryAmounts.getDefaultAmountFactory().setCurrency(currency)
+				.setNumber(number).create();
+	}
+
+	private static NumberSymbols getSymbols(Locale locale) {
+		NumberSymbols symbols = SYMBOLS.get(locale);
+		if (symbols == null) {
+			symbols = new NumberSymbols(NumberFormat.getInstance(locale));
+			SYMBOLS.put(locale, symbols);
+		}
+		return symbols;
+	}
+
+	private static Layouts getLayouts(Locale locale) {
+		Layouts layouts = LAYOUTS.get(locale);
+		if (layouts == null) {
+			layouts = detectLayouts(locale);
+			LAYOUTS.put(locale, layouts);
+		}
+		return layouts;
+	}
+
+	/**
+	 * Detects the layouts of the general path for the given locale.
+	 * 
+	 * @return the layouts, or {@link #UNSUPPORTED}.
+	 */
+	private static Layouts detectLayouts(Locale locale) {
+		NumberSymbols symbols = getSymbols(locale);
+		if (!symbols.supported) {
+			return UNSUPPORTED;
+		}
+		try {
+			MonetaryAmountFormat general = MonetaryFormats
+					.getAmountFormat(locale);
+			CurrencyUnit currency = MonetaryCurrencies.getCurrency("CHF");
+			String positive = general.format(createAmount(currency,
+					new BigDecimal("1234567.89")));
+			String negative = general.format(createAmount(currency,
+					new BigDecimal("-1234567.89")));
+			for (CurrencyField field : CurrencyField.values()) {
+				Layout positiveLayout = Layout.detect(positive, field,
+						currency, 123456789L, locale, symbols);
+				Layout negativeLayout = Layout.detect(negative, field,
+						currency, 123456789L, locale, symbols);
+				if (positiveLayout == null || negativeLayout == null) {
+					continue;
+				}
+				Layouts layouts = new Layouts(positiveLayout, negativeLayout);
+				if (verify(layouts, general, locale)) {
+					for (String code : PROBE_CURRENCIES) {
+						layouts.verified.put(code, Boolean.TRUE);
+					}
+					return layouts;
+				}
+			}
+		} catch (RuntimeException e) {
+			LOG.debug("Failed to detect amount layout for " + locale, e);
+		}
+		LOG.debug("Amounts are not rendered directly for " + locale);
+		return UNSUPPORTED;
+	}
+
+	private static boolean verify(Layouts layouts, MonetaryAmountFormat general,
+			Locale locale) {
+		for (String code : PROBE_CURRENCIES) {
+			if (!verify(layouts, general, MonetaryCurrencies.getCurrency(code),
+					locale)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the layouts reproduce the general path's output of the probe
+	 * amounts in the given currency.
+	 */
+	private static boolean verify(Layouts layouts,
+			MonetaryAmountFormat general, CurrencyUnit currency, Locale locale) {
+		NumberSymbols symbols = getSymbols(locale);
+		int digits = currency.getDefaultFractionDigits();
+		if (digits < 0 || digits >= POWERS_OF_TEN.length) {
+			return false;
+		}
+		StringBuilder b = new StringBuilder();
+		for (String probe : PROBE_NUMBERS) {
+			BigDecimal number = new BigDecimal(probe);
+			long value = rescale(number.unscaledValue().abs().longValue(),
+					number.scale(), digits);
+			b.setLength(0);
+			Layout layout = number.signum() < 0 ? layouts.negative
+					: layouts.positive;
+			String token = getCurrencyToken(layout.currencyField, currency,
+					locale);
+			if (token == null) {
+				return false;
+			}
+			layout.append(b, token, symbols, value, digits);
+			if (!b.toString().equals(
+					general.format(createAmount(currency, number)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public MonetaryAmount parse(CharSequence text, Locale locale)
+			throws ItemParseException {
+		CurrencyUnit currency = parseDirect(text, locale);
+		if (currency == null) {
+			return parseGeneral(text, locale);
+		}
+		return createAmount(currency, getNumberParser(locale).getBigDecimal());
+	}
+
+	/**
+	 * Parses an amount and adds it to the given column, without creating a
+	 * {@link MonetaryAmount} instance.
+	 * 
+	 * @param text
+	 *            the text to be parsed, not {@code null}.
+	 * @param locale
+	 *            the target locale, not {@code null}.
+	 * @param column
+	 *            the target column, not {@code null}.
+	 * @throws ItemParseException
+	 *             if the text is not parseable.
+	 */
+	public void parseInto(CharSequence text, Locale locale,
+			MonetaryAmountColumn column) throws ItemParseException {
+		CurrencyUnit currency = parseDirect(text, locale);
+		if (currency == null) {
+			MonetaryAmount amount = parseGeneral(text, locale);
+			column.add(amount.getCurrency(), amount.getNumber().numberValue(
+					BigDecimal.class));
+			return;
+		}
+		AmountNumberParser parser = getNumberParser(locale);
+		if (parser.isLongValue()) {
+			column.add(currency, parser.getUnscaledValue(), parser.getScale());
+		} else {
+			column.add(currency, parser.getBigDecimal());
+		}
+	}
+
+	private MonetaryAmount parseGeneral(CharSequence text, Locale locale)
+			throws ItemParseException {
+		try {
+			return generalFormat.parse(text, locale);
+		} catch (ItemParseException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			throw new ItemParseException("Amount not parseable: " + text);
+		}
+	}
+
+	/**
+	 * Parses the text using the locale's layouts, leaving the number in the
+	 * current thread's {@link AmountNumberParser}.
+	 * 
+	 * @return the currency parsed, or {@code null}, if the text does not match
+	 *         a layout.
+	 */
+	private CurrencyUnit parseDirect(CharSequence text, Locale locale) {
+		Layouts layouts = getLayouts(locale);
+		if (layouts == UNSUPPORTED) {
+			return null;
+		}
+		int start = trimmedStart(text);
+		int end = trimmedEnd(text);
+		AmountNumberParser parser = getNumberParser(locale);
+		if (isNegative(layouts, text, start, end)) {
+			CurrencyUnit currency = parseDirect(layouts.negative, text, start,
+					end, parser, locale);
+			if (currency != null) {
+				parser.negate();
+				return currency;
+			}
+			return parseDirect(layouts.positive, text, start, end, parser,
+					locale);
+		}
+		CurrencyUnit currency = parseDirect(layouts.positive, text, start, end,
+				parser, locale);
+		if (currency == null) {
+			currency = parseDirect(layouts.negative, text, start, end, parser,
+					locale);
+			if (currency != null) {
+				parser.negate();
+			}
+		}
+		return currency;
+	}
+
+	/**
+	 * Checks the sign of the text, before any currency is looked up: the text
+	 * is negative, if it matches the literals only found in the negative
+	 * layout, at its start or end.
+	 */
+	private static boolean isNegative(Layouts layouts, CharSequence text,
+			int start, int end) {
+		String lead = layouts.negative.lead.trim();
+		if (lead.length() > layouts.positive.lead.trim().length()
+				&& regionMatches(text, start, lead)) {
+			return true;
+		}
+		String trail = layouts.negative.trail.trim();
+		return trail.length() > layouts.positive.trail.trim().length()
+				&& regionMatches(text, end - trail.length(), trail);
+	}
+
+	private CurrencyUnit parseDirect(Layout layout, CharSequence text,
+			int start, int end, AmountNumberParser parser, Locale locale) {
+		String lead = layout.lead.trim();
+		String trail = layout.trail.trim();
+		if (!regionMatches(text, start, lead)
+				|| !regionMatches(text, end - trail.length(), trail)
+				|| end - start < lead.length() + trail.length()) {
+			return null;
+		}
+		int pos = start + lead.length();
+		int limit = end - trail.length();
+		int tokenStart;
+		int tokenEnd;
+		if (layout.currencyFirst) {
+			tokenStart = pos;
+			if (layout.middle.isEmpty()) {
+				tokenEnd = pos;
+				while (tokenEnd < limit
+						&& !Character.isDigit(text.charAt(tokenEnd))) {
+					tokenEnd++;
+				}
+			} else {
+				tokenEnd = indexOf(text, layout.middle, pos, limit);
+			}
+			if (tokenEnd <= tokenStart) {
+				return null;
+			}
+			pos = tokenEnd + layout.middle.length();
+			if (parser.parse(text, pos, limit) != limit) {
+				return null;
+			}
+		} else {
+			pos = parser.parse(text, pos, limit);
+			if (pos < 0 || !regionMatches(text, pos, layout.middle)) {
+				return null;
+			}
+			tokenStart = pos + layout.middle.length();
+			tokenEnd = limit;
+			if (tokenEnd <= tokenStart) {
+				return null;
+			}
+		}
+		return parseCurrency(layout.currencyField, text, tokenStart, tokenEnd,
+				locale);
+	}
+
+	private AmountNumberParser getNumberParser(Locale locale) {
+		AmountNumberParser parser = numberParsers.get();
+		if (parser == null || !parser.getLocale().equals(locale)) {
+			parser = new AmountNumberParser(locale);
+			numberParsers.set(parser);
+		}
+		return parser;
+	}
+
+	/**
+	 * Evaluates the currency token, reusing the currency parsed last, if the
+	 * token matches.
+	 * 
+	 * @return the currency, or {@code null}.
+	 */
+	private CurrencyUnit parseCurrency(CurrencyField field, CharSequence text,
+			int start, int end, Locale locale) {
+		ParsedCurrency last = this.lastCurrency;
+		if (last != null && last.matches(text, start, end, locale)) {
+			return last.currency;
+		}
+		String token = text.subSequence(start, end).toString();
+		CurrencyUnit currency = parseCurrency(field, token, locale);
+		if (currency != null) {
+			this.lastCurrency = new ParsedCurrency(token, locale, currency);
+		}
+		return currency;
+	}
+
+	private static CurrencyUnit parseCurrency(CurrencyField field,
+			String token, Locale locale) {
+		if (field == CurrencyField.SYMBOL) {
+			CurrencyDisplayTable table = CurrencyDisplayTable.of(locale);
+			int id = table.findCurrencyId(token);
+			if (id >= 0) {
+				return MonetaryCurrencies.getCurrency(table.getCode(id));
+			}
+		}
+		if (CurrencyDisplayTable.getCurrencyId(token) < 0
+				&& !MonetaryCurrencies.isCurrencyAvailable(token)) {
+			return null;
+		}
+		try {
+			return MonetaryCurrencies.getCurrency(token);
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static int trimmedStart(CharSequence text) {
+		int start = 0;
+		while (start < text.length()
+				&& Character.isWhitespace(text.charAt(start))) {
+			start++;
+		}
+		return start;
+	}
+
+	private static int trimmedEnd(CharSequence text) {
+		int end = text.length();
+		while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+		return end;
+	}
+
+	private static boolean regionMatches(CharSequence text, int pos,
+			String token) {
+		if (pos < 0 || pos + token.length() > text.length()) {
+			return false;
+		}
+		for (int i = 0; i < token.length(); i++) {
+			if (text.charAt(pos + i) != token.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int indexOf(CharSequence text, String token, int from,
+			int to) {
+		for (int i = from; i + token.length() <= to; i++) {
+			if (regionMatches(text, i, token)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "PlainAmountFormat [style=" + style + "]";
+	}
+
+	/**
+	 * The layouts of a locale, for positive and negative amounts, and the
+	 * currencies verified so far.
+	 */
+	private static final class Layouts {
+		private final Layout positive;
+		private final Layout negative;
+		/** The verification results, by currency code. */
+		private final Map<String, Boolean> verified = new ConcurrentHashMap<String, Boolean>();
+
+		Layouts(Layout positive, Layout negative) {
+			this.positive = positive;
+			this.negative = negative;
+		}
+	}
+
+	/**
+	 * The layout of an amount: a leading literal, the currency and the
+	 * unsigned number in the given order separated by a literal, and a
+	 * trailing literal.
+	 */
+	private static final class Layout {
+		private final CurrencyField currencyField;
+		private final boolean currencyFirst;
+		private final String lead;
+		private final String middle;
+		private final String trail;
+
+		Layout(CurrencyField currencyField, boolean currencyFirst, String lead,
+				String middle, String trail) {
+			this.currencyField = currencyField;
+			this.currencyFirst = currencyFirst;
+			this.lead = lead;
+			this.middle = middle;
+			this.trail = trail;
+		}
+
+		/**
+		 * Detects the layout of a formatted amount, whose unsigned number
+		 * rendered with the currency's default fraction digits is given.
+		 * 
+		 * @return the layout, or {@code null}.
+		 */
+		static Layout detect(String formatted, CurrencyField field,
+				CurrencyUnit currency, long value, Locale locale,
+				NumberSymbols symbols) {
+			StringBuilder b = new StringBuilder();
+			symbols.appendDigits(b, value, currency.getDefaultFractionDigits());
+			String number = b.toString();
+			int index = formatted.indexOf(number);
+			if (index < 0 || formatted.lastIndexOf(number) != index) {
+				return null;
+			}
+			String token = getCurrencyToken(field, currency, locale);
+			if (token == null) {
+				return null;
+			}
+			String before = formatted.substring(0, index);
+			String after = formatted.substring(index + number.length());
+			int pos = before.lastIndexOf(token);
+			if (pos >= 0) {
+				return new Layout(field, true, before.substring(0, pos),
+						before.substring(pos + token.length()), after);
+			}
+			pos = after.indexOf(token);
+			if (pos >= 0) {
+				return new Layout(field, false, before,
+						after.substring(0, pos), after.substring(pos
+								+ token.length()));
+			}
+			return null;
+		}
+
+		void append(StringBuilder b, String currencyToken,
+				NumberSymbols symbols, long value, int digits) {
+			b.append(lead);
+			if (currencyFirst) {
+				b.append(currencyToken);
+				b.append(middle);
+				symbols.appendDigits(b, value, digits);
+			} else {
+				symbols.appendDigits(b, value, digits);
+				b.append(middle);
+				b.append(currencyToken);
+			}
+			b.append(trail);
+		}
+	}
+
+	/**
+	 * A currency token parsed, and the resulting currency.
+	 */
+	private static final class ParsedCurrency {
+		private final String token;
+		private final Locale locale;
+		private final CurrencyUnit currency;
+
+		ParsedCurrency(String token, Locale locale, CurrencyUnit currency) {
+			this.token = token;
+			this.locale = locale;
+			this.currency = currency;
+		}
+
+		boolean matches(CharSequence text, int start, int end, Locale locale) {
+			if (end - start != token.length() || !this.locale.equals(locale)) {
+				return false;
+			}
+			for (int i = 0; i < token.length(); i++) {
+				if (text.charAt(start + i) != token.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * The decimal symbols of a locale, as used by its {@link DecimalFormat}.
+	 */
+	private static final class NumberSymbols {
+		/** Flag, if the direct rendering supports the locale's pattern. */
+		private final boolean supported;
+		private final char zeroDigit;
+		private final char groupingSeparator;
+		private final char decimalSeparator;
+		private final int groupingSize;
+
+		NumberSymbols(NumberFormat numberFormat) {
+			if (!(numberFormat instanceof DecimalFormat)) {
+				supported = false;
+				zeroDigit = groupingSeparator = decimalSeparator = 0;
+				groupingSize = 0;
+				return;
+			}
+			DecimalFormat format = (DecimalFormat) numberFormat;
+			DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+			zeroDigit = symbols.getZeroDigit();
+			groupingSeparator = symbols.getGroupingSeparator();
+			decimalSeparator = symbols.getDecimalSeparator();
+			groupingSize = format.isGroupingUsed() ? format.getGroupingSize()
+					: 0;
+			supported = format.getMultiplier() == 1
+					&& format.getMinimumIntegerDigits() == 1
+					&& format.getMaximumIntegerDigits() >= 19
+					&& !format.isDecimalSeparatorAlwaysShown()
+					&& !format.toPattern().contains("E");
+		}
+
+		/**
+		 * Appends the digits of the given non negative unscaled value, without
+		 * any sign.
+		 */
+		void appendDigits(StringBuilder b, long value, int scale) {
+			long integerPart = scale == 0 ? value : value
+					/ POWERS_OF_TEN[scale];
+			int count = 1;
+			while (count < POWERS_OF_TEN.length
+					&& integerPart >= POWERS_OF_TEN[count]) {
+				count++;
+			}
+			for (int i = count - 1; i >= 0; i--) {
+				b.append((char) (zeroDigit + (int) (integerPart
+						/ POWERS_OF_TEN[i] % 10)));
+				if (groupingSize > 0 && i > 0 && i % groupingSize == 0) {
+					b.append(groupingSeparator);
+				}
+			}
+			if (scale > 0) {
+				b.append(decimalSeparator);
+				long fraction = value % POWERS_OF_TEN[scale];
+				for (int i = scale - 1; i >= 0; i--) {
+					b.append((char) (zeroDigit + (int) (fraction
+							/ POWERS_OF_TEN[i] % 10)));
+				}
+			}
+		}
+	}
+
+}
@@ -32,6 +32,20 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * This is the base class for implementing the
  * {@link org.javamoney.format.spi.TokenizeableFormatsSingletonSpi}.
+ * <p>
+ * {@link ItemFormat} instances resolved are cached by target type, style id and
+ * {@link LocalizationStyle}; the id is part of the key, since styles with equal
+ * attributes may still select different formats by their id. Since
+ * {@link ItemFormat} instances are not required to be thread-safe, the cache is
+ * held per thread, so an instance is never shared between threads. Each thread
+ * caches up to {@value #MAX_CACHE_SIZE} formats, further formats are created on
+ * each access. The cache is invalidated on each {@link #reload()}.
+ * <p>
+ * Combinations of target type and style can be precompiled using
+ * {@link #precompile(Class, LocalizationStyle)}: the factory creating their
+ * {@link ItemFormat} is resolved once and shared among all threads, so the
+ * first access on any thread only creates a new instance from it. The
+ * precompiled combinations are resolved again on each {@link #reload()}.
  *
  * @author Anatole Tresch
  */
@@ -39,8 +53,25 @@ import java.util.concurrent.ConcurrentHashMap;
 public class DefaultTokenizeableFormatsSingletonSpi implements TokenizeableFormatsSingletonSpi{
 
     @SuppressWarnings("rawtypes")
-    private Map<Class,Set<ItemFormatFactorySpi>> formatMap = new ConcurrentHashMap<Class,Set<ItemFormatFactorySpi>>();
+    private volatile Map<Class,Set<ItemFormatFactorySpi>> formatMap = new ConcurrentHashMap<Class,Set<ItemFormatFactorySpi>>();
     private static final Logger LOG = LoggerFactory.getLogger(DefaultTokenizeableFormatsSingletonSpi.class);
+    /** The formats resolved by the current thread. */
+    private final ThreadLocal<FormatCache> formatCache = new ThreadLocal<FormatCache>();
+    /** The generation of the loaded factories, incremented on each reload. */
+    private volatile int generation;
+    /** The combinations declared by {@link #precompile(Class, LocalizationStyle)}. */
+    private final Set<FormatKey> precompiledKeys = Collections.newSetFromMap(new ConcurrentHashMap<FormatKey,Boolean>());
+    /** The factories resolved for the precompiled combinations. */
+    @SuppressWarnings("rawtypes")
+    private volatile Map<FormatKey,ItemFormatFactorySpi> resolvedFactories = new ConcurrentHashMap<FormatKey,ItemFormatFactorySpi>();
+    /** The caches of the threads having accessed formats since the last reload, read for the counters. */
+    private volatile Set<FormatCache> caches = Collections.newSetFromMap(new ConcurrentHashMap<FormatCache,Boolean>());
+    /** The cache hits of terminated threads, since the last reload, guarded by this instance. */
+    private long retiredHits;
+    /** The cache misses of terminated threads, since the last reload, guarded by this instance. */
+    private long retiredMisses;
+    /** The maximal number of formats cached per thread. */
+    static final int MAX_CACHE_SIZE = 4096;
 
     public DefaultTokenizeableFormatsSingletonSpi(){
         reload();
@@ -75,7 +106,135 @@ public class DefaultTokenizeableFormatsSingletonSpi implements TokenizeableForma
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> ItemFormat<T> getItemFormat(Class<T> targetType, LocalizationStyle style) throws ItemFormatException{
+        FormatCache cache = formatCache.get();
+        if(cache == null || cache.generation != this.generation){
+            cache = register();
+            formatCache.set(cache);
+        }
+        FormatKey key = new FormatKey(targetType, style);
+        ItemFormat<T> format = (ItemFormat<T>) cache.formats.get(key);
+        if(format != null){
+            cache.hits++;
+            return format;
+        }
+        cache.misses++;
+        format = createItemFormat(targetType, style);
+        if(cache.formats.size() < MAX_CACHE_SIZE){
+            cache.formats.put(key, format);
+        }
+        return format;
+    }
+
+    /**
+     * Creates and registers the format cache of the current thread. The counts of caches of terminated threads are
+     * folded into the retired counters, so only caches of live threads are held.
+     */
+    private FormatCache register(){
+        Set<FormatCache> current;
+        FormatCache cache;
+        synchronized(this){
+            current = this.caches;
+            cache = new FormatCache(this.generation);
+            current.add(cache);
+        }
+        for(Iterator<FormatCache> it = current.iterator(); it.hasNext(); ){
+            FormatCache other = it.next();
+            if(other.isTerminated()){
+                synchronized(this){
+                    if(current == this.caches && current.remove(other)){
+                        retiredHits += other.hits;
+                        retiredMisses += other.misses;
+                    }
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Get the number of calls to {@link #getItemFormat(Class, LocalizationStyle)} served from the format
+     * cache, since the last {@link #reload()}.
+     *
+     * @return the number of cache hits.
+     */
+    public synchronized long getCacheHitCount(){
+        long count = retiredHits;
+        for(FormatCache cache : caches){
+            count += cache.hits;
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of calls to {@link #getItemFormat(Class, LocalizationStyle)} that required a new
+     * {@link ItemFormat} to be resolved, since the last {@link #reload()}.
+     *
+     * @return the number of cache misses.
+     */
+    public synchronized long getCacheMissCount(){
+        long count = retiredMisses;
+        for(FormatCache cache : caches){
+            count += cache.misses;
+        }
+        return count;
+    }
+
+    /**
+     * Precompiles the given combination: the factory creating the {@link ItemFormat} is resolved and shared
+     * among all threads, and all data loaded by the factory on first use is loaded. The combination is
+     * resolved again on each {@link #reload()}.
+     *
+     * @param targetType the target type, not {@code null}.
+     * @param style      the style, not {@code null}.
+     * @return a new {@link ItemFormat} instance, for use by the calling thread only.
+     * @throws ItemFormatException if no {@link ItemFormat} can be created.
+     */
+    public <T> ItemFormat<T> precompile(Class<T> targetType, LocalizationStyle style) throws ItemFormatException{
+        if(targetType == null || style == null){
+            throw new IllegalArgumentException("targetType and style are required.");
+        }
+        FormatKey key = new FormatKey(targetType, style);
+        precompiledKeys.add(key);
+        resolveFactory(key);
+        return createItemFormat(targetType, style);
+    }
+
+    /**
+     * Checks if the given combination was precompiled, and a factory was resolved for it.
+     *
+     * @param targetType the target type.
+     * @param style      the style.
+     * @return {@code true}, if {@link ItemFormat} instances are created by a shared resolved factory.
+     */
+    public boolean isPrecompiled(Class<?> targetType, LocalizationStyle style){
+        return resolvedFactories.containsKey(new FormatKey(targetType, style));
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void resolveFactory(FormatKey key){
+        Set<ItemFormatFactorySpi> factories = formatMap.get(key.targetType);
+        if(factories == null){
+            return;
+        }
+        for(ItemFormatFactorySpi spi : factories){
+            if(spi.getItemFormat(key.style) != null){
+                resolvedFactories.put(key, spi);
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ItemFormat<T> createItemFormat(Class<T> targetType, LocalizationStyle style) throws ItemFormatException{
+        @SuppressWarnings("rawtypes") ItemFormatFactorySpi resolved = resolvedFactories.get(new FormatKey(targetType, style));
+        if(resolved != null){
+            ItemFormat<T> itemFormatter = resolved.getItemFormat(style);
+            if(itemFormatter != null){
+                return itemFormatter;
+            }
+        }
         @SuppressWarnings("rawtypes") Set<ItemFormatFactorySpi> factories = formatMap.get(targetType);
         if(factories == null){
             throw new ItemFormatException("No formatter factories loaded for " + targetType.getName());
@@ -110,19 +269,21 @@ public class DefaultTokenizeableFormatsSingletonSpi implements TokenizeableForma
 
     /**
      * Loads and registers the {@link org.javamoney.format.spi.ItemFormatFactorySpi} instances. It also
-     * checks for the types exposed.
+     * checks for the types exposed. All cached {@link ItemFormat} instances are discarded, and the factories of the
+     * precompiled combinations are resolved again.
      */
-    public void reload(){
+    public synchronized void reload(){
+        Map<Class,Set<ItemFormatFactorySpi>> newFormatMap = new ConcurrentHashMap<Class,Set<ItemFormatFactorySpi>>();
         for(ItemFormatFactorySpi t : Bootstrap.getServices(ItemFormatFactorySpi.class)){
             try{
                 if(t.getTargetClass() == null){
                     throw new IllegalArgumentException("ItemFormatterFactorySpi of type: " + t.getClass().getName() +
                                                                " does not define a target type.");
                 }
-                Set<ItemFormatFactorySpi> spis = this.formatMap.get(t.getTargetClass());
+                Set<ItemFormatFactorySpi> spis = newFormatMap.get(t.getTargetClass());
                 if(spis == null){
                     spis = new HashSet<ItemFormatFactorySpi>();
-                    this.formatMap.put(t.getTargetClass(), spis);
+                    newFormatMap.put(t.getTargetClass(), spis);
                 }
                 spis.add(t);
             }
@@ -130,6 +291,20 @@ public class DefaultTokenizeableFormatsSingletonSpi implements TokenizeableForma
                 LOG.warn("Error loading ItemFormatFactorySpi.", e);
             }
         }
+        this.formatMap = newFormatMap;
+        this.resolvedFactories = new ConcurrentHashMap<FormatKey,ItemFormatFactorySpi>();
+        for(FormatKey key : precompiledKeys){
+            try{
+                resolveFactory(key);
+            }
+            catch(Exception e){
+                LOG.warn("Error precompiling format for " + key.targetType.getName() + ", " + key.style, e);
+            }
+        }
+        this.generation++;
+        this.caches = Collections.newSetFromMap(new ConcurrentHashMap<FormatCache,Boolean>());
+        this.retiredHits = 0;
+        this.retiredMisses = 0;
     }
 
     @Override
@@ -141,4 +316,63 @@ public class DefaultTokenizeableFormatsSingletonSpi implements TokenizeableForma
         return style;
     }
 
+    /**
+     * The {@link ItemFormat} instances resolved by a thread, for a given generation of loaded factories. The
+     * counters are only written by the owning thread, and summed on read.
+     */
+    private static final class FormatCache{
+        private final int generation;
+        private final Thread owner = Thread.currentThread();
+        private final Map<FormatKey,ItemFormat<?>> formats = new HashMap<FormatKey,ItemFormat<?>>();
+        private volatile long hits;
+        private volatile long misses;
+
+        FormatCache(int generation){
+            this.generation = generation;
+        }
+
+        boolean isTerminated(){
+            return !owner.isAlive();
+        }
+    }
+
+    /**
+     * The key of a cached format or precompiled combination. Besides the style's attributes, which define
+     * {@link LocalizationStyle#equals(Object)}, its id, target type and default format class are compared.
+     */
+    private static final class FormatKey{
+        private final Class<?> targetType;
+        private final LocalizationStyle style;
+
+        FormatKey(Class<?> targetType, LocalizationStyle style){
+            this.targetType = targetType;
+            this.style = style;
+        }
+
+        @Override
+        public int hashCode(){
+            int result = targetType.hashCode() * 31 + style.hashCode();
+            return result * 31 + (style.getId() == null ? 0 : style.getId().hashCode());
+        }
+
+        @Override
+        public boolean equals(Object obj){
+            if(this == obj){
+                return true;
+            }
+            if(!(obj instanceof FormatKey)){
+                return false;
+            }
+            FormatKey other = (FormatKey) obj;
+            return targetType.equals(other.targetType) && style.equals(other.style) &&
+                    equal(style.getId(), other.style.getId()) &&
+                    equal(style.getTargetType(), other.style.getTargetType()) &&
+                    equal(style.getDefaultItemFormatClass(), other.style.getDefaultItemFormatClass());
+        }
+
+        private static boolean equal(Object o1, Object o2){
+            return o1 == null ? o2 == null : o1.equals(o2);
+        }
+    }
+
 }
@@ -29,9 +29,11 @@ import org.javamoney.format.LocalizationStyle;
  * instance of {@link ItemFormat}. This instance finally will be returned to the
  * client.
  * <p>
- * Note that the formatter runtime does not perform any caching of instances
- * returned. It is the responsibility of the implementations of this interface,
- * to implement reuse of resources, where useful. Nevertheless keep in mind that
+ * Note that the default formatter runtime caches the instances returned per
+ * thread, by target type and {@link org.javamoney.format.LocalizationStyle},
+ * until the factories are reloaded. Beyond that it is the responsibility of the
+ * implementations of this interface, to implement reuse of resources, where
+ * useful. Nevertheless keep in mind that
  * synchronization of shared resources can lead to severe performance issues.
  * Therefore in most of the cases it is reasonable to create a new formatter
  * instance on each access and to delegate caching aspects to the clients.
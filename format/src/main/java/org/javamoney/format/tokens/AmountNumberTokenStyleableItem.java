@@ -22,6 +22,7 @@ import java.util.Locale;
 
 import javax.money.MonetaryAmount;
 
+import org.javamoney.format.AmountNumberParser;
 import org.javamoney.format.ItemParseContext;
 import org.javamoney.format.ItemParseException;
 import org.javamoney.format.LocalizationStyle;
@@ -39,6 +40,8 @@ public class AmountNumberTokenStyleableItem<T extends MonetaryAmount> extends Ab
 
 	private static final char[] EMPTY_CHAR_ARRAY = new char[0];
 	private static final int[] EMPTY_INT_ARRAY = new int[0];
+	/** The number parser used by each thread. */
+	private static final ThreadLocal<AmountNumberParser> NUMBER_PARSERS = new ThreadLocal<AmountNumberParser>();
 	private DecimalFormat format;
 	private StringGrouper numberGroup;
 
@@ -155,9 +158,32 @@ public class AmountNumberTokenStyleableItem<T extends MonetaryAmount> extends Ab
 
 	@Override
 	public void parse(ItemParseContext context, Locale locale, LocalizationStyle style) throws ItemParseException {
+		if (this.format == null && this.numberGroup == null) {
+			// locale's default format, decode directly
+			AmountNumberParser parser = getNumberParser(locale);
+			int end = parser.parse(context.getInputSequence(), context.getIndex(),
+					context.getInputLength());
+			if (end < 0) {
+				context.setError();
+				throw new ItemParseException("Number not parseable at index "
+						+ context.getIndex() + ": " + context.getOriginalInput());
+			}
+			context.setIndex(end);
+			context.setNumber(parser.getBigDecimal());
+			return;
+		}
 		DecimalFormat format = getNumberFormat(locale, style);
 		ParsePosition pos = new ParsePosition(0);
 		Number number = format.parse(context.getInput().toString(), pos);
 		context.addParseResult(Number.class, number);
 	}
+
+	private AmountNumberParser getNumberParser(Locale locale) {
+		AmountNumberParser parser = NUMBER_PARSERS.get();
+		if (parser == null || !parser.getLocale().equals(locale)) {
+			parser = new AmountNumberParser(locale);
+			NUMBER_PARSERS.set(parser);
+		}
+		return parser;
+	}
 }
@@ -16,7 +16,9 @@
 package org.javamoney.format.tokens;
 
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.money.CurrencyUnit;
 
@@ -37,6 +39,15 @@ public class CurrencyTokenStyleableItem extends AbstractStyleableItemFormatToken
 
 	private DisplayType displayType = DisplayType.CODE;
 
+	/**
+	 * The sub-formats and tokens rendered for {@link DisplayType#NAME} and
+	 * {@link DisplayType#SYMBOL}, by style.
+	 */
+	private final Map<LocalizationStyle, RenderedTokens> renderedTokens = new ConcurrentHashMap<LocalizationStyle, RenderedTokens>();
+
+	/** The entry last accessed, avoiding map lookups for repeated styles. */
+	private volatile RenderedTokens lastRenderedTokens;
+
 	public CurrencyTokenStyleableItem() {
 	}
 
@@ -45,6 +56,8 @@ public class CurrencyTokenStyleableItem extends AbstractStyleableItemFormatToken
 			throw new IllegalArgumentException("Display type null.");
 		}
 		this.displayType = displayType;
+		this.renderedTokens.clear();
+		this.lastRenderedTokens = null;
 		return this;
 	}
 
@@ -58,27 +71,119 @@ public class CurrencyTokenStyleableItem extends AbstractStyleableItemFormatToken
 		case NUMERIC_CODE:
 			return String.valueOf(unit.getNumericCode());
 		case NAME:
-			ItemFormat<CurrencyUnit> cf1 = ItemFormats
-					.getItemFormat(CurrencyUnit.class,
-                                   new LocalizationStyle.Builder(style).setAttribute("renderField", "displayName")
-                                           .build());
-			return cf1.format(unit, locale);
+			return getRenderedTokens(style, "displayName").render(unit, locale);
 		case SYMBOL:
-			ItemFormat<CurrencyUnit> cf2 = ItemFormats.getItemFormat(CurrencyUnit.class,
-                                                                     new LocalizationStyle.Builder(style)
-                                                                             .setAttribute("renderField", "symbol")
-                                                                             .build());
-			return cf2.format(unit, locale);
+			return getRenderedTokens(style, "symbol").render(unit, locale);
 		default:
 		case CODE:
 			return unit.getCurrencyCode();
 		}
 	}
 
+	/**
+	 * Access the rendered tokens for the given style.
+	 * 
+	 * @param style
+	 *            the style.
+	 * @param renderField
+	 *            the field rendered by the sub-format.
+	 * @return the cache entry, never {@code null}.
+	 */
+	private RenderedTokens getRenderedTokens(LocalizationStyle style,
+			String renderField) {
+		RenderedTokens tokens = this.lastRenderedTokens;
+		if (tokens != null && tokens.style == style
+				&& tokens.renderField.equals(renderField)) {
+			return tokens;
+		}
+		tokens = this.renderedTokens.get(style);
+		if (tokens == null || !tokens.renderField.equals(renderField)) {
+			tokens = new RenderedTokens(style, renderField);
+			this.renderedTokens.put(style, tokens);
+		}
+		this.lastRenderedTokens = tokens;
+		return tokens;
+	}
+
+	/**
+	 * Resolves the sub-format rendering a currency's display name or symbol.
+	 * This is called once per style and rendered field.
+	 * 
+	 * @param subStyle
+	 *            the style passed, with the {@code renderField} attribute
+	 *            set.
+	 * @return the sub-format, never {@code null}.
+	 * @throws ItemFormatException
+	 *             if no format is available for the style.
+	 */
+	protected ItemFormat<CurrencyUnit> createSubFormat(
+			LocalizationStyle subStyle) throws ItemFormatException {
+		return ItemFormats.getItemFormat(CurrencyUnit.class, subStyle);
+	}
+
+	/**
+	 * Parses a currency from the current parse position, matching the longest
+	 * currency code, symbol or (plural) display name of the given
+	 * {@link Locale}. Numeric codes are only matched, if the display type is
+	 * {@link DisplayType#NUMERIC_CODE}. The currency found is added to the
+	 * context's results under the {@link CurrencyUnit} class key.
+	 */
 	@Override
 	public void parse(ItemParseContext context, Locale locale,
 			LocalizationStyle style)
 			throws ItemParseException {
-		throw new UnsupportedOperationException("Not yet implemented");
+		context.skipWhitespace();
+		CurrencyTokenTrie.Node match = CurrencyTokenTrie.of(locale).match(
+				context, displayType == DisplayType.NUMERIC_CODE);
+		if (match == null) {
+			context.setError();
+			throw new ItemParseException("No currency found at index "
+					+ context.getIndex() + " of '"
+					+ context.getOriginalInput() + "'.");
+		}
+		context.addParseResult(CurrencyUnit.class, match.getCurrency());
+		context.setIndex(context.getIndex() + match.getDepth());
+	}
+
+	/**
+	 * The sub-format and the tokens rendered for a style and field, by
+	 * {@link Locale} and currency code. The sub-format is resolved on the
+	 * first miss, and only used while holding this instance's lock, since
+	 * {@link ItemFormat} instances are not required to be thread-safe.
+	 */
+	private final class RenderedTokens {
+		private final LocalizationStyle style;
+		private final String renderField;
+		private final Map<Locale, Map<String, String>> tokens = new ConcurrentHashMap<Locale, Map<String, String>>();
+		/** The sub-format, guarded by this instance. */
+		private ItemFormat<CurrencyUnit> format;
+
+		RenderedTokens(LocalizationStyle style, String renderField) {
+			this.style = style;
+			this.renderField = renderField;
+		}
+
+		String render(CurrencyUnit unit, Locale locale) {
+			Map<String, String> localeTokens = tokens.get(locale);
+			if (localeTokens == null) {
+				localeTokens = new ConcurrentHashMap<String, String>();
+				tokens.put(locale, localeTokens);
+			}
+			String token = localeTokens.get(unit.getCurrencyCode());
+			if (token == null) {
+				token = format(unit, locale);
+				localeTokens.put(unit.getCurrencyCode(), token);
+			}
+			return token;
+		}
+
+		private synchronized String format(CurrencyUnit unit, Locale locale) {
+			if (this.format == null) {
+				this.format = createSubFormat(new LocalizationStyle.Builder(
+						style).setAttribute("renderField", renderField)
+						.build());
+			}
+			return this.format.format(unit, locale);
+		}
 	}
-}
+}
\ No newline at end of file
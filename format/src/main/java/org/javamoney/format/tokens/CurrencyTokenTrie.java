@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format.tokens;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryCurrencies;
+
+import org.javamoney.format.ItemParseContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Trie of all textual currency representations of a {@link Locale}: currency
+ * codes, symbols, display names (including plural forms) and numeric codes.
+ * Lookups return the longest match in time linear to the length of the token
+ * matched. Letters are matched case-insensitively.
+ * <p>
+ * Tries are built lazily on first access of a {@link Locale} and are shared.
+ * This class is thread-safe and immutable once built.
+ * 
+ * @see CurrencyTokenStyleableItem#parse(ItemParseContext, Locale,
+ *      org.javamoney.format.LocalizationStyle)
+ */
+final class CurrencyTokenTrie {
+
+	private static final Logger LOG = LoggerFactory
+			.getLogger(CurrencyTokenTrie.class);
+
+	/** The plural categories, whose long currency names are added. */
+	private static final String[] PLURAL_COUNTS = new String[] { "zero",
+			"one", "two", "few", "many", "other" };
+
+	/** The shared tries, by locale. */
+	private static final Map<Locale, CurrencyTokenTrie> TRIES = new ConcurrentHashMap<Locale, CurrencyTokenTrie>();
+
+	/** The resolved currencies, shared by all tries. */
+	private static volatile Map<String, CurrencyUnit> units;
+
+	/** The root node. */
+	private final Node root = new Node(0);
+
+	private CurrencyTokenTrie() {
+	}
+
+	/**
+	 * Access the trie for the given {@link Locale}, building it if not yet
+	 * available.
+	 * 
+	 * @param locale
+	 *            the target locale, not {@code null}.
+	 * @return the trie, never {@code null}.
+	 */
+	static CurrencyTokenTrie of(Locale locale) {
+		CurrencyTokenTrie trie = TRIES.get(locale);
+		if (trie == null) {
+			trie = build(locale);
+			TRIES.put(locale, trie);
+		}
+		return trie;
+	}
+
+	/**
+	 * Evaluates the longest currency token starting at the context's current
+	 * parse position.
+	 * 
+	 * @param context
+	 *            the parse context.
+	 * @param numeric
+	 *            flag, if numeric codes should be matched.
+	 * @return the matching node, or {@code null}. The currency is available
+	 *         from {@link Node#getCurrency()}, the number of characters
+	 *         matched from {@link Node#getDepth()}.
+	 */
+	Node match(ItemParseContext<?> context, boolean numeric) {
+		Node node = root;
+		Node match = null;
+		int length = context.getInputLength();
+		for (int i = context.getIndex(); i < length; i++) {
+			node = node.get(normalize(context.charAt(i)));
+			if (node == null) {
+				break;
+			}
+			if (node.currency != null && (numeric || !node.numeric)) {
+				match = node;
+			}
+		}
+		return match;
+	}
+
+	private static char normalize(char c) {
+		return Character.toLowerCase(c);
+	}
+
+	private static CurrencyTokenTrie build(Locale locale) {
+		CurrencyTokenTrie trie = new CurrencyTokenTrie();
+		Map<String, CurrencyUnit> currencies = getUnits();
+		// codes first, they always win over names and symbols
+		for (CurrencyUnit unit : currencies.values()) {
+			trie.add(unit.getCurrencyCode(), unit, false);
+		}
+		if (!locale.getCountry().isEmpty()) {
+			try {
+				CurrencyUnit localCurrency = currencies.get(java.util.Currency
+						.getInstance(locale).getCurrencyCode());
+				if (localCurrency != null) {
+					trie.addNames(localCurrency, locale);
+				}
+			} catch (Exception e) {
+				LOG.debug("No currency for locale: " + locale);
+			}
+		}
+		for (CurrencyUnit unit : currencies.values()) {
+			trie.addNames(unit, locale);
+		}
+		for (CurrencyUnit unit : currencies.values()) {
+			if (unit.getNumericCode() >= 0) {
+				trie.add(String.valueOf(unit.getNumericCode()), unit, true);
+				trie.add(String.format("%03d", unit.getNumericCode()), unit,
+						true);
+			}
+		}
+		return trie;
+	}
+
+	private void addNames(CurrencyUnit unit, Locale locale) {
+		String code = unit.getCurrencyCode();
+		try {
+			java.util.Currency jdkCurrency = java.util.Currency
+					.getInstance(code);
+			add(jdkCurrency.getSymbol(locale), unit, false);
+			add(jdkCurrency.getDisplayName(locale), unit, false);
+		} catch (Exception e) {
+			// not a JDK currency
+		}
+		try {
+			com.ibm.icu.util.Currency icuCurrency = com.ibm.icu.util.Currency
+					.getInstance(code);
+			add(icuCurrency.getSymbol(locale), unit, false);
+			add(icuCurrency.getName(locale,
+					com.ibm.icu.util.Currency.LONG_NAME, null), unit, false);
+			for (String pluralCount : PLURAL_COUNTS) {
+				add(icuCurrency.getName(locale,
+						com.ibm.icu.util.Currency.PLURAL_LONG_NAME,
+						pluralCount, null), unit, false);
+			}
+		} catch (Exception e) {
+			LOG.debug("No ICU currency names for: " + code);
+		}
+	}
+
+	private void add(String token, CurrencyUnit unit, boolean numeric) {
+		if (token == null || token.isEmpty()) {
+			return;
+		}
+		Node node = root;
+		for (int i = 0; i < token.length(); i++) {
+			node = node.getOrCreate(normalize(token.charAt(i)));
+		}
+		// first registration wins
+		if (node.currency == null) {
+			node.currency = unit;
+			node.numeric = numeric;
+		}
+	}
+
+	private static Map<String, CurrencyUnit> getUnits() {
+		Map<String, CurrencyUnit> result = units;
+		if (result == null) {
+			result = new ConcurrentHashMap<String, CurrencyUnit>();
+			for (java.util.Currency currency : java.util.Currency
+					.getAvailableCurrencies()) {
+				addUnit(result, currency.getCurrencyCode());
+			}
+			for (com.ibm.icu.util.Currency currency : com.ibm.icu.util.Currency
+					.getAvailableCurrencies()) {
+				addUnit(result, currency.getCurrencyCode());
+			}
+			units = result;
+		}
+		return result;
+	}
+
+	private static void addUnit(Map<String, CurrencyUnit> result, String code) {
+		if (result.containsKey(code)) {
+			return;
+		}
+		try {
+			CurrencyUnit unit = MonetaryCurrencies.getCurrency(code);
+			if (unit != null) {
+				result.put(code, unit);
+			}
+		} catch (Exception e) {
+			LOG.debug("Currency not available: " + code);
+		}
+	}
+
+	/**
+	 * A single trie node, children are kept sorted by their character.
+	 */
+	static final class Node {
+		private static final char[] NO_KEYS = new char[0];
+		private static final Node[] NO_CHILDREN = new Node[0];
+		private char[] keys = NO_KEYS;
+		private Node[] children = NO_CHILDREN;
+		private final int depth;
+		private CurrencyUnit currency;
+		private boolean numeric;
+
+		Node(int depth) {
+			this.depth = depth;
+		}
+
+		/**
+		 * The currency represented by the token ending at this node.
+		 * 
+		 * @return the currency, or {@code null}.
+		 */
+		CurrencyUnit getCurrency() {
+			return currency;
+		}
+
+		/**
+		 * The length of the token ending at this node.
+		 * 
+		 * @return the token length.
+		 */
+		int getDepth() {
+			return depth;
+		}
+
+		Node get(char c) {
+			int index = Arrays.binarySearch(keys, c);
+			if (index < 0) {
+				return null;
+			}
+			return children[index];
+		}
+
+		Node getOrCreate(char c) {
+			int index = Arrays.binarySearch(keys, c);
+			if (index >= 0) {
+				return children[index];
+			}
+			int insert = -index - 1;
+			char[] newKeys = new char[keys.length + 1];
+			Node[] newChildren = new Node[children.length + 1];
+			System.arraycopy(keys, 0, newKeys, 0, insert);
+			System.arraycopy(children, 0, newChildren, 0, insert);
+			System.arraycopy(keys, insert, newKeys, insert + 1, keys.length
+					- insert);
+			System.arraycopy(children, insert, newChildren, insert + 1,
+					children.length - insert);
+			Node child = new Node(depth + 1);
+			newKeys[insert] = c;
+			newChildren[insert] = child;
+			this.keys = newKeys;
+			this.children = newChildren;
+			return child;
+		}
+	}
+
+}
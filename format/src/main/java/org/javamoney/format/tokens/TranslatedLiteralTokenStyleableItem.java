@@ -16,8 +16,10 @@
 package org.javamoney.format.tokens;
 
 import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
 import java.util.ResourceBundle;
-
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.javamoney.format.ItemParseContext;
 import org.javamoney.format.ItemParseException;
@@ -28,6 +30,11 @@ import org.slf4j.LoggerFactory;
 /**
  * {@link org.javamoney.format.StyleableItemFormatToken} that adds a localizable {@link String}, read by key from
  * a {@link ResourceBundle}..
+ * <p>
+ * The literal is resolved once per {@link Locale} and cached. If the bundle or
+ * key can not be resolved for a {@link Locale}, the key itself is used and
+ * cached as well, so failing lookups are not repeated. The cache is cleared,
+ * when the key or bundle is changed.
  * 
  * @author Anatole Tresch
  * 
@@ -38,6 +45,8 @@ public class TranslatedLiteralTokenStyleableItem<T> extends AbstractStyleableIte
 
 	private String bundle;
 	private String key;
+	/** The literals resolved, by locale. */
+	private final Map<Locale, String> translations = new ConcurrentHashMap<Locale, String>();
 	private Logger LOG = LoggerFactory.getLogger(TranslatedLiteralTokenStyleableItem.class);
 
 	public TranslatedLiteralTokenStyleableItem(String key) {
@@ -57,6 +66,7 @@ public class TranslatedLiteralTokenStyleableItem<T> extends AbstractStyleableIte
 			throw new IllegalArgumentException("Token is required.");
 		}
 		this.key = key;
+		this.translations.clear();
 		return this;
 	}
 
@@ -65,6 +75,25 @@ public class TranslatedLiteralTokenStyleableItem<T> extends AbstractStyleableIte
 			throw new IllegalArgumentException("Bundle is required.");
 		}
 		this.bundle = bundle;
+		this.translations.clear();
+		return this;
+	}
+
+	/**
+	 * Resolves and caches the literal for the given locales upfront, e.g. on
+	 * application startup.
+	 * 
+	 * @param locales
+	 *            the locales to be preloaded, not {@code null}.
+	 * @return this instance, for chaining.
+	 */
+	public TranslatedLiteralTokenStyleableItem<T> preload(Locale... locales) {
+		if (locales == null) {
+			throw new IllegalArgumentException("Locales are required.");
+		}
+		for (Locale locale : locales) {
+			getTokenInternal(locale, null);
+		}
 		return this;
 	}
 
@@ -81,13 +110,26 @@ public class TranslatedLiteralTokenStyleableItem<T> extends AbstractStyleableIte
 	};
 
 	private String getTokenInternal(Locale locale, LocalizationStyle style) {
-		if (bundle == null) {
+		if (bundle == null || locale == null) {
 			return String.valueOf(key);
 		}
+		String token = translations.get(locale);
+		if (token == null) {
+			token = resolveToken(locale);
+			translations.put(locale, token);
+		}
+		return token;
+	}
+
+	private String resolveToken(Locale locale) {
 		try {
 			ResourceBundle rb = ResourceBundle.getBundle(bundle,
 					locale);
 			return rb.getString(key);
+		} catch (MissingResourceException e) {
+			LOG.debug("No translation for " + key + " in " + bundle + " for "
+					+ locale + ", using key.");
+			return String.valueOf(key);
 		} catch (Exception e) {
 			return String.valueOf(key);
 		}
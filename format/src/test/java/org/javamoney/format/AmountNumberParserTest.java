@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Locale;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+import javax.money.MonetaryAmounts;
+import javax.money.MonetaryCurrencies;
+
+import org.junit.Test;
+
+/**
+ * Tests class for {@link AmountNumberParser}.
+ */
+public class AmountNumberParserTest {
+
+	@Test
+	public void testParseGrouped() {
+		AmountNumberParser parser = new AmountNumberParser(Locale.ENGLISH);
+		assertEquals(12, parser.parse("1,234,567.89", 0, 12));
+		assertTrue(parser.isLongValue());
+		assertEquals(123456789L, parser.getUnscaledValue());
+		assertEquals(2, parser.getScale());
+		parser = new AmountNumberParser(Locale.GERMANY);
+		assertEquals(8, parser.parse("1.234,50", 0, 8));
+		assertEquals(new BigDecimal("1234.50"), parser.getBigDecimal());
+	}
+
+	@Test
+	public void testParseNegative() {
+		AmountNumberParser parser = new AmountNumberParser(Locale.ENGLISH);
+		assertEquals(5, parser.parse("-0.05", 0, 5));
+		assertEquals(-5L, parser.getUnscaledValue());
+		assertEquals(2, parser.getScale());
+	}
+
+	@Test
+	public void testParseStopsAtNonNumber() {
+		AmountNumberParser parser = new AmountNumberParser(Locale.ENGLISH);
+		assertEquals(7, parser.parse("CHF 100 ", 4, 8));
+		assertEquals(100L, parser.getUnscaledValue());
+		assertEquals(5, parser.parse("1,234.,", 0, 7));
+		assertEquals(1234L, parser.getUnscaledValue());
+		assertEquals(0, parser.getScale());
+		assertEquals(-1, parser.parse("abc", 0, 3));
+		assertEquals(-1, parser.parse("-", 0, 1));
+	}
+
+	@Test
+	public void testParseOverflow() {
+		AmountNumberParser parser = new AmountNumberParser(Locale.ENGLISH);
+		String text = "-98,765,432,109,876,543,210.12";
+		assertEquals(text.length(), parser.parse(text, 0, text.length()));
+		assertFalse(parser.isLongValue());
+		assertEquals(new BigDecimal("-98765432109876543210.12"),
+				parser.getBigDecimal());
+		assertEquals(2, parser.getScale());
+	}
+
+	@Test
+	public void testParseIntoColumn() throws IOException, ItemParseException {
+		PlainAmountFormat format = new PlainAmountFormat(
+				new LocalizationStyle.Builder(MonetaryAmount.class).build());
+		CurrencyUnit chf = MonetaryCurrencies.getCurrency("CHF");
+		CurrencyUnit eur = MonetaryCurrencies.getCurrency("EUR");
+		String input = format(format, chf, "1000.50") + ';'
+				+ format(format, eur, "-2.25") + '\n'
+				+ format(format, chf, "123456789012345678901");
+		MonetaryAmountColumn column = new MonetaryAmountColumn();
+		ItemStreamParser<MonetaryAmount> parser = new ItemStreamParser<MonetaryAmount>(
+				format, Locale.ENGLISH).setFieldDelimiter(';');
+		assertEquals(3, parser.parse(new StringReader(input), column));
+		assertEquals(3, column.size());
+		assertEquals(chf, column.getCurrency(0));
+		assertEquals(0, new BigDecimal("1000.50").compareTo(column.getNumber(0)));
+		assertTrue(column.isLongValue(0));
+		assertEquals(eur, column.getCurrency(1));
+		assertEquals(0, new BigDecimal("-2.25").compareTo(column.getNumber(1)));
+		assertEquals(chf, column.getCurrency(2));
+		assertEquals(0, new BigDecimal("123456789012345678901")
+				.compareTo(column.getNumber(2)));
+	}
+
+	@Test
+	public void testParseIntoColumnSkipsUnparseable() throws IOException,
+			ItemParseException {
+		PlainAmountFormat format = new PlainAmountFormat(
+				new LocalizationStyle.Builder(MonetaryAmount.class).build());
+		CurrencyUnit chf = MonetaryCurrencies.getCurrency("CHF");
+		String input = "garbage;" + format(format, chf, "-12.50")
+				+ ";-XYZ 1;XYZ 1.00;" + format(format, chf, "7");
+		MonetaryAmountColumn column = new MonetaryAmountColumn();
+		ItemStreamParser<MonetaryAmount> parser = new ItemStreamParser<MonetaryAmount>(
+				format, Locale.ENGLISH).setFieldDelimiter(';')
+				.setSkipUnparseable(true);
+		assertEquals(2, parser.parse(new StringReader(input), column));
+		assertEquals(3, parser.getErrorCount());
+		assertEquals(0, new BigDecimal("-12.50").compareTo(column.getNumber(0)));
+		assertEquals(0, new BigDecimal("7").compareTo(column.getNumber(1)));
+	}
+
+	@Test(expected = ItemParseException.class)
+	public void testParseIntoInvalid() throws ItemParseException {
+		PlainAmountFormat format = new PlainAmountFormat(
+				new LocalizationStyle.Builder(MonetaryAmount.class).build());
+		format.parseInto("1.2x", Locale.ENGLISH, new MonetaryAmountColumn());
+	}
+
+	private static String format(PlainAmountFormat format,
+			CurrencyUnit currency, String number) {
+		return format.format(MonetaryAmounts.getDefaultAmountFactory()
+				.setCurrency(currency).setNumber(new BigDecimal(number))
+				.create(), Locale.ENGLISH);
+	}
+
+}
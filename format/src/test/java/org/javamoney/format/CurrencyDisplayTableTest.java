@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Tests class for {@link CurrencyDisplayTable}.
+ */
+public class CurrencyDisplayTableTest {
+
+	@Test
+	public void testRender() {
+		CurrencyDisplayTable table = CurrencyDisplayTable.of(Locale.GERMANY);
+		int id = CurrencyDisplayTable.getCurrencyId("EUR");
+		Currency eur = Currency.getInstance("EUR");
+		assertEquals("EUR", table.getCode(id));
+		assertEquals(eur.getSymbol(Locale.GERMANY), table.getSymbol(id));
+		assertEquals(eur.getDisplayName(Locale.GERMANY),
+				table.getDisplayName(id));
+		assertEquals(978, table.getNumericCode(id));
+		assertSame(table, CurrencyDisplayTable.of(Locale.GERMANY));
+	}
+
+	@Test
+	public void testFindCurrencyId() {
+		CurrencyDisplayTable table = CurrencyDisplayTable.of(Locale.US);
+		int usd = CurrencyDisplayTable.getCurrencyId("USD");
+		assertEquals(usd, table.findCurrencyId("USD"));
+		assertEquals(usd, table.findCurrencyId("$"));
+		assertEquals(usd, table.findCurrencyId(Currency.getInstance("USD")
+				.getDisplayName(Locale.US)));
+		assertEquals(-1, table.findCurrencyId("foo"));
+		assertEquals(-1, CurrencyDisplayTable.getCurrencyId("XYZ"));
+	}
+
+	@Test
+	public void testSaveLoad() throws IOException {
+		File file = File.createTempFile("currencies", ".bin");
+		try {
+			CurrencyDisplayTable.save(file,
+					Arrays.asList(Locale.FRANCE, Locale.JAPAN));
+			assertEquals(2, CurrencyDisplayTable.load(file));
+			CurrencyDisplayTable table = CurrencyDisplayTable.of(Locale.FRANCE);
+			int id = CurrencyDisplayTable.getCurrencyId("CHF");
+			assertEquals(Currency.getInstance("CHF")
+					.getDisplayName(Locale.FRANCE), table.getDisplayName(id));
+			assertEquals(id, table.findCurrencyId(table.getSymbol(id)));
+		} finally {
+			file.delete();
+		}
+	}
+
+}
@@ -16,7 +16,11 @@
 package org.javamoney.format;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -25,7 +29,6 @@ import java.text.DecimalFormatSymbols;
 import java.util.Collection;
 import java.util.Locale;
 
-
 import org.javamoney.format.tokens.LiteralTokenStyleableItem;
 import org.javamoney.format.tokens.NumberTokenStyleableItem;
 import org.junit.Test;
@@ -126,4 +129,166 @@ public class ItemFormatBuilderTest {
 		assertEquals("test 123.456.789,123", f.format(123456789.123456789d,Locale.GERMAN));
 	}
 
+	@Test
+	public void testParseResultByClass() throws ItemParseException {
+		ItemFormat<String> f = buildFormat(String.class,
+				new ResultToken<String>(String.class, "found"));
+		assertEquals("found", f.parse("input", Locale.ENGLISH));
+	}
+
+	@Test
+	public void testParseResultByClassName() throws ItemParseException {
+		ItemFormat<String> f = buildFormat(String.class,
+				new ResultToken<String>(String.class.getName(), "found"));
+		assertEquals("found", f.parse("input", Locale.ENGLISH));
+	}
+
+	@Test
+	public void testParseTypedResult() throws ItemParseException {
+		ItemFormat<Number> f = buildFormat(Number.class,
+				new ResultToken<Number>(Number.class, 42));
+		assertEquals(42, f.parse("input", Locale.ENGLISH));
+	}
+
+	@Test(expected = ItemParseException.class)
+	public void testParseIncomplete() throws ItemParseException {
+		ItemFormat<String> f = buildFormat(String.class,
+				new ResultToken<String>(Integer.class, "ignored"));
+		f.parse("input", Locale.ENGLISH);
+	}
+
+	@Test
+	public void testDefaultParseResultFactory() {
+		DefaultParseResultFactory<String> factory = new DefaultParseResultFactory<String>(
+				String.class);
+		ItemParseContext<String> ctx = new ItemParseContext<String>("",
+				factory);
+		ctx.addParseResult(Number.class, 1);
+		assertFalse(factory.isComplete(ctx));
+		ctx.addParseResult(String.class.getName(), "byName");
+		assertTrue(factory.isComplete(ctx));
+		assertEquals("byName", factory.createItemParsed(ctx));
+		ctx.addParseResult(String.class, "byClass");
+		assertEquals("byClass", factory.createItemParsed(ctx));
+	}
+
+	@Test
+	public void testAcquireReusesReleasedContext() {
+		DefaultParseResultFactory<String> factory = new DefaultParseResultFactory<String>(
+				String.class);
+		ItemParseContext<String> ctx = ItemParseContext.acquire("first",
+				factory);
+		ctx.consume("fir");
+		ctx.addParseResult(Number.class, 1);
+		ctx.addParseResult("key", "value");
+		ctx.release();
+		ItemParseContext<String> next = ItemParseContext.acquire("second",
+				factory);
+		try {
+			assertSame(ctx, next);
+			assertEquals("second", next.getOriginalInput());
+			assertEquals(0, next.getIndex());
+			assertNull(next.getNumber());
+			assertNull(next.getResult("key", String.class));
+		} finally {
+			next.release();
+		}
+	}
+
+	@Test
+	public void testNestedAcquire() {
+		DefaultParseResultFactory<String> factory = new DefaultParseResultFactory<String>(
+				String.class);
+		ItemParseContext<String> outer = ItemParseContext.acquire("outer",
+				factory);
+		ItemParseContext<String> inner = ItemParseContext.acquire("inner",
+				factory);
+		assertNotSame(outer, inner);
+		assertEquals("outer", outer.getOriginalInput());
+		assertEquals("inner", inner.getOriginalInput());
+		inner.release();
+		assertEquals("outer", outer.getOriginalInput());
+		outer.release();
+		ItemParseContext<String> next = ItemParseContext.acquire("next",
+				factory);
+		assertSame(outer, next);
+		next.release();
+	}
+
+	@Test
+	public void testNestedParse() throws ItemParseException {
+		final ItemFormat<Number> inner = buildFormat(Number.class,
+				new ResultToken<Number>(Number.class, 7));
+		ItemFormat<String> outer = buildFormat(String.class,
+				new StyleableItemFormatToken<String>() {
+					@Override
+					public void print(Appendable appendable, String item,
+							Locale locale, LocalizationStyle style) {
+					}
+
+					@Override
+					public void parse(ItemParseContext<String> context,
+							Locale locale, LocalizationStyle style)
+							throws ItemParseException {
+						Number number = inner.parse("7", locale);
+						assertEquals("outer", context.getOriginalInput());
+						context.addParseResult(String.class, "nested-"
+								+ number);
+					}
+				});
+		assertEquals("nested-7", outer.parse("outer", Locale.ENGLISH));
+	}
+
+	@Test
+	public void testParseReleasesContextOnError() {
+		DefaultParseResultFactory<String> factory = new DefaultParseResultFactory<String>(
+				String.class);
+		ItemParseContext<String> pooled = ItemParseContext.acquire("", factory);
+		pooled.release();
+		ItemFormat<String> f = buildFormat(String.class,
+				new LiteralTokenStyleableItem<String>("expected"));
+		try {
+			f.parse("other", Locale.ENGLISH);
+		} catch (ItemParseException e) {
+			// expected
+		}
+		ItemParseContext<String> next = ItemParseContext.acquire("", factory);
+		assertSame(pooled, next);
+		next.release();
+	}
+
+	private static <T> ItemFormat<T> buildFormat(Class<T> type,
+			StyleableItemFormatToken<T> token) {
+		ItemFormatBuilder<T> b = new ItemFormatBuilder<T>(type);
+		b.append(token);
+		b.withStyle(new LocalizationStyle.Builder(type).build());
+		return b.build();
+	}
+
+	/**
+	 * Token consuming the whole input and adding a fixed result.
+	 */
+	private static final class ResultToken<T> implements
+			StyleableItemFormatToken<T> {
+		private final Object key;
+		private final Object value;
+
+		ResultToken(Object key, Object value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public void print(Appendable appendable, T item, Locale locale,
+				LocalizationStyle style) {
+		}
+
+		@Override
+		public void parse(ItemParseContext<T> context, Locale locale,
+				LocalizationStyle style) {
+			context.setIndex(context.getInputLength());
+			context.addParseResult(key, value);
+		}
+	}
+
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.money.MonetaryAmount;
+import javax.money.MonetaryAmounts;
+import javax.money.MonetaryCurrencies;
+
+import org.javamoney.format.ItemFormatWarmup.Timing;
+import org.javamoney.format.internal.DefaultTokenizeableFormatsSingletonSpi;
+import org.junit.Test;
+
+/**
+ * Tests class for {@link ItemFormatWarmup}.
+ */
+public class ItemFormatWarmupTest {
+
+	private final MonetaryAmount sample = MonetaryAmounts
+			.getDefaultAmountFactory().setCurrency(MonetaryCurrencies.getCurrency("CHF"))
+			.setNumber(new BigDecimal("1234.5")).create();
+
+	@Test
+	public void testTimings() {
+		DefaultTokenizeableFormatsSingletonSpi spi = new DefaultTokenizeableFormatsSingletonSpi();
+		ItemFormatWarmup warmup = new ItemFormatWarmup(spi).add(
+				MonetaryAmount.class, LocalizationStyle.DEFAULT_ID, sample,
+				Locale.GERMANY, Locale.US).add(String.class,
+				LocalizationStyle.DEFAULT_ID, Locale.ENGLISH);
+		assertFalse(warmup.isCompleted());
+		warmup.run();
+		assertTrue(warmup.isCompleted());
+		List<Timing> timings = warmup.getTimings();
+		assertEquals(3, timings.size());
+		assertEquals(Locale.GERMANY, timings.get(0).getLocale());
+		assertEquals(Locale.US, timings.get(1).getLocale());
+		for (int i = 0; i < 2; i++) {
+			Timing timing = timings.get(i);
+			assertEquals(MonetaryAmount.class, timing.getTargetType());
+			assertEquals(LocalizationStyle.DEFAULT_ID, timing.getStyleId());
+			assertNull(timing.getError());
+			assertTrue(timing.getTime(TimeUnit.NANOSECONDS) > 0);
+		}
+		// no factory is registered for String
+		assertEquals(String.class, timings.get(2).getTargetType());
+		assertNotNull(timings.get(2).getError());
+	}
+
+	@Test
+	public void testStartAndAwaitCompletion() throws InterruptedException {
+		ItemFormatWarmup warmup = new ItemFormatWarmup(
+				new DefaultTokenizeableFormatsSingletonSpi()).add(
+				MonetaryAmount.class, LocalizationStyle.DEFAULT_ID, sample,
+				Locale.GERMANY);
+		assertTrue(warmup.start().awaitCompletion(10, TimeUnit.SECONDS));
+		assertTrue(warmup.isCompleted());
+		assertEquals(1, warmup.getTimings().size());
+		assertNull(warmup.getTimings().get(0).getError());
+	}
+
+	@Test
+	public void testAwaitCompletionNotStarted() throws InterruptedException {
+		ItemFormatWarmup warmup = new ItemFormatWarmup(
+				new DefaultTokenizeableFormatsSingletonSpi());
+		assertFalse(warmup.awaitCompletion(10, TimeUnit.MILLISECONDS));
+		assertFalse(warmup.isCompleted());
+	}
+
+	@Test
+	public void testDoubleStart() throws InterruptedException {
+		ItemFormatWarmup warmup = new ItemFormatWarmup(
+				new DefaultTokenizeableFormatsSingletonSpi()).add(
+				MonetaryAmount.class, LocalizationStyle.DEFAULT_ID,
+				Locale.GERMANY);
+		warmup.start();
+		try {
+			warmup.start();
+			fail("IllegalStateException expected.");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			warmup.run();
+			fail("IllegalStateException expected.");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			warmup.add(MonetaryAmount.class, LocalizationStyle.DEFAULT_ID,
+					Locale.US);
+			fail("IllegalStateException expected.");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertTrue(warmup.awaitCompletion(10, TimeUnit.SECONDS));
+		assertEquals(1, warmup.getTimings().size());
+	}
+
+	@Test
+	public void testPrecompiledSharedWithOtherThreads()
+			throws InterruptedException {
+		final DefaultTokenizeableFormatsSingletonSpi spi = new DefaultTokenizeableFormatsSingletonSpi();
+		final LocalizationStyle style = spi.getLocalizationStyle(
+				MonetaryAmount.class, LocalizationStyle.DEFAULT_ID);
+		assertFalse(spi.isPrecompiled(MonetaryAmount.class, style));
+		new ItemFormatWarmup(spi).add(MonetaryAmount.class,
+				LocalizationStyle.DEFAULT_ID, sample, Locale.GERMANY).run();
+		assertTrue(spi.isPrecompiled(MonetaryAmount.class, style));
+		final ItemFormat<MonetaryAmount> local = spi.getItemFormat(
+				MonetaryAmount.class, style);
+		final AtomicReference<ItemFormat<MonetaryAmount>> other = new AtomicReference<ItemFormat<MonetaryAmount>>();
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				other.set(spi.getItemFormat(MonetaryAmount.class, style));
+			}
+		});
+		thread.start();
+		thread.join();
+		assertNotNull(other.get());
+		assertNotSame(local, other.get());
+		assertEquals(local.getClass(), other.get().getClass());
+		spi.reload();
+		assertTrue(spi.isPrecompiled(MonetaryAmount.class, style));
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Tests class for {@link ItemStreamParser}.
+ */
+public class ItemStreamParserTest {
+
+	@Test
+	public void testParseLines() throws IOException, ItemParseException {
+		ItemStreamParser<String> parser = new ItemStreamParser<String>(
+				new WordFormat(), Locale.ENGLISH);
+		CollectingSink sink = new CollectingSink();
+		assertEquals(4, parser.parse(new StringReader("a\r\nbb\n\n ccc \nd"),
+				sink));
+		assertEquals(Arrays.asList("a", "bb", "ccc", "d"), sink.items);
+	}
+
+	@Test
+	public void testParseFieldDelimiter() throws IOException,
+			ItemParseException {
+		ItemStreamParser<String> parser = new ItemStreamParser<String>(
+				new WordFormat(), Locale.ENGLISH).setFieldDelimiter(';');
+		CollectingSink sink = new CollectingSink();
+		assertEquals(5, parser.parse(new StringReader("a;b;c\nd;e\n"), sink));
+		assertEquals(Arrays.asList("a", "b", "c", "d", "e"), sink.items);
+	}
+
+	@Test
+	public void testParseTokensExceedingBuffer() throws IOException,
+			ItemParseException {
+		ItemStreamParser<String> parser = new ItemStreamParser<String>(
+				new WordFormat(), Locale.ENGLISH).setBufferSize(3);
+		CollectingSink sink = new CollectingSink();
+		parser.parse(new StringReader("abcdefgh\nij\nklmnopqrstu"), sink);
+		assertEquals(Arrays.asList("abcdefgh", "ij", "klmnopqrstu"),
+				sink.items);
+		// the parser is reusable
+		sink.items.clear();
+		parser.parse(new StringReader("xy\nz"), sink);
+		assertEquals(Arrays.asList("xy", "z"), sink.items);
+	}
+
+	@Test
+	public void testParseChannel() throws IOException, ItemParseException {
+		ItemStreamParser<String> parser = new ItemStreamParser<String>(
+				new WordFormat(), Locale.ENGLISH);
+		CollectingSink sink = new CollectingSink();
+		Charset utf8 = Charset.forName("UTF-8");
+		parser.parse(Channels.newChannel(new ByteArrayInputStream(
+				"€\nCHF".getBytes(utf8))), utf8, sink);
+		assertEquals(Arrays.asList("€", "CHF"), sink.items);
+	}
+
+	@Test
+	public void testSkipUnparseable() throws IOException, ItemParseException {
+		ItemStreamParser<String> parser = new ItemStreamParser<String>(
+				new WordFormat(), Locale.ENGLISH).setSkipUnparseable(true);
+		CollectingSink sink = new CollectingSink();
+		assertEquals(2, parser.parse(new StringReader("a\n1\nb"), sink));
+		assertEquals(1, parser.getErrorCount());
+		assertEquals(Arrays.asList("a", "b"), sink.items);
+	}
+
+	@Test
+	public void testFailOnUnparseable() throws IOException {
+		ItemStreamParser<String> parser = new ItemStreamParser<String>(
+				new WordFormat(), Locale.ENGLISH);
+		try {
+			parser.parse(new StringReader("a\n1\nb"), new CollectingSink());
+			fail("ItemParseException expected.");
+		} catch (ItemParseException e) {
+			// expected
+		}
+	}
+
+	private static final class CollectingSink implements ItemSink<String> {
+		private final List<String> items = new ArrayList<String>();
+
+		@Override
+		public void accept(String item) {
+			items.add(item);
+		}
+	}
+
+	/**
+	 * Format accepting any input not containing digits.
+	 */
+	private static final class WordFormat implements ItemFormat<String> {
+
+		@Override
+		public Class<String> getTargetClass() {
+			return String.class;
+		}
+
+		@Override
+		public LocalizationStyle getStyle() {
+			return new LocalizationStyle.Builder(String.class).build();
+		}
+
+		@Override
+		public String format(String item, Locale locale) {
+			return item;
+		}
+
+		@Override
+		public void print(Appendable appendable, String item, Locale locale)
+				throws IOException {
+			appendable.append(item);
+		}
+
+		@Override
+		public String parse(CharSequence text, Locale locale)
+				throws ItemParseException {
+			for (int i = 0; i < text.length(); i++) {
+				if (Character.isDigit(text.charAt(i))) {
+					throw new ItemParseException("Unexpected digit: " + text);
+				}
+			}
+			return text.toString();
+		}
+	}
+
+}
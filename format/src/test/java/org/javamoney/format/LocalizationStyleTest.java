@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+public class LocalizationStyleTest {
+
+	/** Target type only used by {@link #testOf()}. */
+	private static final class Styled {
+	}
+
+	/** Target type with a "short" style only. */
+	private static final class OtherStyled {
+	}
+
+	/** Target type only used by {@link #testSupportedStyleIdsLive()}. */
+	private static final class LiveStyled {
+	}
+
+	/** Target type only used by {@link #testSupportedStyleIdsUnregistered()}. */
+	private static final class LaterStyled {
+	}
+
+	@Test
+	public void testOf() {
+		LocalizationStyle defaultStyle = new LocalizationStyle.Builder(
+				Styled.class).build(true);
+		LocalizationStyle shortStyle = new LocalizationStyle.Builder(
+				Styled.class, "short").build(true);
+		LocalizationStyle otherShort = new LocalizationStyle.Builder(
+				OtherStyled.class, "short").build(true);
+		assertSame(defaultStyle, LocalizationStyle.of(Styled.class));
+		assertSame(defaultStyle, LocalizationStyle.of(Styled.class,
+				LocalizationStyle.DEFAULT_ID));
+		assertSame(defaultStyle, LocalizationStyle.of(Styled.class, null));
+		assertSame(shortStyle, LocalizationStyle.of(Styled.class, "short"));
+		assertSame(otherShort, LocalizationStyle.of(OtherStyled.class, "short"));
+		assertNull(LocalizationStyle.of(OtherStyled.class));
+		assertNull(LocalizationStyle.of(Styled.class, "long"));
+		assertNull(LocalizationStyle.of(LaterStyled.class, "short"));
+
+		LocalizationStyle replaced = new LocalizationStyle.Builder(
+				Styled.class, "short").build(true);
+		assertSame(replaced, LocalizationStyle.of(Styled.class, "short"));
+	}
+
+	@Test
+	public void testNotRegistered() {
+		new LocalizationStyle.Builder(OtherStyled.class, "unregistered")
+				.build();
+		assertNull(LocalizationStyle.of(OtherStyled.class, "unregistered"));
+		assertFalse(LocalizationStyle.getSupportedStyleIds(OtherStyled.class)
+				.contains("unregistered"));
+	}
+
+	@Test
+	public void testSupportedStyleIdsLive() {
+		new LocalizationStyle.Builder(LiveStyled.class).build(true);
+		Collection<String> ids = LocalizationStyle
+				.getSupportedStyleIds(LiveStyled.class);
+		assertEquals(new HashSet<String>(
+				Arrays.asList(LocalizationStyle.DEFAULT_ID)),
+				new HashSet<String>(ids));
+		new LocalizationStyle.Builder(LiveStyled.class, "short").build(true);
+		new LocalizationStyle.Builder(LiveStyled.class, "long").build(true);
+		assertEquals(new HashSet<String>(Arrays.asList(
+				LocalizationStyle.DEFAULT_ID, "short", "long")),
+				new HashSet<String>(ids));
+		assertSame(ids, LocalizationStyle.getSupportedStyleIds(LiveStyled.class));
+		try {
+			ids.add("other");
+			fail("UnsupportedOperationException expected.");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testSupportedStyleIdsUnregistered() {
+		Collection<String> ids = LocalizationStyle
+				.getSupportedStyleIds(LaterStyled.class);
+		assertTrue(ids.isEmpty());
+		new LocalizationStyle.Builder(LaterStyled.class, "short").build(true);
+		assertEquals(Arrays.asList("short"), Arrays.asList(ids.toArray()));
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Random;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+import javax.money.MonetaryAmounts;
+import javax.money.MonetaryCurrencies;
+
+/**
+ * Throughput benchmark comparing {@link DefaultAmountFormat}, the general
+ * path, with {@link PlainAmountFormat}, as returned by
+ * {@link DefaultAmountFormatFactory} for the default style. Both format the
+ * same random amounts; the output is compared, so the benchmark also fails on
+ * any difference.
+ * <p>
+ * Run with {@code java -cp <test classpath>
+ * org.javamoney.format.PlainAmountFormatBenchmark [amounts] [rounds] [locale]}.
+ */
+public final class PlainAmountFormatBenchmark {
+
+	private PlainAmountFormatBenchmark() {
+	}
+
+	public static void main(String[] args) {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		Locale locale = args.length > 2 ? Locale.forLanguageTag(args[2])
+				: Locale.GERMANY;
+		MonetaryAmount[] amounts = createAmounts(count);
+		LocalizationStyle style = new LocalizationStyle.Builder(
+				MonetaryAmount.class).build();
+		ItemFormat<MonetaryAmount> general = new DefaultAmountFormat(style);
+		ItemFormat<MonetaryAmount> plain = new PlainAmountFormat(style);
+		for (MonetaryAmount amount : amounts) {
+			if (!general.format(amount, locale).equals(
+					plain.format(amount, locale))) {
+				throw new IllegalStateException("Output differs for "
+						+ amount);
+			}
+		}
+		System.out.println("direct rendering for " + locale + ": "
+				+ PlainAmountFormat.isDirectRendering(locale));
+		for (int i = 0; i < rounds; i++) {
+			long generalNanos = measure(general, amounts, locale);
+			long plainNanos = measure(plain, amounts, locale);
+			System.out.println("round " + i + ": general "
+					+ generalNanos / count + " ns/op, plain " + plainNanos
+					/ count + " ns/op, speedup "
+					+ String.format("%.1f", (double) generalNanos / plainNanos)
+					+ "x");
+		}
+	}
+
+	private static long measure(ItemFormat<MonetaryAmount> format,
+			MonetaryAmount[] amounts, Locale locale) {
+		long start = System.nanoTime();
+		int length = 0;
+		for (MonetaryAmount amount : amounts) {
+			length += format.format(amount, locale).length();
+		}
+		long nanos = System.nanoTime() - start;
+		if (length == 0) {
+			throw new IllegalStateException();
+		}
+		return nanos;
+	}
+
+	private static MonetaryAmount[] createAmounts(int count) {
+		Random random = new Random(42L);
+		String[] codes = new String[] { "CHF", "EUR", "USD", "JPY" };
+		MonetaryAmount[] amounts = new MonetaryAmount[count];
+		for (int i = 0; i < count; i++) {
+			CurrencyUnit currency = MonetaryCurrencies.getCurrency(codes[i
+					% codes.length]);
+			amounts[i] = MonetaryAmounts
+					.getDefaultAmountFactory()
+					.setCurrency(currency)
+					.setNumber(
+							BigDecimal.valueOf(random.nextInt(100000000) - 1000000,
+									2)).create();
+		}
+		return amounts;
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Random;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+import javax.money.MonetaryAmounts;
+import javax.money.MonetaryCurrencies;
+import javax.money.format.MonetaryAmountFormat;
+import javax.money.format.MonetaryFormats;
+
+import org.junit.Test;
+
+/**
+ * Tests class for {@link PlainAmountFormat}, comparing its output with the
+ * general path, {@link DefaultAmountFormat}.
+ */
+public class PlainAmountFormatTest {
+
+	private static final Locale[] LOCALES = new Locale[] { Locale.ENGLISH,
+			Locale.US, Locale.UK, Locale.GERMANY, Locale.FRANCE,
+			new Locale("de", "CH"), Locale.ITALY, Locale.JAPAN,
+			new Locale("ar", "EG"), new Locale("hi", "IN") };
+
+	private static final String[] CURRENCIES = new String[] { "CHF", "JPY",
+			"USD", "EUR", "BHD", "GBP" };
+
+	private final LocalizationStyle style = new LocalizationStyle.Builder(
+			MonetaryAmount.class).build();
+
+	@Test
+	public void testMatchesGeneralPath() {
+		Random random = new Random(42L);
+		PlainAmountFormat format = new PlainAmountFormat(style);
+		DefaultAmountFormat general = new DefaultAmountFormat(style);
+		for (Locale locale : LOCALES) {
+			for (String code : CURRENCIES) {
+				CurrencyUnit currency = MonetaryCurrencies.getCurrency(code);
+				for (int i = 0; i < 200; i++) {
+					long unscaled = createValue(random, i);
+					int scale = random.nextInt(6);
+					MonetaryAmount amount = createAmount(currency,
+							BigDecimal.valueOf(unscaled, scale));
+					String expected = general.format(amount, locale);
+					assertEquals(expected, format.format(amount, locale));
+					StringBuilder b = new StringBuilder();
+					format.appendTo(b, currency, unscaled, scale, locale);
+					assertEquals(expected, b.toString());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testMatchesGeneralPathForAllCurrencies() {
+		PlainAmountFormat format = new PlainAmountFormat(style);
+		DefaultAmountFormat general = new DefaultAmountFormat(style);
+		String[] numbers = new String[] { "0", "1234567.891", "-0.5",
+				"-98765.4321" };
+		for (Currency jdkCurrency : Currency.getAvailableCurrencies()) {
+			CurrencyUnit currency = MonetaryCurrencies.getCurrency(jdkCurrency
+					.getCurrencyCode());
+			for (Locale locale : LOCALES) {
+				for (String number : numbers) {
+					MonetaryAmount amount = createAmount(currency,
+							new BigDecimal(number));
+					assertEquals(currency + " " + locale,
+							general.format(amount, locale),
+							format.format(amount, locale));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRoundingMatchesGeneralPath() {
+		PlainAmountFormat format = new PlainAmountFormat(style);
+		DefaultAmountFormat general = new DefaultAmountFormat(style);
+		String[] numbers = new String[] { "0.125", "0.135", "-0.125",
+				"1234567", "-0.001", "0", "0.5", "1.5", "2.5",
+				"92233720368547758.07", "9223372036854775807",
+				"123456789012345678901.235" };
+		for (Locale locale : LOCALES) {
+			for (String code : CURRENCIES) {
+				CurrencyUnit currency = MonetaryCurrencies.getCurrency(code);
+				for (String number : numbers) {
+					MonetaryAmount amount = createAmount(currency,
+							new BigDecimal(number));
+					assertEquals(general.format(amount, locale),
+							format.format(amount, locale));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testParseMatchesGeneralPath() throws ItemParseException {
+		PlainAmountFormat format = new PlainAmountFormat(style);
+		DefaultAmountFormat general = new DefaultAmountFormat(style);
+		String[] numbers = new String[] { "0", "1234567.89", "-12.5",
+				"-98765432109876543210.12" };
+		for (Locale locale : LOCALES) {
+			for (String code : CURRENCIES) {
+				CurrencyUnit currency = MonetaryCurrencies.getCurrency(code);
+				for (String number : numbers) {
+					String text = general.format(
+							createAmount(currency, new BigDecimal(number)),
+							locale);
+					MonetaryAmount expected = general.parse(text, locale);
+					MonetaryAmount parsed = format.parse(text, locale);
+					assertEquals(text, expected.getCurrency(),
+							parsed.getCurrency());
+					assertEquals(text, 0,
+							expected.getNumber().numberValue(BigDecimal.class)
+									.compareTo(parsed.getNumber()
+											.numberValue(BigDecimal.class)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFactoryReturnsPlainFormatForDefaultStyle() {
+		DefaultAmountFormatFactory factory = new DefaultAmountFormatFactory();
+		assertTrue(factory.getItemFormat(factory.getLocalizationStyle(
+				MonetaryAmount.class, LocalizationStyle.DEFAULT_ID)) instanceof PlainAmountFormat);
+		LocalizationStyle custom = new LocalizationStyle.Builder(
+				MonetaryAmount.class).setAttribute(MonetaryAmountFormat.class,
+				MonetaryFormats.getAmountFormat(Locale.ENGLISH)).build();
+		assertTrue(factory.getItemFormat(custom) instanceof DefaultAmountFormat);
+	}
+
+	@Test(expected = ItemFormatException.class)
+	public void testInvalidStyle() {
+		new PlainAmountFormat(new LocalizationStyle.Builder(
+				MonetaryAmount.class).setAttribute(MonetaryAmountFormat.class,
+				MonetaryFormats.getAmountFormat(Locale.ENGLISH)).build());
+	}
+
+	private static long createValue(Random random, int i) {
+		switch (i % 4) {
+		case 0:
+			return random.nextInt(1000) - 500;
+		case 1:
+			return random.nextLong();
+		case 2:
+			return random.nextInt();
+		default:
+			return Long.MIN_VALUE + random.nextInt(3);
+		}
+	}
+
+	private static MonetaryAmount createAmount(CurrencyUnit currency,
+			BigDecimal number) {
+		return MonetaryAmounts.getDefaultAmountFactory().setCurrency(currency)
+				.setNumber(number).create();
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryCurrencies;
+
+import org.javamoney.format.ItemFormat;
+import org.javamoney.format.LocalizationStyle;
+import org.junit.Test;
+
+/**
+ * Tests class for the format cache of
+ * {@link DefaultTokenizeableFormatsSingletonSpi}.
+ */
+public class DefaultTokenizeableFormatsSingletonSpiTest {
+
+	private final CurrencyUnit usd = MonetaryCurrencies.getCurrency("USD");
+
+	private final LocalizationStyle codeStyle = new LocalizationStyle.Builder(
+			CurrencyUnit.class, "CODE").build();
+
+	private final LocalizationStyle symbolStyle = new LocalizationStyle.Builder(
+			CurrencyUnit.class, "SYMBOL").build();
+
+	@Test
+	public void testStylesDifferingByIdOnly() {
+		DefaultTokenizeableFormatsSingletonSpi spi = new DefaultTokenizeableFormatsSingletonSpi();
+		// the styles are equal, since only their attributes are compared
+		assertEquals(codeStyle, symbolStyle);
+		ItemFormat<CurrencyUnit> code = spi.getItemFormat(CurrencyUnit.class,
+				codeStyle);
+		ItemFormat<CurrencyUnit> symbol = spi.getItemFormat(
+				CurrencyUnit.class, symbolStyle);
+		assertNotSame(code, symbol);
+		assertEquals("USD", code.format(usd, Locale.US));
+		assertEquals("$", symbol.format(usd, Locale.US));
+		assertSame(code, spi.getItemFormat(CurrencyUnit.class, codeStyle));
+		assertSame(symbol, spi.getItemFormat(CurrencyUnit.class, symbolStyle));
+	}
+
+	@Test
+	public void testPrecompileByStyleId() {
+		DefaultTokenizeableFormatsSingletonSpi spi = new DefaultTokenizeableFormatsSingletonSpi();
+		ItemFormat<CurrencyUnit> code = spi.precompile(CurrencyUnit.class,
+				codeStyle);
+		assertEquals("USD", code.format(usd, Locale.US));
+		assertTrue(spi.isPrecompiled(CurrencyUnit.class, codeStyle));
+		assertFalse(spi.isPrecompiled(CurrencyUnit.class, symbolStyle));
+		assertEquals("$", spi.getItemFormat(CurrencyUnit.class, symbolStyle)
+				.format(usd, Locale.US));
+	}
+
+	@Test
+	public void testCacheCounters() {
+		DefaultTokenizeableFormatsSingletonSpi spi = new DefaultTokenizeableFormatsSingletonSpi();
+		assertEquals(0, spi.getCacheHitCount());
+		assertEquals(0, spi.getCacheMissCount());
+		ItemFormat<CurrencyUnit> format = spi.getItemFormat(
+				CurrencyUnit.class, codeStyle);
+		assertEquals(0, spi.getCacheHitCount());
+		assertEquals(1, spi.getCacheMissCount());
+		assertSame(format, spi.getItemFormat(CurrencyUnit.class, codeStyle));
+		assertSame(format, spi.getItemFormat(CurrencyUnit.class, codeStyle));
+		assertEquals(2, spi.getCacheHitCount());
+		assertEquals(1, spi.getCacheMissCount());
+	}
+
+	@Test
+	public void testCacheCountersOfOtherThreads() throws InterruptedException {
+		final DefaultTokenizeableFormatsSingletonSpi spi = new DefaultTokenizeableFormatsSingletonSpi();
+		spi.getItemFormat(CurrencyUnit.class, codeStyle);
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				spi.getItemFormat(CurrencyUnit.class, codeStyle);
+				spi.getItemFormat(CurrencyUnit.class, codeStyle);
+			}
+		};
+		thread.start();
+		thread.join();
+		assertEquals(1, spi.getCacheHitCount());
+		assertEquals(2, spi.getCacheMissCount());
+		// registering another thread retires the terminated one
+		Thread other = new Thread() {
+			@Override
+			public void run() {
+				spi.getItemFormat(CurrencyUnit.class, symbolStyle);
+			}
+		};
+		other.start();
+		other.join();
+		assertEquals(1, spi.getCacheHitCount());
+		assertEquals(3, spi.getCacheMissCount());
+	}
+
+	@Test
+	public void testReload() {
+		DefaultTokenizeableFormatsSingletonSpi spi = new DefaultTokenizeableFormatsSingletonSpi();
+		ItemFormat<CurrencyUnit> format = spi.getItemFormat(
+				CurrencyUnit.class, codeStyle);
+		spi.getItemFormat(CurrencyUnit.class, codeStyle);
+		spi.reload();
+		assertEquals(0, spi.getCacheHitCount());
+		assertEquals(0, spi.getCacheMissCount());
+		assertNotSame(format, spi.getItemFormat(CurrencyUnit.class, codeStyle));
+		assertEquals(0, spi.getCacheHitCount());
+		assertEquals(1, spi.getCacheMissCount());
+	}
+
+	@Test
+	public void testCacheSizeLimit() {
+		DefaultTokenizeableFormatsSingletonSpi spi = new DefaultTokenizeableFormatsSingletonSpi();
+		int size = DefaultTokenizeableFormatsSingletonSpi.MAX_CACHE_SIZE;
+		for (int i = 0; i < size; i++) {
+			spi.getItemFormat(CurrencyUnit.class, style(i));
+		}
+		spi.getItemFormat(CurrencyUnit.class, style(0));
+		assertEquals(1, spi.getCacheHitCount());
+		spi.getItemFormat(CurrencyUnit.class, style(size));
+		spi.getItemFormat(CurrencyUnit.class, style(size));
+		assertEquals(1, spi.getCacheHitCount());
+		assertEquals(size + 2, spi.getCacheMissCount());
+	}
+
+	private static LocalizationStyle style(int i) {
+		return new LocalizationStyle.Builder(CurrencyUnit.class, "CODE")
+				.setAttribute("index", i).build();
+	}
+
+}
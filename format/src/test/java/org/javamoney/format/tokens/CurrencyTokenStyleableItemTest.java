@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format.tokens;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryCurrencies;
+
+import org.javamoney.format.DefaultParseResultFactory;
+import org.javamoney.format.ItemFormat;
+import org.javamoney.format.ItemParseContext;
+import org.javamoney.format.ItemParseException;
+import org.javamoney.format.LocalizationStyle;
+import org.javamoney.format.TestTokenizeableFormatsSpi;
+import org.junit.Test;
+
+public class CurrencyTokenStyleableItemTest {
+
+	private final LocalizationStyle style = new LocalizationStyle.Builder(
+			CurrencyUnit.class).build();
+
+	@Test
+	public void testParseSymbol() throws ItemParseException {
+		ItemParseContext<CurrencyUnit> ctx = createContext("€ 1.234,56");
+		new CurrencyTokenStyleableItem().setDisplayType(
+				CurrencyTokenStyleableItem.DisplayType.SYMBOL).parse(ctx,
+				Locale.GERMANY, style);
+		assertEquals("EUR", ctx.getItem().getCurrencyCode());
+		assertEquals(1, ctx.getIndex());
+	}
+
+	@Test
+	public void testParseCode() throws ItemParseException {
+		ItemParseContext<CurrencyUnit> ctx = createContext("CHF 100");
+		new CurrencyTokenStyleableItem().parse(ctx, Locale.ENGLISH, style);
+		assertEquals("CHF", ctx.getItem().getCurrencyCode());
+		assertEquals(3, ctx.getIndex());
+	}
+
+	@Test
+	public void testParsePluralName() throws ItemParseException {
+		ItemParseContext<CurrencyUnit> ctx = createContext("1,234.56 US dollars");
+		ctx.setIndex(8);
+		new CurrencyTokenStyleableItem().setDisplayType(
+				CurrencyTokenStyleableItem.DisplayType.NAME).parse(ctx,
+				Locale.US, style);
+		assertEquals("USD", ctx.getItem().getCurrencyCode());
+		assertEquals(true, ctx.isFullyParsed());
+	}
+
+	@Test
+	public void testParseNumericCode() throws ItemParseException {
+		ItemParseContext<CurrencyUnit> ctx = createContext("756");
+		new CurrencyTokenStyleableItem().setDisplayType(
+				CurrencyTokenStyleableItem.DisplayType.NUMERIC_CODE).parse(
+				ctx, Locale.ENGLISH, style);
+		assertEquals("CHF", ctx.getItem().getCurrencyCode());
+	}
+
+	@Test
+	public void testParseUnknown() {
+		ItemParseContext<CurrencyUnit> ctx = createContext("756");
+		try {
+			new CurrencyTokenStyleableItem().parse(ctx, Locale.ENGLISH, style);
+			fail("ItemParseException expected.");
+		} catch (ItemParseException e) {
+			assertEquals(0, ctx.getErrorIndex());
+		}
+	}
+
+	@Test
+	public void testSubFormatReused() {
+		final List<LocalizationStyle> resolved = new ArrayList<LocalizationStyle>();
+		CurrencyTokenStyleableItem item = new CurrencyTokenStyleableItem() {
+			@SuppressWarnings("unchecked")
+			@Override
+			protected ItemFormat<CurrencyUnit> createSubFormat(
+					LocalizationStyle subStyle) {
+				resolved.add(subStyle);
+				return new TestTokenizeableFormatsSpi.DummyItemFormatter(
+						subStyle, CurrencyUnit.class);
+			}
+		}.setDisplayType(CurrencyTokenStyleableItem.DisplayType.SYMBOL);
+		CurrencyUnit usd = MonetaryCurrencies.getCurrency("USD");
+		CurrencyUnit eur = MonetaryCurrencies.getCurrency("EUR");
+		assertEquals(String.valueOf(usd),
+				item.getToken(usd, Locale.US, style));
+		assertEquals(String.valueOf(eur),
+				item.getToken(eur, Locale.US, style));
+		item.getToken(usd, Locale.GERMANY, style);
+		item.getToken(usd, Locale.US, style);
+		assertEquals(1, resolved.size());
+		assertEquals("symbol",
+				resolved.get(0).getAttribute("renderField", String.class));
+
+		LocalizationStyle other = new LocalizationStyle.Builder(
+				CurrencyUnit.class).setAttribute("test", "other").build();
+		item.getToken(usd, Locale.US, other);
+		item.getToken(eur, Locale.US, other);
+		item.getToken(usd, Locale.US, style);
+		assertEquals(2, resolved.size());
+
+		item.setDisplayType(CurrencyTokenStyleableItem.DisplayType.NAME);
+		item.getToken(usd, Locale.US, style);
+		item.getToken(eur, Locale.GERMANY, style);
+		assertEquals(3, resolved.size());
+		assertEquals("displayName",
+				resolved.get(2).getAttribute("renderField", String.class));
+	}
+
+	private ItemParseContext<CurrencyUnit> createContext(String text) {
+		return new ItemParseContext<CurrencyUnit>(text,
+				new DefaultParseResultFactory<CurrencyUnit>(CurrencyUnit.class));
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.format.tokens;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.javamoney.format.LocalizationStyle;
+import org.junit.Test;
+
+public class TranslatedLiteralTokenStyleableItemTest {
+
+	private static final String BUNDLE = Literals.class.getName();
+
+	/** The number of lookups on the test bundles. */
+	private static final AtomicInteger LOOKUPS = new AtomicInteger();
+
+	private final LocalizationStyle style = new LocalizationStyle.Builder(
+			String.class).build();
+
+	/**
+	 * Base class of the test bundles, counting the lookups.
+	 */
+	public abstract static class CountingBundle extends ResourceBundle {
+		private final Map<String, String> entries = new HashMap<String, String>();
+
+		protected CountingBundle(String... keysAndValues) {
+			for (int i = 0; i < keysAndValues.length; i += 2) {
+				entries.put(keysAndValues[i], keysAndValues[i + 1]);
+			}
+		}
+
+		@Override
+		protected Object handleGetObject(String key) {
+			LOOKUPS.incrementAndGet();
+			return entries.get(key);
+		}
+
+		@Override
+		public Enumeration<String> getKeys() {
+			return Collections.enumeration(entries.keySet());
+		}
+	}
+
+	public static final class Literals extends CountingBundle {
+		public Literals() {
+			super("greeting", "Hello", "farewell", "Goodbye");
+		}
+	}
+
+	public static final class Literals_de extends CountingBundle {
+		public Literals_de() {
+			super("greeting", "Hallo");
+		}
+	}
+
+	@Test
+	public void testTranslationCachedPerLocale() {
+		TranslatedLiteralTokenStyleableItem<String> item = new TranslatedLiteralTokenStyleableItem<String>(
+				"greeting", BUNDLE);
+		int initial = LOOKUPS.get();
+		assertEquals("Hallo", item.getToken("x", Locale.GERMAN, style));
+		assertEquals("Hello", item.getToken("x", Locale.ROOT, style));
+		int lookups = LOOKUPS.get();
+		assertTrue(lookups > initial);
+		for (int i = 0; i < 10; i++) {
+			assertEquals("Hallo", item.getToken("x", Locale.GERMAN, style));
+			assertEquals("Hello", item.getToken("x", Locale.ROOT, style));
+		}
+		assertEquals(lookups, LOOKUPS.get());
+	}
+
+	@Test
+	public void testMissingTranslationCached() {
+		TranslatedLiteralTokenStyleableItem<String> item = new TranslatedLiteralTokenStyleableItem<String>(
+				"missing", BUNDLE);
+		assertEquals("missing", item.getToken("x", Locale.GERMAN, style));
+		int lookups = LOOKUPS.get();
+		assertEquals("missing", item.getToken("x", Locale.GERMAN, style));
+		assertEquals(lookups, LOOKUPS.get());
+
+		TranslatedLiteralTokenStyleableItem<String> unknownBundle = new TranslatedLiteralTokenStyleableItem<String>(
+				"greeting", "org.javamoney.format.tokens.UnknownBundle");
+		assertEquals("greeting",
+				unknownBundle.getToken("x", Locale.GERMAN, style));
+		assertEquals("greeting",
+				unknownBundle.getToken("x", Locale.GERMAN, style));
+	}
+
+	@Test
+	public void testPreload() {
+		TranslatedLiteralTokenStyleableItem<String> item = new TranslatedLiteralTokenStyleableItem<String>(
+				"greeting", BUNDLE);
+		assertEquals(item, item.preload(Locale.GERMAN, Locale.ROOT));
+		int lookups = LOOKUPS.get();
+		assertEquals("Hallo", item.getToken("x", Locale.GERMAN, style));
+		assertEquals("Hello", item.getToken("x", Locale.ROOT, style));
+		assertEquals(lookups, LOOKUPS.get());
+		item.preload(Locale.GERMAN);
+		assertEquals(lookups, LOOKUPS.get());
+		item.preload();
+		assertEquals(lookups, LOOKUPS.get());
+	}
+
+	@Test
+	public void testPreloadNull() {
+		try {
+			new TranslatedLiteralTokenStyleableItem<String>("greeting", BUNDLE)
+					.preload((Locale[]) null);
+			fail("IllegalArgumentException expected.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testCacheClearedOnChange() {
+		TranslatedLiteralTokenStyleableItem<String> item = new TranslatedLiteralTokenStyleableItem<String>(
+				"greeting", BUNDLE).preload(Locale.GERMAN);
+		assertEquals("Hallo", item.getToken("x", Locale.GERMAN, style));
+		item.setKey("farewell");
+		assertEquals("Goodbye", item.getToken("x", Locale.GERMAN, style));
+		item.setBundle("org.javamoney.format.tokens.UnknownBundle");
+		assertEquals("farewell", item.getToken("x", Locale.GERMAN, style));
+		item.setBundle(BUNDLE).setKey("greeting");
+		assertEquals("Hallo", item.getToken("x", Locale.GERMAN, style));
+	}
+
+	@Test
+	public void testWithoutBundle() {
+		TranslatedLiteralTokenStyleableItem<String> item = new TranslatedLiteralTokenStyleableItem<String>(
+				"greeting");
+		assertEquals("greeting", item.getToken("x", Locale.GERMAN, style));
+		assertEquals("greeting", item.preload(Locale.GERMAN).getToken("x",
+				Locale.GERMAN, style));
+	}
+
+}
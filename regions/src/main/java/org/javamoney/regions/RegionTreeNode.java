@@ -12,6 +12,7 @@ package org.javamoney.regions;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.List;
 
 import org.javamoney.calc.function.MonetaryPredicate;
 
@@ -98,4 +99,16 @@ public interface RegionTreeNode {
 	 */
 	public RegionTreeNode getRegionTree(String path);
 
+	/**
+	 * Resolves several paths relative to this node at once, see
+	 * {@link #getRegionTree(String)}.
+	 * 
+	 * @param paths
+	 *            the paths, not {@code null}.
+	 * @return the nodes found, in the order of the paths, containing
+	 *         {@code null} for {@code null} paths and for paths not
+	 *         resolvable.
+	 */
+	public List<RegionTreeNode> resolveAll(Collection<String> paths);
+
 }
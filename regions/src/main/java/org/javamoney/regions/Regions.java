@@ -62,9 +62,8 @@ public final class Regions {
 	 *            the region type, not null.
 	 * @param code
 	 *            the region code, not null.
-	 * @return the region found.
-	 * @throws IllegalArgumentException
-	 *             if the required {@link Region} is not available.
+	 * @return the region found, or {@code null}, if the required
+	 *         {@link Region} is not available.
 	 */
 	public static Region getRegion(RegionType type, String code) {
 		return REGION_SPI.getRegion(type, code);
@@ -77,10 +76,8 @@ public final class Regions {
 	 *            the region type, not null.
 	 * @param code
 	 *            the numeric region code, not null.
-	 * @return the region found.
-	 * @throws IllegalArgumentException
-	 *             if the required {@link Region} is not available, or
-	 *             ambiguous.
+	 * @return the region found, or {@code null}, if the required
+	 *         {@link Region} is not available.
 	 */
 	public static Region getRegion(RegionType type, int code) {
 		return REGION_SPI.getRegion(type, code);
@@ -15,10 +15,18 @@
  */
 package org.javamoney.regions.internal;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Singleton;
 import javax.money.spi.Bootstrap;
@@ -26,6 +34,7 @@ import javax.money.spi.Bootstrap;
 import org.javamoney.regions.Region;
 import org.javamoney.regions.RegionTreeNode;
 import org.javamoney.regions.RegionType;
+import org.javamoney.regions.internal.data.ICURegionProvider;
 import org.javamoney.regions.spi.ExtendedRegionDataProviderSpi;
 import org.javamoney.regions.spi.RegionProviderSpi;
 import org.javamoney.regions.spi.RegionTreeProviderSpi;
@@ -38,6 +47,24 @@ import org.slf4j.LoggerFactory;
  * method used by the {@link RegionsSingletonSpi} implementation. It is extended
  * for different runtime scenarios, hereby allowing the spi implementation
  * loaded using different mechanisms.
+ * <p>
+ * The providers are resolved from the {@link Bootstrap} once into a dispatch
+ * table, keeping the order returned by the {@link Bootstrap} as priority. The
+ * regions listed by the providers are indexed by type and code when the
+ * providers are loaded. Types provided by a provider that is not indexed on
+ * init, see {@link #isIndexedOnInit(RegionProviderSpi)}, are listed and
+ * indexed on the first call of {@link #getRegions(RegionType)} for their type
+ * instead. Lookups not covered by the index are dispatched to the providers,
+ * and their
+ * results, including misses up to a bounded cache size, are cached. Misses
+ * return {@code null} instead of throwing an exception; a provider failing
+ * with an exception is treated as a miss of that provider. Tree providers not
+ * yet initialized are initialized with the region providers on first access
+ * of their tree. The extended data types of a region are resolved once per
+ * region, together with the provider serving each type. Call
+ * {@link #reload()} to resolve the providers again.
+ * Subclasses may override {@link #loadServices(Class)} for loading the
+ * providers using a different mechanism.
  * 
  * @author Anatole Tresch
  * @author Werner Keil
@@ -48,7 +75,90 @@ public class DefaultRegionsSingleton implements RegionsSingletonSpi{
 	private static final Logger LOG = LoggerFactory
 			.getLogger(DefaultRegionsSingleton.class);
 
-	
+	/** Marker cached for lookups without result. */
+	private static final Object NO_REGION = new Object();
+
+	/** The maximal size of a lookup cache, up to which misses are cached. */
+	private static final int MAX_CACHE_SIZE = 4096;
+
+	/** The current dispatch table. */
+	private volatile Dispatch dispatch;
+
+	/**
+	 * Creates a new instance, hereby loading the providers.
+	 */
+	public DefaultRegionsSingleton() {
+		reload();
+	}
+
+	/**
+	 * Resolves the providers from the {@link Bootstrap} again and rebuilds
+	 * the index. All cached lookup results are discarded.
+	 */
+	public void reload() {
+		Dispatch d = new Dispatch(getServices(RegionProviderSpi.class),
+				getServices(RegionTreeProviderSpi.class),
+				getServices(ExtendedRegionDataProviderSpi.class));
+		for (RegionType type : d.regionTypes) {
+			if (isIndexedOnInit(d, type)) {
+				d.getRegions(type);
+			}
+		}
+		this.dispatch = d;
+	}
+
+	private boolean isIndexedOnInit(Dispatch d, RegionType type) {
+		for (RegionProviderSpi prov : d.regionProviders) {
+			if (!isIndexedOnInit(prov)) {
+				try {
+					Collection<RegionType> provTypes = prov.getRegionTypes();
+					if (provTypes != null && provTypes.contains(type)) {
+						return false;
+					}
+				} catch (Exception e) {
+					LOG.error("Error accessing RegionProviderSpi: "
+							+ prov.getClass().getName(), e);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the regions of the given provider are listed and indexed when
+	 * the providers are loaded. Types also provided by a provider not indexed
+	 * on init are indexed on first listing. By default all providers are
+	 * indexed on init, except the {@link ICURegionProvider}, which wraps its
+	 * regions on demand.
+	 * 
+	 * @param provider
+	 *            the provider, not {@code null}.
+	 * @return {@code true}, if the provider's regions are indexed on init.
+	 */
+	protected boolean isIndexedOnInit(RegionProviderSpi provider) {
+		return !(provider instanceof ICURegionProvider);
+	}
+
+	private <T> List<T> getServices(Class<T> type) {
+		Collection<T> services = loadServices(type);
+		if (services == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(new ArrayList<T>(services));
+	}
+
+	/**
+	 * Loads the providers of the given type, by default from the
+	 * {@link Bootstrap}. This method is called by the constructor and by
+	 * {@link #reload()}.
+	 * 
+	 * @param type
+	 *            the provider type, not {@code null}.
+	 * @return the providers, in order of priority, or {@code null}.
+	 */
+	protected <T> Collection<T> loadServices(Class<T> type) {
+		return Bootstrap.getServices(type);
+	}
 
 	/**
 	 * Access a {@link Region} by {@link RegionType} and its numeric id.
@@ -57,20 +167,36 @@ public class DefaultRegionsSingleton implements RegionsSingletonSpi{
 	 *            The region's type
 	 * @param numericId
 	 *            the region's numeric id
-	 * @return the region found, never {@code null}
-	 * @throws IllegalArgumentException
-	 *             , if no such region could be found.
+	 * @return the region found, or {@code null}.
 	 */
 	@Override
 	public Region getRegion(RegionType type, int numericId) {
-		for (RegionProviderSpi prov : Bootstrap.getServices(RegionProviderSpi.class)) {
-			Region reg = prov.getRegion(type, numericId);
-			if (reg != null) {
-				return reg;
+		if (type == null) {
+			return null;
+		}
+		Dispatch d = this.dispatch;
+		Map<Object, Object> cache = d.getCache(d.numericRegions, type);
+		Object region = cache.get(numericId);
+		if (region == null) {
+			region = NO_REGION;
+			for (RegionProviderSpi prov : d.regionProviders) {
+				Region reg;
+				try {
+					reg = prov.getRegion(type, numericId);
+				} catch (Exception e) {
+					logMiss(prov, type + "/" + numericId, e);
+					continue;
+				}
+				if (reg != null) {
+					region = reg;
+					break;
+				}
+			}
+			if (region != NO_REGION || cache.size() < MAX_CACHE_SIZE) {
+				cache.put(numericId, region);
 			}
 		}
-		throw new IllegalArgumentException("So such reagion " + type + ':'
-				+ numericId);
+		return region == NO_REGION ? null : (Region) region;
 	}
 
 	/**
@@ -80,20 +206,44 @@ public class DefaultRegionsSingleton implements RegionsSingletonSpi{
 	 *            The region's type
 	 * @param code
 	 *            the region's textual id
-	 * @return the region found, never {@code null}
-	 * @throws IllegalArgumentException
-	 *             , if no such region could be found.
+	 * @return the region found, or {@code null}.
 	 */
 	@Override
 	public Region getRegion(RegionType type, String code) {
-		for (RegionProviderSpi prov : Bootstrap.getServices(RegionProviderSpi.class)) {
-			Region reg = prov.getRegion(type, code);
-			if (reg != null) {
-				return reg;
+		if (type == null || code == null) {
+			return null;
+		}
+		Dispatch d = this.dispatch;
+		Map<Object, Object> cache = d.getCache(d.codeRegions, type);
+		Object region = cache.get(code);
+		if (region == null) {
+			region = NO_REGION;
+			for (RegionProviderSpi prov : d.regionProviders) {
+				Region reg;
+				try {
+					reg = prov.getRegion(type, code);
+				} catch (Exception e) {
+					logMiss(prov, type + "/" + code, e);
+					continue;
+				}
+				if (reg != null) {
+					region = reg;
+					break;
+				}
+			}
+			if (region != NO_REGION || cache.size() < MAX_CACHE_SIZE) {
+				cache.put(code, region);
 			}
 		}
-		throw new IllegalArgumentException("So such reagion " + type + ':'
-				+ code);
+		return region == NO_REGION ? null : (Region) region;
+	}
+
+	private static void logMiss(RegionProviderSpi prov, Object key,
+			Exception e) {
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Region lookup failed for " + key + " in "
+					+ prov.getClass().getName() + ", treated as miss.", e);
+		}
 	}
 
 	/**
@@ -105,17 +255,7 @@ public class DefaultRegionsSingleton implements RegionsSingletonSpi{
 	 */
 	@Override
 	public Set<RegionType> getRegionTypes() {
-		Set<RegionType> result = new HashSet<RegionType>();
-		for (RegionProviderSpi prov : Bootstrap.getServices(RegionProviderSpi.class)) {
-			Collection<RegionType> regionTypes = prov.getRegionTypes();
-			if (regionTypes == null || regionTypes.isEmpty()) {
-				LOG.warn("Provider did not provide any regions: "
-						+ prov.getClass().getName());
-			} else {
-				result.addAll(regionTypes);
-			}
-		}
-		return result;
+		return this.dispatch.regionTypes;
 	}
 
 	/**
@@ -127,17 +267,10 @@ public class DefaultRegionsSingleton implements RegionsSingletonSpi{
 	 */
 	@Override
 	public Collection<Region> getRegions(RegionType type) {
-		Set<Region> result = new HashSet<Region>();
-		for (RegionProviderSpi prov : Bootstrap.getServices(RegionProviderSpi.class)) {
-			Collection<Region> regions = prov.getRegions(type);
-			if (regions == null || regions.isEmpty()) {
-				LOG.warn("Provider did not provide any regions: "
-						+ prov.getClass().getName());
-			} else {
-				result.addAll(regions);
-			}
+		if (type == null) {
+			return Collections.emptySet();
 		}
-		return result;
+		return this.dispatch.getRegions(type);
 	}
 
 	/**
@@ -149,13 +282,32 @@ public class DefaultRegionsSingleton implements RegionsSingletonSpi{
 	 */
 	@Override
 	public Region getRegion(Locale locale) {
-		for (RegionProviderSpi prov : Bootstrap.getServices(RegionProviderSpi.class)) {
-			Region region = prov.getRegion(locale);
-			if (region != null) {
-				return region;
+		if (locale == null) {
+			return null;
+		}
+		Dispatch d = this.dispatch;
+		Object region = d.localeRegions.get(locale);
+		if (region == null) {
+			region = NO_REGION;
+			for (RegionProviderSpi prov : d.regionProviders) {
+				Region reg;
+				try {
+					reg = prov.getRegion(locale);
+				} catch (Exception e) {
+					logMiss(prov, locale, e);
+					continue;
+				}
+				if (reg != null) {
+					region = reg;
+					break;
+				}
+			}
+			if (region != NO_REGION
+					|| d.localeRegions.size() < MAX_CACHE_SIZE) {
+				d.localeRegions.put(locale, region);
 			}
 		}
-		return null;
+		return region == NO_REGION ? null : (Region) region;
 	}
 	
 	/**
@@ -166,79 +318,244 @@ public class DefaultRegionsSingleton implements RegionsSingletonSpi{
 	 */
 	@Override
 	public RegionTreeNode getRegionTree(String treeId) {
-		for (RegionTreeProviderSpi prov : Bootstrap.getServices(RegionTreeProviderSpi.class)) {
-			try {
-				if (treeId.equals(prov.getTreeId())) {
-					RegionTreeNode node = prov.getRegionTree();
-					if (node == null) {
-						LOG.error("Error accessing RegionTree: " + treeId
-								+ " from " + prov.getClass().getName()
-								+ ": provider returned null.");
-						return null;
-					}
-					return node;
-				}
-			} catch (Exception e) {
-				LOG.error("Error initializing RegionTreeProviderSpi: "
-						+ prov.getClass().getName(), e);
-			}
+		if (treeId == null) {
+			return null;
 		}
-		return null;
-	}
-
-	/**
-	 * Access all regions.
-	 * 
-	 * @return the regions found, never null.
-	 */
-	private Collection<Region> getAllRegions() {
-		Set<Region> result = new HashSet<Region>();
-		for (RegionProviderSpi prov : Bootstrap.getServices(RegionProviderSpi.class)) {
-			Collection<RegionType> types = prov.getRegionTypes();
-			for (RegionType t : types) {
-				Collection<Region> regions = prov.getRegions(t);
-				if (regions == null || regions.isEmpty()) {
-					LOG.warn("Provider did not provide any regions: "
-							+ prov.getClass().getName());
-				} else {
-					result.addAll(regions);
+		Dispatch d = this.dispatch;
+		RegionTreeNode node = d.trees.get(treeId);
+		if (node != null) {
+			return node;
+		}
+		RegionTreeProviderSpi prov = d.treeProviders.get(treeId);
+		if (prov == null) {
+			return null;
+		}
+		try {
+			synchronized (prov) {
+				node = prov.getRegionTree();
+				if (node == null) {
+					prov.init(d.providersByClass);
+					node = prov.getRegionTree();
 				}
 			}
+		} catch (Exception e) {
+			LOG.error("Error initializing RegionTreeProviderSpi: "
+					+ prov.getClass().getName(), e);
+			return null;
 		}
-		return result;
+		if (node == null) {
+			LOG.error("Error accessing RegionTree: " + treeId + " from "
+					+ prov.getClass().getName() + ": provider returned null.");
+			return null;
+		}
+		d.trees.put(treeId, node);
+		return node;
 	}
 
 	@Override
 	public Collection<Class> getExtendedRegionDataTypes(Region region) {
-		Set<Class> result = new HashSet<>();
-		for(ExtendedRegionDataProviderSpi spi: Bootstrap.getServices(ExtendedRegionDataProviderSpi.class)){
-			result.addAll(spi.getExtendedRegionDataTypes(region));
+		if (region == null) {
+			return Collections.emptySet();
 		}
-		return result;
+		return this.dispatch.getExtendedDataProviders(region).keySet();
 	}
 
 	@Override
 	public <T> T getExtendedRegionData(Region region, Class<T> type) {
-		for(ExtendedRegionDataProviderSpi spi: Bootstrap.getServices(ExtendedRegionDataProviderSpi.class)){
-			if(spi.getExtendedRegionDataTypes(region).contains(type)){
-				return spi.getExtendedRegionData(region, type);
-			}
+		if (region == null || type == null) {
+			return null;
+		}
+		ExtendedRegionDataProviderSpi spi = this.dispatch
+				.getExtendedDataProviders(region).get(type);
+		if (spi == null) {
+			return null;
 		}
-		return null;
+		return spi.getExtendedRegionData(region, type);
 	}
 
 	@Override
 	public Set<String> getRegionTreeIds() {
-		Set<String> result = new HashSet<>();
-		for (RegionTreeProviderSpi prov : Bootstrap.getServices(RegionTreeProviderSpi.class)) {
-			try {
-				result.add(prov.getTreeId());
-			} catch (Exception e) {
-				LOG.error("Error accessing RegionTreeProviderSpi: "
-						+ prov.getClass().getName(), e);
+		return this.dispatch.treeIds;
+	}
+
+	/**
+	 * The providers resolved, the regions indexed and the lookup caches. The
+	 * provider lists, the type and tree id sets and the region collections
+	 * are immutable.
+	 */
+	private static final class Dispatch {
+		final List<RegionProviderSpi> regionProviders;
+		/** The region providers by class, as passed to the tree providers. */
+		final Map<Class, RegionProviderSpi> providersByClass;
+		final Map<String, RegionTreeProviderSpi> treeProviders;
+		final List<ExtendedRegionDataProviderSpi> extendedDataProviders;
+		final Set<RegionType> regionTypes;
+		final Set<String> treeIds;
+		/** The regions listed, by the types accessed so far. */
+		final ConcurrentMap<RegionType, Collection<Region>> regionsByType = new ConcurrentHashMap<RegionType, Collection<Region>>();
+		/** Regions and misses by type and code. */
+		final ConcurrentMap<RegionType, Map<Object, Object>> codeRegions = new ConcurrentHashMap<RegionType, Map<Object, Object>>();
+		/** Regions and misses by type and numeric code. */
+		final ConcurrentMap<RegionType, Map<Object, Object>> numericRegions = new ConcurrentHashMap<RegionType, Map<Object, Object>>();
+		/** Regions and misses by locale. */
+		final Map<Locale, Object> localeRegions = new ConcurrentHashMap<Locale, Object>();
+		/** The extended data providers by type, by the regions accessed so far. */
+		final Map<Region, Map<Class, ExtendedRegionDataProviderSpi>> extendedData = new ConcurrentHashMap<Region, Map<Class, ExtendedRegionDataProviderSpi>>();
+		/** The trees accessed so far. */
+		final Map<String, RegionTreeNode> trees = new ConcurrentHashMap<String, RegionTreeNode>();
+
+		Dispatch(List<RegionProviderSpi> regionProviders,
+				List<RegionTreeProviderSpi> treeProviders,
+				List<ExtendedRegionDataProviderSpi> extendedDataProviders) {
+			this.regionProviders = regionProviders;
+			Map<Class, RegionProviderSpi> byClass = new HashMap<Class, RegionProviderSpi>();
+			for (RegionProviderSpi prov : regionProviders) {
+				if (!byClass.containsKey(prov.getClass())) {
+					byClass.put(prov.getClass(), prov);
+				}
+			}
+			this.providersByClass = Collections.unmodifiableMap(byClass);
+			this.extendedDataProviders = extendedDataProviders;
+			Map<String, RegionTreeProviderSpi> trees = new LinkedHashMap<String, RegionTreeProviderSpi>();
+			for (RegionTreeProviderSpi prov : treeProviders) {
+				try {
+					String treeId = prov.getTreeId();
+					if (!trees.containsKey(treeId)) {
+						trees.put(treeId, prov);
+					}
+				} catch (Exception e) {
+					LOG.error("Error accessing RegionTreeProviderSpi: "
+							+ prov.getClass().getName(), e);
+				}
+			}
+			this.treeProviders = Collections.unmodifiableMap(trees);
+			this.treeIds = Collections.unmodifiableSet(trees.keySet());
+			Set<RegionType> types = new HashSet<RegionType>();
+			for (RegionProviderSpi prov : regionProviders) {
+				try {
+					Collection<RegionType> regionTypes = prov.getRegionTypes();
+					if (regionTypes == null || regionTypes.isEmpty()) {
+						LOG.warn("Provider did not provide any region types: "
+								+ prov.getClass().getName());
+						continue;
+					}
+					types.addAll(regionTypes);
+				} catch (Exception e) {
+					LOG.error("Error accessing RegionProviderSpi: "
+							+ prov.getClass().getName(), e);
+				}
+			}
+			this.regionTypes = Collections.unmodifiableSet(types);
+		}
+
+		/**
+		 * Get the regions of a type, listing and indexing them on first
+		 * access.
+		 */
+		Collection<Region> getRegions(RegionType type) {
+			Collection<Region> regions = regionsByType.get(type);
+			if (regions != null) {
+				return regions;
+			}
+			Set<Region> typeRegions = new HashSet<Region>();
+			for (RegionProviderSpi prov : regionProviders) {
+				try {
+					Collection<RegionType> provTypes = prov.getRegionTypes();
+					if (provTypes == null || !provTypes.contains(type)) {
+						continue;
+					}
+					Collection<Region> provRegions = prov.getRegions(type);
+					if (provRegions == null || provRegions.isEmpty()) {
+						LOG.warn("Provider did not provide any regions of type "
+								+ type + ": " + prov.getClass().getName());
+						continue;
+					}
+					typeRegions.addAll(provRegions);
+					for (Region region : provRegions) {
+						index(region);
+					}
+				} catch (Exception e) {
+					LOG.error("Error accessing RegionProviderSpi: "
+							+ prov.getClass().getName(), e);
+				}
+			}
+			regions = Collections.unmodifiableSet(typeRegions);
+			Collection<Region> existing = regionsByType.putIfAbsent(type,
+					regions);
+			return existing != null ? existing : regions;
+		}
+
+		/**
+		 * Adds a region to the code indexes, keeping regions of providers
+		 * with higher priority, and replacing cached misses.
+		 */
+		private void index(Region region) {
+			RegionType type = region.getRegionType();
+			if (type == null) {
+				return;
+			}
+			Map<Object, Object> byCode = getCache(codeRegions, type);
+			if (region.getRegionCode() != null) {
+				Object existing = byCode.get(region.getRegionCode());
+				if (existing == null || existing == NO_REGION) {
+					byCode.put(region.getRegionCode(), region);
+				}
+			}
+			int numericCode = region.getNumericRegionCode();
+			if (numericCode >= 0) {
+				Map<Object, Object> byNumber = getCache(numericRegions, type);
+				Object existing = byNumber.get(numericCode);
+				if (existing == null || existing == NO_REGION) {
+					byNumber.put(numericCode, region);
+				}
+			}
+		}
+
+		/**
+		 * Get the extended data providers of a region, by the data type they
+		 * serve, resolving them on first access. A type is served by the
+		 * first provider declaring it.
+		 */
+		Map<Class, ExtendedRegionDataProviderSpi> getExtendedDataProviders(
+				Region region) {
+			Map<Class, ExtendedRegionDataProviderSpi> providers = extendedData
+					.get(region);
+			if (providers != null) {
+				return providers;
+			}
+			Map<Class, ExtendedRegionDataProviderSpi> byType = new LinkedHashMap<Class, ExtendedRegionDataProviderSpi>();
+			for (ExtendedRegionDataProviderSpi spi : extendedDataProviders) {
+				try {
+					for (Class type : spi.getExtendedRegionDataTypes(region)) {
+						if (!byType.containsKey(type)) {
+							byType.put(type, spi);
+						}
+					}
+				} catch (Exception e) {
+					LOG.error("Error accessing ExtendedRegionDataProviderSpi: "
+							+ spi.getClass().getName(), e);
+				}
+			}
+			providers = Collections.unmodifiableMap(byType);
+			if (extendedData.size() < MAX_CACHE_SIZE) {
+				extendedData.put(region, providers);
+			}
+			return providers;
+		}
+
+		Map<Object, Object> getCache(
+				ConcurrentMap<RegionType, Map<Object, Object>> caches,
+				RegionType type) {
+			Map<Object, Object> cache = caches.get(type);
+			if (cache == null) {
+				cache = new ConcurrentHashMap<Object, Object>();
+				Map<Object, Object> existing = caches.putIfAbsent(type, cache);
+				if (existing != null) {
+					cache = existing;
+				}
 			}
+			return cache;
 		}
-		return result;
 	}
 
 }
@@ -13,11 +13,12 @@ package org.javamoney.regions.internal;
 import java.net.MalformedURLException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Singleton;
 
@@ -33,9 +34,11 @@ public class ICURegionData {
 
 	private static final ICURegionData INSTANCE = createInstance();
 	
-	private Set<RegionType> regionTypes = new HashSet<RegionType>();
+	private final Set<RegionType> regionTypes = Collections
+			.unmodifiableSet(EnumSet.allOf(RegionType.class));
 
-	private Map<String, ICURegion> regions = new HashMap<String, ICURegion>();
+	/** The regions wrapped so far, by region code. */
+	private final ConcurrentMap<String, ICURegion> regions = new ConcurrentHashMap<String, ICURegion>();
 
 	// CLDR/world/continents/territories
 
@@ -56,41 +59,35 @@ public class ICURegionData {
 		}
 	}
 
+	/**
+	 * Discards the regions wrapped so far. Regions are wrapped on first
+	 * access, exactly once per region code.
+	 */
 	private void reload() {
-		regionTypes.clear();
-		ICURegion world = null;
-		for (RegionType rt : RegionType
-				.values()) {
-			this.regionTypes.add(rt);
-			Set<Region> icuRegions = Region
-					.getAvailable(RegionType
-							.valueOf(rt.name()));
-			for (Region icuRegion : icuRegions) {
-				RegionType type = icuRegion.getType();
-				regionTypes.add(type);
-				ICURegion region = new ICURegion(icuRegion);
-				regions.put(region.getRegionCode(), region);
-				if (region.getRegionType().equals(RegionType.WORLD)) {
-					world = region;
-				}
+		regions.clear();
+	}
+
+	private ICURegion wrap(Region icuRegion) {
+		String code = icuRegion.toString();
+		ICURegion region = regions.get(code);
+		if (region == null) {
+			region = new ICURegion(icuRegion);
+			ICURegion existing = regions.putIfAbsent(code, region);
+			if (existing != null) {
+				region = existing;
 			}
 		}
-		Set<Region> icuRegions = Region
-				.getAvailable(RegionType.WORLD);
+		return region;
 	}
 
 	public Collection<RegionType> getRegionTypes() {
-		return Collections.unmodifiableSet(regionTypes);
+		return regionTypes;
 	}
 
 	public ICURegion getRegion(RegionType type, String code) {
-		Region icuRegion = Region
-				.getInstance(code);
-		if (icuRegion != null) {
-			ICURegion region = this.regions.get(code);
-			if (region.getRegionType().equals(type)) {
-				return region;
-			}
+		ICURegion region = getRegion(code);
+		if (region != null && region.getRegionType().equals(type)) {
+			return region;
 		}
 		return null;
 	}
@@ -98,31 +95,43 @@ public class ICURegionData {
 	public ICURegion getRegion(String code) {
 		Region icuRegion = Region
 				.getInstance(code);
-		return this.regions.get(code);
+		if (icuRegion == null) {
+			return null;
+		}
+		return wrap(icuRegion);
 	}
 
 	public Collection<ICURegion> getRegions(RegionType type) {
 		Set<ICURegion> result = new HashSet<ICURegion>();
-		for (ICURegion region : regions.values()) {
-			if (region.getRegionType().equals(type)) {
-				result.add(region);
-			}
+		for (Region icuRegion : Region.getAvailable(type)) {
+			result.add(wrap(icuRegion));
 		}
 		return result;
 	}
 
 	public ICURegion getRegion(RegionType type, int numericId) {
-		for (ICURegion region : regions.values()) {
-			if (region.getRegionType().equals(type)
-					&& region.getNumericCode() == numericId) {
-				return region;
-			}
+		Region icuRegion;
+		try {
+			icuRegion = Region.getInstance(numericId);
+		} catch (IllegalArgumentException e) {
+			return null;
 		}
-		return null;
+		if (icuRegion == null || !icuRegion.getType().equals(type)) {
+			return null;
+		}
+		return wrap(icuRegion);
 	}
 
 	public ICURegion getRegion(Locale locale) {
-		return regions.get(locale.getCountry());
+		String country = locale.getCountry();
+		if (country.isEmpty()) {
+			return null;
+		}
+		try {
+			return getRegion(country);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
 	}
 
-}
\ No newline at end of file
+}
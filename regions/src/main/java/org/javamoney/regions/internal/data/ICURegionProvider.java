@@ -17,11 +17,11 @@ package org.javamoney.regions.internal.data;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Singleton;
 
@@ -31,88 +31,117 @@ import org.javamoney.regions.spi.RegionProviderSpi;
 
 /**
  * RegionProvider implementation based on the data returned by ICU4J.
+ * <p>
+ * The ICU regions are wrapped on first access, exactly once per region code,
+ * so creating the provider does not load ICU's region data. Lookups of
+ * unknown codes return {@code null}.
  * 
  * @author Anatole Tresch
  */
 @Singleton
 public class ICURegionProvider implements RegionProviderSpi {
 
-	private Set<RegionType> regionTypes = new HashSet<RegionType>();
+	private final Set<RegionType> regionTypes;
 
-	private Map<String, Region> regions = new HashMap<String, Region>();
+	/** The regions wrapped so far, by region code. */
+	private final ConcurrentMap<String, Region> regions = new ConcurrentHashMap<String, Region>();
 
 	// CLDR/world/continents/territories
 
 	public ICURegionProvider() {
-		reload();
-	}
-
-	private void reload() {
-		Region world = null;
-		regionTypes.clear();
+		Set<RegionType> types = new HashSet<RegionType>();
 		for (com.ibm.icu.util.Region.RegionType rt : com.ibm.icu.util.Region.RegionType
 				.values()) {
-			this.regionTypes.add(RegionType.of(rt.name()));
-			Set<com.ibm.icu.util.Region> icuRegions = com.ibm.icu.util.Region
-					.getAvailable(com.ibm.icu.util.Region.RegionType
-							.valueOf(rt.name()));
-			for (com.ibm.icu.util.Region icuRegion : icuRegions) {
-				RegionType type = RegionType.of(icuRegion.getType().name());
-				regionTypes.add(type);
-				Region region = new IcuRegion(icuRegion, type);
-				regions.put(region.getRegionCode(), region);
-				if (region.getRegionType().equals(RegionType.WORLD)) {
-					world = region;
-				}
+			types.add(RegionType.of(rt.name()));
+		}
+		this.regionTypes = Collections.unmodifiableSet(types);
+	}
+
+	private Region wrap(com.ibm.icu.util.Region icuRegion) {
+		String code = icuRegion.toString();
+		Region region = regions.get(code);
+		if (region == null) {
+			region = new IcuRegion(icuRegion, RegionType.of(icuRegion
+					.getType().name()));
+			Region existing = regions.putIfAbsent(code, region);
+			if (existing != null) {
+				region = existing;
 			}
 		}
-		Set<com.ibm.icu.util.Region> icuRegions = com.ibm.icu.util.Region
-				.getAvailable(com.ibm.icu.util.Region.RegionType.WORLD);
+		return region;
 	}
 
 	@Override
 	public Collection<RegionType> getRegionTypes() {
-		return Collections.unmodifiableSet(regionTypes);
+		return regionTypes;
 	}
 
 	@Override
 	public Region getRegion(RegionType type, String code) {
-		com.ibm.icu.util.Region icuRegion = com.ibm.icu.util.Region
-				.getInstance(code);
-		if (icuRegion != null) {
-			Region region = this.regions.get(code);
-			if (region.getRegionType().equals(type)) {
-				return region;
-			}
+		if (code == null) {
+			return null;
+		}
+		com.ibm.icu.util.Region icuRegion;
+		try {
+			icuRegion = com.ibm.icu.util.Region.getInstance(code);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		if (icuRegion == null) {
+			return null;
+		}
+		Region region = wrap(icuRegion);
+		if (region.getRegionType().equals(type)) {
+			return region;
 		}
 		return null;
 	}
 
 	@Override
 	public Collection<Region> getRegions(RegionType type) {
+		com.ibm.icu.util.Region.RegionType icuType;
+		try {
+			icuType = com.ibm.icu.util.Region.RegionType.valueOf(type.getId());
+		} catch (IllegalArgumentException e) {
+			return Collections.emptySet();
+		}
 		Set<Region> result = new HashSet<Region>();
-		for (Region region : regions.values()) {
-			if (region.getRegionType().equals(type)) {
-				result.add(region);
-			}
+		for (com.ibm.icu.util.Region icuRegion : com.ibm.icu.util.Region
+				.getAvailable(icuType)) {
+			result.add(wrap(icuRegion));
 		}
 		return result;
 	}
 
 	@Override
 	public Region getRegion(RegionType type, int numericId) {
-		for (Region region : regions.values()) {
-			if (region.getRegionType().equals(type)
-					&& region.getNumericRegionCode() == numericId) {
-				return region;
-			}
+		com.ibm.icu.util.Region icuRegion;
+		try {
+			icuRegion = com.ibm.icu.util.Region.getInstance(numericId);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		if (icuRegion == null) {
+			return null;
+		}
+		Region region = wrap(icuRegion);
+		if (region.getRegionType().equals(type)) {
+			return region;
 		}
 		return null;
 	}
 
 	@Override
 	public Region getRegion(Locale locale) {
-		return regions.get(locale.getCountry());
+		String country = locale.getCountry();
+		if (country.isEmpty()) {
+			return null;
+		}
+		try {
+			return wrap(com.ibm.icu.util.Region.getInstance(country));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
 	}
 
-}
\ No newline at end of file
+}
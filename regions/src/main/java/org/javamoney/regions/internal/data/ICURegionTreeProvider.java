@@ -22,22 +22,22 @@ import javax.inject.Singleton;
 import org.javamoney.regions.Region;
 import org.javamoney.regions.RegionTreeNode;
 import org.javamoney.regions.RegionType;
-import org.javamoney.regions.spi.BuildableRegionNode;
 import org.javamoney.regions.spi.RegionProviderSpi;
 import org.javamoney.regions.spi.RegionTreeProviderSpi;
-import org.javamoney.regions.spi.BuildableRegionNode.Builder;
 
 
 /**
  * Region tree provider implementation registering under {@code CLDR} which maps
- * the region tree provided by ICU4J.
+ * the region tree provided by ICU4J. The tree's nodes are created on first
+ * access of their subtree, and subtrees created completely are flattened for
+ * containment checks, see {@link IcuRegionNode}.
  * 
  * @author Anatole Tresch
  */
 @Singleton
 public class ICURegionTreeProvider implements RegionTreeProviderSpi {
 
-	private BuildableRegionNode regionTree;
+	private RegionTreeNode regionTree;
 
 	// CLDR/world/...
 
@@ -55,22 +55,7 @@ public class ICURegionTreeProvider implements RegionTreeProviderSpi {
 				.iterator().next();
 		Region root = regionProvider.getRegion(RegionType.WORLD,
 				icuWorld.toString());
-		Builder treeBuilder = new BuildableRegionNode.Builder(root);
-		populateRegionNode(regionProvider, treeBuilder);
-		regionTree = treeBuilder.build();
-	}
-
-	private void populateRegionNode(ICURegionProvider regionProvider,
-			BuildableRegionNode.Builder regionNode) {
-		for (com.ibm.icu.util.Region rt : ((IcuRegion) regionNode.getRegion())
-				.getIcuRegion().getContainedRegions()) {
-			RegionType type = RegionType.of(rt.getType().name());
-			Region region = regionProvider.getRegion(type,
-					rt.toString());
-			Builder nodeBuilder = new BuildableRegionNode.Builder(region);
-			populateRegionNode(regionProvider, nodeBuilder);
-			regionNode.addChildRegions(nodeBuilder.build());
-		}
+		regionTree = new IcuRegionNode(regionProvider, (IcuRegion) root, null);
 	}
 
 	@Override
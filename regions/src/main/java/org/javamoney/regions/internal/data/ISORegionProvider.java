@@ -28,36 +28,71 @@ import org.javamoney.regions.spi.RegionProviderSpi;
  * Region Tree provider that provides all ISO countries, defined by
  * {@link java.util.Locale#getISOCountries()} using their 2-letter ISO country code under
  * {@code ISO}.
+ * <p>
+ * Lookups by numeric code and by locale are served from indexes built in
+ * {@link #reload()}: a table covering all ISO 3166 numeric codes, and a hash
+ * index of the country locales.
  * 
  * @author Anatole Tresch
  */
 @Singleton
 public class ISORegionProvider implements RegionProviderSpi {
 
-	private Set<RegionType> regionTypes = new HashSet<RegionType>();
+	/** The number of possible ISO 3166 numeric codes. */
+	private static final int NUMERIC_CODE_SPACE = 1000;
 
-	private Map<String, Region> regions = new HashMap<String, Region>();
+	private volatile Set<RegionType> regionTypes = Collections.emptySet();
+
+	/** The type of all regions provided. */
+	private volatile RegionType regionType;
+
+	private volatile Map<String, Region> regions = Collections.emptyMap();
+
+	/** The {@link ISOCountry} instances, by numeric code. */
+	private volatile Region[] numericRegions = new Region[NUMERIC_CODE_SPACE];
+
+	/** The {@link ISOCountry} instances, by locale. */
+	private volatile Map<Locale, Region> localeRegions = Collections.emptyMap();
 
 	public ISORegionProvider() {
 		reload();
 	}
 
 	private void reload() {
-		regionTypes.clear();
+		Set<RegionType> types = new HashSet<RegionType>();
 		RegionType rt = RegionType.of("ISO");
-		regionTypes.add(rt);
+		types.add(rt);
+		Map<String, Region> regionMap = new HashMap<String, Region>();
+		Region[] byNumber = new Region[NUMERIC_CODE_SPACE];
+		Map<Locale, Region> byLocale = new HashMap<Locale, Region>();
 		for (String country : Locale.getISOCountries()) {
 			Locale locale = new Locale("", country);
 			ISOCountry region = new ISOCountry(locale, rt);
-			regions.put(region.getRegionCode(), region);
+			regionMap.put(region.getRegionCode(), region);
 			ISO3Country region3 = new ISO3Country(locale, rt);
-			regions.put(region.getISO3Code(), region3);
+			regionMap.put(region.getISO3Code(), region3);
+			byLocale.put(locale, region);
+			int numericCode;
+			try {
+				numericCode = region.getNumericRegionCode();
+			} catch (RuntimeException e) {
+				continue;
+			}
+			if (numericCode >= 0 && numericCode < NUMERIC_CODE_SPACE
+					&& byNumber[numericCode] == null) {
+				byNumber[numericCode] = region;
+			}
 		}
+		this.regions = regionMap;
+		this.numericRegions = byNumber;
+		this.localeRegions = byLocale;
+		this.regionType = rt;
+		this.regionTypes = Collections.unmodifiableSet(types);
 	}
 
 	@Override
 	public Collection<RegionType> getRegionTypes() {
-		return Collections.unmodifiableSet(regionTypes);
+		return regionTypes;
 	}
 
 	@Override
@@ -78,24 +113,15 @@ public class ISORegionProvider implements RegionProviderSpi {
 
 	@Override
 	public Region getRegion(RegionType type, int numericId) {
-		for (Region region : regions.values()) {
-			if (region.getRegionType().equals(type)
-					&& region.getNumericRegionCode() == numericId
-					&& region instanceof ISOCountry) {
-				return region;
-			}
+		if (numericId < 0 || numericId >= NUMERIC_CODE_SPACE
+				|| !this.regionType.equals(type)) {
+			return null;
 		}
-		return null;
+		return this.numericRegions[numericId];
 	}
 
 	@Override
 	public Region getRegion(Locale locale) {
-		for (Region region : regions.values()) {
-			if (locale.equals(region.getLocale())
-					&& region instanceof ISOCountry) {
-				return region;
-			}
-		}
-		return null;
+		return this.localeRegions.get(locale);
 	}
-}
\ No newline at end of file
+}
@@ -19,6 +19,7 @@ import org.javamoney.regions.Region;
 import org.javamoney.regions.RegionTreeNode;
 import org.javamoney.regions.RegionType;
 import org.javamoney.regions.spi.BuildableRegionNode;
+import org.javamoney.regions.spi.FlatRegionTree;
 import org.javamoney.regions.spi.RegionProviderSpi;
 import org.javamoney.regions.spi.RegionTreeProviderSpi;
 import org.javamoney.regions.spi.BuildableRegionNode.Builder;
@@ -34,7 +35,7 @@ import org.javamoney.regions.spi.BuildableRegionNode.Builder;
 @Singleton
 public class ISORegionTreeProvider implements RegionTreeProviderSpi {
 
-	private BuildableRegionNode regionTree;
+	private RegionTreeNode regionTree;
 
 	// ISO/...
 
@@ -56,7 +57,7 @@ public class ISORegionTreeProvider implements RegionTreeProviderSpi {
 			Builder nodeBuilder = new BuildableRegionNode.Builder(region);
 			treeBuilder.addChildRegions(nodeBuilder.build());
 		}
-		regionTree = treeBuilder.build();
+		regionTree = FlatRegionTree.of(treeBuilder.build()).getRoot();
 	}
 
 	@Override
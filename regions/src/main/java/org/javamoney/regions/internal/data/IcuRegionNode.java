@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.regions.internal.data;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.javamoney.calc.function.MonetaryPredicate;
+import org.javamoney.regions.Region;
+import org.javamoney.regions.RegionTreeNode;
+import org.javamoney.regions.RegionType;
+import org.javamoney.regions.spi.AbstractRegionNode;
+import org.javamoney.regions.spi.FlatRegionTree;
+
+/**
+ * {@link RegionTreeNode} of the CLDR region tree, whose children are created
+ * from ICU4J's containment data on first access, exactly once per node.
+ * Containment checks on subtrees not created completely are delegated to
+ * ICU4J, so they do not materialize anything. Once a subtree has been created
+ * completely, it is flattened into a {@link FlatRegionTree} and containment
+ * checks within it come down to two integer comparisons.
+ * <p>
+ * This class is thread-safe.
+ */
+final class IcuRegionNode extends AbstractRegionNode {
+	/** The provider used to map the contained ICU regions. */
+	private final ICURegionProvider regionProvider;
+	/** The wrapped ICU region. */
+	private final com.ibm.icu.util.Region icuRegion;
+	/** The children by region code, set once the children are created. */
+	private volatile Map<String, RegionTreeNode> childrenByCode;
+	/**
+	 * One for the creation of the children, if pending, plus one for each
+	 * child whose subtree is not created completely. Zero once the whole
+	 * subtree is created.
+	 */
+	private final AtomicInteger pending;
+	/**
+	 * The flattened subtree, if this is the topmost node of a completely
+	 * created subtree whose containment was checked, or {@code null}.
+	 */
+	private volatile FlatRegionTree flatTree;
+
+	IcuRegionNode(ICURegionProvider regionProvider, IcuRegion region,
+			RegionTreeNode parent) {
+		this.regionProvider = regionProvider;
+		this.icuRegion = region.getIcuRegion();
+		setRegion(region);
+		setParent(parent);
+		// nothing is pending for leaves
+		this.pending = new AtomicInteger(icuRegion.getContainedRegions()
+				.isEmpty() ? 0 : 1);
+	}
+
+	private Map<String, RegionTreeNode> materialize() {
+		Map<String, RegionTreeNode> children = this.childrenByCode;
+		if (children == null) {
+			synchronized (this) {
+				children = this.childrenByCode;
+				if (children == null) {
+					children = createChildren();
+					this.childrenByCode = children;
+					if (!isComplete()) {
+						subtreeCreated();
+					}
+				}
+			}
+		}
+		return children;
+	}
+
+	/**
+	 * Checks if the children of this node have been created.
+	 * 
+	 * @return {@code true}, if the children were created.
+	 */
+	boolean isMaterialized() {
+		return this.childrenByCode != null;
+	}
+
+	/**
+	 * Checks if the whole subtree of this node has been created.
+	 * 
+	 * @return {@code true}, if the subtree is complete.
+	 */
+	boolean isComplete() {
+		return this.pending.get() == 0;
+	}
+
+	/**
+	 * Called once the children of this node, or the subtree of one of its
+	 * children, have been created completely.
+	 */
+	private void subtreeCreated() {
+		if (this.pending.decrementAndGet() == 0) {
+			RegionTreeNode parent = getParent();
+			if (parent instanceof IcuRegionNode) {
+				((IcuRegionNode) parent).subtreeCreated();
+			}
+		}
+	}
+
+	private Map<String, RegionTreeNode> createChildren() {
+		Map<String, RegionTreeNode> children = new HashMap<String, RegionTreeNode>();
+		List<RegionTreeNode> childNodes = getChildNodes();
+		int incomplete = 0;
+		for (com.ibm.icu.util.Region rt : icuRegion.getContainedRegions()) {
+			Region region = regionProvider.getRegion(
+					RegionType.of(rt.getType().name()), rt.toString());
+			if (!(region instanceof IcuRegion)) {
+				continue;
+			}
+			IcuRegionNode node = new IcuRegionNode(regionProvider,
+					(IcuRegion) region, this);
+			if (!node.isComplete()) {
+				incomplete++;
+			}
+			childNodes.add(node);
+			children.put(region.getRegionCode(), node);
+		}
+		// the children are not accessible yet, so none can complete before
+		this.pending.addAndGet(incomplete);
+		return children;
+	}
+
+	/**
+	 * Access this node within the flattened copy of the topmost completely
+	 * created subtree containing it, flattening that subtree if needed.
+	 * 
+	 * @return the flat node, or {@code null}, if the subtree of this node is
+	 *         not complete yet.
+	 */
+	FlatRegionTree.Node getFlatNode() {
+		if (!isComplete()) {
+			return null;
+		}
+		IcuRegionNode top = this;
+		StringBuilder path = new StringBuilder();
+		while (top.getParent() instanceof IcuRegionNode
+				&& ((IcuRegionNode) top.getParent()).isComplete()) {
+			if (path.length() > 0) {
+				path.insert(0, '/');
+			}
+			path.insert(0, top.getRegion().getRegionCode());
+			top = (IcuRegionNode) top.getParent();
+		}
+		FlatRegionTree tree = top.flatTree;
+		if (tree == null) {
+			tree = FlatRegionTree.of(top);
+			top.flatTree = tree;
+			// copies of completed subtrees now covered by this one
+			for (RegionTreeNode child : top.getChildren()) {
+				((IcuRegionNode) child).releaseFlatTrees();
+			}
+		}
+		return (FlatRegionTree.Node) tree.getRoot().getRegionTree(
+				path.toString());
+	}
+
+	private void releaseFlatTrees() {
+		this.flatTree = null;
+		for (RegionTreeNode child : getChildren()) {
+			((IcuRegionNode) child).releaseFlatTrees();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.javamoney.regions.spi.AbstractRegionNode#getChildren()
+	 */
+	@Override
+	public Collection<RegionTreeNode> getChildren() {
+		materialize();
+		return super.getChildren();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.regions.spi.AbstractRegionNode#contains(org.javamoney.regions
+	 * .Region)
+	 */
+	@Override
+	public boolean contains(Region region) {
+		FlatRegionTree.Node flatNode = getFlatNode();
+		if (flatNode != null) {
+			return flatNode.contains(region);
+		}
+		if (region instanceof IcuRegion) {
+			return icuRegion.contains(((IcuRegion) region).getIcuRegion());
+		}
+		materialize();
+		return super.contains(region);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.regions.spi.AbstractRegionNode#select(org.javamoney.calc
+	 * .function.MonetaryPredicate)
+	 */
+	@Override
+	public Collection<RegionTreeNode> select(MonetaryPredicate<Region> filter) {
+		materialize();
+		return super.select(filter);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.regions.spi.AbstractRegionNode#getRegionNode(java.lang.
+	 * String)
+	 */
+	@Override
+	protected RegionTreeNode getRegionNode(String code) {
+		return materialize().get(code);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.regions.spi.AbstractRegionNode#findRegionTree(java.lang
+	 * .String)
+	 */
+	@Override
+	public RegionTreeNode findRegionTree(String regionCode) {
+		com.ibm.icu.util.Region target = getIcuRegion(regionCode);
+		if (target == null || !icuRegion.contains(target)) {
+			return null;
+		}
+		// follow the primary containment chain, so only the nodes on the
+		// way down are materialized
+		LinkedList<String> path = new LinkedList<String>();
+		for (com.ibm.icu.util.Region r = target; r != null
+				&& !r.equals(icuRegion); r = r.getContainingRegion()) {
+			path.addFirst(r.toString());
+		}
+		RegionTreeNode node = this;
+		for (String code : path) {
+			node = ((IcuRegionNode) node).getRegionNode(code);
+			if (node == null) {
+				// contained only through a grouping, search the subtree
+				return super.findRegionTree(regionCode);
+			}
+		}
+		return node;
+	}
+
+	private static com.ibm.icu.util.Region getIcuRegion(String code) {
+		if (code == null) {
+			return null;
+		}
+		try {
+			return com.ibm.icu.util.Region.getInstance(code);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.regions.spi.AbstractRegionNode#getRegionByCode(java.lang
+	 * .String)
+	 */
+	@Override
+	public Region getRegionByCode(String code) {
+		RegionTreeNode node = materialize().get(code);
+		if (node == null) {
+			return null;
+		}
+		return node.getRegion();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.regions.spi.AbstractRegionNode#getRegionByNumericCode(int)
+	 */
+	@Override
+	public Region getRegionByNumericCode(int code) {
+		materialize();
+		return super.getRegionByNumericCode(code);
+	}
+
+}
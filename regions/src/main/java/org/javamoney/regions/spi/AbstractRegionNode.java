@@ -158,22 +158,126 @@ public abstract class AbstractRegionNode implements RegionTreeNode,
 		return ((Comparable<Region>) this.region).compareTo(o.getRegion());
 	}
 
+	/**
+	 * Access a {@link RegionTreeNode} using a path relative to this node,
+	 * consisting of the region codes separated by {@code /}. Empty segments
+	 * are ignored.
+	 * 
+	 * @param path
+	 *            the path to be accessed, not {@code null}.
+	 * @return the node found, or {@code null}.
+	 * @throws IllegalArgumentException
+	 *             if the path is {@code null}.
+	 */
 	@Override
 	public RegionTreeNode getRegionTree(String path) {
+		if (path == null) {
+			throw new IllegalArgumentException("path is required.");
+		}
 		String[] paths = path.split("/");
 		RegionTreeNode current = this;
 		for (String curPath : paths) {
 			if (curPath.trim().isEmpty()) {
 				continue;
 			}
-			current = getRegionNode(curPath);
+			current = getChildNode(current, curPath);
 			if (current == null) {
-				throw new IllegalArgumentException("Invalid path: " + path);
+				return null;
 			}
 		}
 		return current;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.regions.RegionTreeNode#resolveAll(java.util.Collection)
+	 */
+	@Override
+	public List<RegionTreeNode> resolveAll(Collection<String> paths) {
+		if (paths == null) {
+			throw new IllegalArgumentException("paths is required.");
+		}
+		List<RegionTreeNode> result = new ArrayList<RegionTreeNode>(
+				paths.size());
+		for (String path : paths) {
+			result.add(path == null ? null : getRegionTree(path));
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the first direct or indirect child, in depth-first order, with
+	 * the given region code.
+	 * 
+	 * @param regionCode
+	 *            the region code.
+	 * @return the node found, or {@code null}.
+	 */
+	public RegionTreeNode findRegionTree(String regionCode) {
+		return findNode(this, regionCode);
+	}
+
+	private static RegionTreeNode findNode(RegionTreeNode node,
+			String regionCode) {
+		for (RegionTreeNode child : node.getChildren()) {
+			if (child.getRegion().getRegionCode().equals(regionCode)) {
+				return child;
+			}
+			RegionTreeNode found = findNode(child, regionCode);
+			if (found != null) {
+				return found;
+			}
+		}
+		return null;
+	}
+
+	private static RegionTreeNode getChildNode(RegionTreeNode node,
+			String code) {
+		if (node instanceof AbstractRegionNode) {
+			return ((AbstractRegionNode) node).getRegionNode(code);
+		}
+		for (RegionTreeNode child : node.getChildren()) {
+			if (child.getRegion().getRegionCode().equals(code)) {
+				return child;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Normalizes a path by removing empty segments.
+	 * 
+	 * @param path
+	 *            the path, not {@code null}.
+	 * @return the normalized path, without leading, trailing or double
+	 *         separators.
+	 * @throws IllegalArgumentException
+	 *             if the path is {@code null}.
+	 */
+	protected static String normalizePath(String path) {
+		if (path == null) {
+			throw new IllegalArgumentException("path is required.");
+		}
+		boolean normalized = !path.startsWith("/") && !path.endsWith("/")
+				&& !path.contains("//") && !path.contains(" ");
+		if (normalized) {
+			return path;
+		}
+		StringBuilder b = new StringBuilder(path.length());
+		for (String segment : path.split("/")) {
+			if (segment.trim().isEmpty()) {
+				continue;
+			}
+			if (b.length() > 0) {
+				b.append('/');
+			}
+			b.append(segment);
+		}
+		return b.toString();
+	}
+
 	protected RegionTreeNode getRegionNode(String curPath) {
 		for (RegionTreeNode node : this.childNodes) {
 			if (node.getRegion().getRegionCode().equals(curPath)) {
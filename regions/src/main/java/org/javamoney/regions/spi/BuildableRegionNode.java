@@ -15,7 +15,10 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import org.javamoney.regions.Region;
@@ -41,6 +44,13 @@ public class BuildableRegionNode extends AbstractRegionNode implements
 	 */
 	private static final long serialVersionUID = -8957470024522944264L;
 
+	/**
+	 * The index of the tree this node is the topmost
+	 * {@link BuildableRegionNode} of, shared by all its descendants and
+	 * created on first lookup, or {@code null}.
+	 */
+	private transient volatile TreeIndex treeIndex;
+
 	/**
 	 * Creates a region. Regions should only be accessed using the accessor
 	 * method {@link Monetary#getExtension(Class)}, passing
@@ -94,6 +104,149 @@ public class BuildableRegionNode extends AbstractRegionNode implements
 		}
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.regions.spi.AbstractRegionNode#setParent(org.javamoney.
+	 * regions.RegionTreeNode)
+	 */
+	@Override
+	protected void setParent(RegionTreeNode parent) {
+		super.setParent(parent);
+		// the parent's tree index now covers this node
+		this.treeIndex = null;
+	}
+
+	/**
+	 * Access the index of the tree this node belongs to, which is owned by
+	 * the topmost {@link BuildableRegionNode} ancestor, creating it if
+	 * needed.
+	 * 
+	 * @return the tree index, never {@code null}.
+	 */
+	private TreeIndex getTreeIndex() {
+		BuildableRegionNode root = this;
+		while (root.getParent() instanceof BuildableRegionNode) {
+			root = (BuildableRegionNode) root.getParent();
+		}
+		TreeIndex index = root.treeIndex;
+		if (index == null) {
+			index = new TreeIndex(root);
+			root.treeIndex = index;
+		}
+		return index;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.regions.spi.AbstractRegionNode#getRegionTree(java.lang.
+	 * String)
+	 */
+	@Override
+	public RegionTreeNode getRegionTree(String path) {
+		String key = normalizePath(path);
+		if (key.isEmpty()) {
+			return this;
+		}
+		TreeIndex index = getTreeIndex();
+		String prefix = index.prefixes.get(this);
+		if (prefix == null) {
+			return super.getRegionTree(key);
+		}
+		return index.paths.get(prefix + key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.regions.spi.AbstractRegionNode#findRegionTree(java.lang
+	 * .String)
+	 */
+	@Override
+	public RegionTreeNode findRegionTree(String regionCode) {
+		TreeIndex index = getTreeIndex();
+		RegionTreeNode found = index.codes.get(regionCode);
+		if (found == null || index.root == this) {
+			return found;
+		}
+		// the first match within the whole tree is the first one within
+		// this subtree, if it is part of it
+		for (RegionTreeNode node = found.getParent(); node != null; node = node
+				.getParent()) {
+			if (node == this) {
+				return found;
+			}
+		}
+		return super.findRegionTree(regionCode);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.javamoney.regions.spi.AbstractRegionNode#getRegionNode(java.lang.
+	 * String)
+	 */
+	@Override
+	protected RegionTreeNode getRegionNode(String code) {
+		if (code.indexOf('/') >= 0) {
+			return super.getRegionNode(code);
+		}
+		TreeIndex index = getTreeIndex();
+		String prefix = index.prefixes.get(this);
+		if (prefix == null) {
+			return super.getRegionNode(code);
+		}
+		return index.paths.get(prefix + code);
+	}
+
+	/**
+	 * Indexes all nodes of a tree by their path relative to the root and by
+	 * region code, so {@link #getRegionTree(String)} and
+	 * {@link #findRegionTree(String)} are a single lookup for every
+	 * {@link BuildableRegionNode} of the tree.
+	 */
+	private static final class TreeIndex {
+		/** The node owning the index. */
+		final BuildableRegionNode root;
+		/** The nodes by their path relative to the root. */
+		final Map<String, RegionTreeNode> paths = new HashMap<String, RegionTreeNode>();
+		/** The nodes by region code, the first one in depth-first order. */
+		final Map<String, RegionTreeNode> codes = new HashMap<String, RegionTreeNode>();
+		/**
+		 * The path prefixes of the {@link BuildableRegionNode}s owning their
+		 * path, empty for the root.
+		 */
+		final Map<RegionTreeNode, String> prefixes = new IdentityHashMap<RegionTreeNode, String>();
+
+		TreeIndex(BuildableRegionNode root) {
+			this.root = root;
+			prefixes.put(root, "");
+			index(root, "");
+		}
+
+		private void index(RegionTreeNode node, String prefix) {
+			for (RegionTreeNode child : node.getChildren()) {
+				String code = child.getRegion().getRegionCode();
+				String path = prefix + code;
+				if (!paths.containsKey(path)) {
+					paths.put(path, child);
+					if (child instanceof BuildableRegionNode) {
+						prefixes.put(child, path + '/');
+					}
+				}
+				if (!codes.containsKey(code)) {
+					codes.put(code, child);
+				}
+				index(child, path + '/');
+			}
+		}
+	}
+
 	/**
 	 * Regions can be used to segregate or access artifacts (e.g. currencies)
 	 * either based on geographical, or commercial aspects (e.g. legal units).
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.regions.spi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.javamoney.calc.function.MonetaryPredicate;
+import org.javamoney.regions.Region;
+import org.javamoney.regions.RegionTreeNode;
+
+/**
+ * Immutable, flattened copy of a {@link RegionTreeNode} tree. The nodes are
+ * stored in one array in depth-first order, so the descendants of each node
+ * form a contiguous range directly following it. Each node knows the end of
+ * its range, and each region knows its positions in the array, so
+ * {@link RegionTreeNode#contains(Region)} comes down to two integer
+ * comparisons, and subtrees are available as array ranges without walking.
+ * Paths and region codes are indexed as well, so
+ * {@link RegionTreeNode#getRegionTree(String)} is a single lookup.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class FlatRegionTree {
+
+	/** The nodes, in depth-first order. */
+	private final Node[] nodes;
+	/** The end (exclusive) of the subtree range of each node. */
+	private final int[] exits;
+	/** The positions of each region in {@link #nodes}. */
+	private final Map<Region, int[]> positions;
+	/** The positions of each region code in {@link #nodes}. */
+	private final Map<String, int[]> codePositions;
+	/** The position of each node by its path relative to the root. */
+	private final Map<String, Integer> pathIndex;
+
+	private FlatRegionTree(RegionTreeNode root) {
+		List<RegionTreeNode> sources = new ArrayList<RegionTreeNode>();
+		List<Integer> parents = new ArrayList<Integer>();
+		collect(root, -1, sources, parents);
+		int size = sources.size();
+		this.nodes = new Node[size];
+		this.exits = new int[size];
+		for (int i = 0; i < size; i++) {
+			int parent = parents.get(i);
+			Region region = sources.get(i).getRegion();
+			String path;
+			if (parent < 0) {
+				path = "";
+			} else if (parent == 0) {
+				path = region.getRegionCode();
+			} else {
+				path = nodes[parent].path + '/' + region.getRegionCode();
+			}
+			nodes[i] = new Node(this, i, region, parent < 0 ? null
+					: nodes[parent], path);
+		}
+		// children follow their parent, so the exits can be evaluated
+		// backwards, and the children added in order
+		for (int i = size - 1; i >= 0; i--) {
+			if (exits[i] == 0) {
+				exits[i] = i + 1;
+			}
+			int parent = parents.get(i);
+			if (parent >= 0 && exits[parent] < exits[i]) {
+				exits[parent] = exits[i];
+			}
+		}
+		for (int i = 1; i < size; i++) {
+			nodes[parents.get(i)].getChildNodes().add(nodes[i]);
+		}
+		Map<Region, int[]> regionPositions = new HashMap<Region, int[]>();
+		Map<String, int[]> regionCodePositions = new HashMap<String, int[]>();
+		Map<String, Integer> paths = new HashMap<String, Integer>();
+		for (int i = 0; i < size; i++) {
+			Region region = nodes[i].getRegion();
+			addPosition(regionPositions, region, i);
+			addPosition(regionCodePositions, region.getRegionCode(), i);
+			if (!paths.containsKey(nodes[i].path)) {
+				paths.put(nodes[i].path, i);
+			}
+		}
+		this.positions = regionPositions;
+		this.codePositions = regionCodePositions;
+		this.pathIndex = paths;
+		for (Node node : nodes) {
+			node.seal();
+		}
+	}
+
+	private static <K> void addPosition(Map<K, int[]> map, K key, int index) {
+		int[] pos = map.get(key);
+		if (pos == null) {
+			pos = new int[] { index };
+		} else {
+			pos = Arrays.copyOf(pos, pos.length + 1);
+			pos[pos.length - 1] = index;
+		}
+		map.put(key, pos);
+	}
+
+	private static void collect(RegionTreeNode node, int parent,
+			List<RegionTreeNode> sources, List<Integer> parents) {
+		int index = sources.size();
+		sources.add(node);
+		parents.add(parent);
+		for (RegionTreeNode child : node.getChildren()) {
+			collect(child, index, sources, parents);
+		}
+	}
+
+	/**
+	 * Creates a flattened copy of the tree with the given root.
+	 * 
+	 * @param root
+	 *            the root node, not {@code null}.
+	 * @return the flattened tree, never {@code null}.
+	 */
+	public static FlatRegionTree of(RegionTreeNode root) {
+		if (root == null) {
+			throw new IllegalArgumentException("root is required.");
+		}
+		return new FlatRegionTree(root);
+	}
+
+	/**
+	 * Access the root node.
+	 * 
+	 * @return the root node, never {@code null}.
+	 */
+	public Node getRoot() {
+		return nodes[0];
+	}
+
+	/**
+	 * Get the number of nodes.
+	 * 
+	 * @return the number of nodes.
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Access the first node, in depth-first order, with the given region.
+	 * 
+	 * @param region
+	 *            the region.
+	 * @return the node, or {@code null}, if the region is not part of this
+	 *         tree.
+	 */
+	public Node getNode(Region region) {
+		int[] pos = positions.get(region);
+		if (pos == null) {
+			return null;
+		}
+		return nodes[pos[0]];
+	}
+
+	private boolean isDescendant(int index, Region region) {
+		return firstDescendant(index, positions.get(region)) >= 0;
+	}
+
+	private int firstDescendant(int index, int[] pos) {
+		if (pos == null) {
+			return -1;
+		}
+		int exit = exits[index];
+		for (int p : pos) {
+			if (p > index && p < exit) {
+				return p;
+			}
+		}
+		return -1;
+	}
+
+	private Node getNode(Node base, String path) {
+		String key = AbstractRegionNode.normalizePath(path);
+		if (key.isEmpty()) {
+			return base;
+		}
+		if (!base.path.isEmpty()) {
+			key = base.path + '/' + key;
+		}
+		Integer pos = pathIndex.get(key);
+		if (pos == null) {
+			return null;
+		}
+		return nodes[pos];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "FlatRegionTree [root=" + nodes[0].getRegion() + ", size="
+				+ nodes.length + "]";
+	}
+
+	/**
+	 * A node of a {@link FlatRegionTree}. As all {@link AbstractRegionNode}
+	 * instances, nodes are equal if their regions and parents are equal.
+	 */
+	public static final class Node extends AbstractRegionNode {
+		/** The tree. */
+		private final FlatRegionTree tree;
+		/** The position within the tree. */
+		private final int index;
+		/** The path relative to the root, empty for the root. */
+		private final String path;
+		/** The immutable children view. */
+		private List<RegionTreeNode> children;
+
+		Node(FlatRegionTree tree, int index, Region region, Node parent,
+				String path) {
+			this.tree = tree;
+			this.index = index;
+			this.path = path;
+			setRegion(region);
+			setParent(parent);
+		}
+
+		void seal() {
+			this.children = Collections.unmodifiableList(getChildNodes());
+		}
+
+		/**
+		 * Access the tree this node belongs to.
+		 * 
+		 * @return the tree, never {@code null}.
+		 */
+		public FlatRegionTree getTree() {
+			return tree;
+		}
+
+		/**
+		 * Access all direct and indirect children, in depth-first order.
+		 * 
+		 * @return an immutable view of the range of the tree's nodes
+		 *         following this node, never {@code null}.
+		 */
+		public List<RegionTreeNode> getDescendants() {
+			return Collections.unmodifiableList(Arrays
+					.<RegionTreeNode> asList(tree.nodes).subList(index + 1,
+							tree.exits[index]));
+		}
+
+		/**
+		 * Checks if the given node is a direct or indirect child of this
+		 * node.
+		 * 
+		 * @param node
+		 *            the node.
+		 * @return {@code true}, if the node belongs to the same tree and is
+		 *         within this node's subtree.
+		 */
+		public boolean isAncestorOf(RegionTreeNode node) {
+			if (!(node instanceof Node) || ((Node) node).tree != tree) {
+				return false;
+			}
+			int other = ((Node) node).index;
+			return other > index && other < tree.exits[index];
+		}
+
+		@Override
+		public Collection<RegionTreeNode> getChildren() {
+			return children;
+		}
+
+		@Override
+		public boolean contains(Region region) {
+			return region != null && tree.isDescendant(index, region);
+		}
+
+		@Override
+		public RegionTreeNode getRegionTree(String path) {
+			return tree.getNode(this, path);
+		}
+
+		@Override
+		public RegionTreeNode findRegionTree(String regionCode) {
+			int pos = tree.firstDescendant(index,
+					tree.codePositions.get(regionCode));
+			if (pos < 0) {
+				return null;
+			}
+			return tree.nodes[pos];
+		}
+
+		@Override
+		protected RegionTreeNode getRegionNode(String code) {
+			if (code.indexOf('/') >= 0) {
+				return null;
+			}
+			return tree.getNode(this, code);
+		}
+
+		@Override
+		public Collection<RegionTreeNode> select(
+				MonetaryPredicate<Region> filter) {
+			List<RegionTreeNode> result = null;
+			for (RegionTreeNode regionNode : children) {
+				if (filter.test(regionNode.getRegion())) {
+					if (result == null) {
+						result = new ArrayList<RegionTreeNode>();
+					}
+					result.add(regionNode);
+				}
+			}
+			if (result == null) {
+				return Collections.emptyList();
+			}
+			return result;
+		}
+	}
+
+}
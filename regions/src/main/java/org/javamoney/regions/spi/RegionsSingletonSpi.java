@@ -43,11 +43,9 @@ public interface RegionsSingletonSpi {
 	 *            The {@link RegionType}
 	 * @param numericId
 	 *            The numeric id.
-	 * @return The matching {@link Region}..
-	 * @throws IllegalArgumentException
-	 *             if the {@link Region} instances matching are ambiguous, or no
-	 *             such {@link Region} could be provided by any of the
-	 *             registered {@link RegionProviderSpi} instances.
+	 * @return The matching {@link Region}, or {@code null}, if no such
+	 *         {@link Region} could be provided by any of the registered
+	 *         {@link RegionProviderSpi} instances.
 	 */
 	public Region getRegion(RegionType type, int numericId);
 
@@ -58,11 +56,9 @@ public interface RegionsSingletonSpi {
 	 *            The {@link RegionType}
 	 * @param numericId
 	 *            The numeric id.
-	 * @return The matching {@link Region}, or {@code null}.
-	 * @throws IllegalArgumentException
-	 *             if the {@link Region} instances matching are ambiguous, or no
-	 *             such {@link Region} could be provided by any of the
-	 *             registered {@link RegionProviderSpi} instances.
+	 * @return The matching {@link Region}, or {@code null}, if no such
+	 *         {@link Region} could be provided by any of the registered
+	 *         {@link RegionProviderSpi} instances.
 	 */
 	public Region getRegion(RegionType type, String code);
 
@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.regions.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.javamoney.regions.Region;
+import org.javamoney.regions.RegionType;
+import org.javamoney.regions.spi.ExtendedRegionDataProviderSpi;
+import org.javamoney.regions.spi.RegionProviderSpi;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests class for {@link DefaultRegionsSingleton}.
+ */
+public class DefaultRegionsSingletonTest {
+
+	private static final TestProvider PROVIDER = new TestProvider();
+
+	private static final TestDataProvider DATA_PROVIDER = new TestDataProvider();
+
+	@Before
+	public void setUp() {
+		PROVIDER.lookups.set(0);
+		PROVIDER.listings.set(0);
+		DATA_PROVIDER.typeLookups.set(0);
+	}
+
+	@Test
+	public void testIndexedOnInit() {
+		DefaultRegionsSingleton regions = new TestRegionsSingleton();
+		assertEquals(Collections.singleton(RegionType.TERRITORY),
+				regions.getRegionTypes());
+		assertEquals(1, PROVIDER.listings.get());
+		assertSame(TestProvider.CH,
+				regions.getRegion(RegionType.TERRITORY, "CH"));
+		assertSame(TestProvider.CH, regions.getRegion(RegionType.TERRITORY, 756));
+		assertSame(TestProvider.DE, regions.getRegion(RegionType.TERRITORY, "DE"));
+		assertEquals(0, PROVIDER.lookups.get());
+		assertEquals(2, regions.getRegions(RegionType.TERRITORY).size());
+		assertEquals(2, regions.getRegions(RegionType.TERRITORY).size());
+		assertEquals(1, PROVIDER.listings.get());
+	}
+
+	@Test
+	public void testLazyProviderLookupBeforeListing() {
+		DefaultRegionsSingleton regions = new TestRegionsSingleton(false);
+		assertSame(TestProvider.CH,
+				regions.getRegion(RegionType.TERRITORY, "CH"));
+		assertSame(TestProvider.CH,
+				regions.getRegion(RegionType.TERRITORY, "CH"));
+		assertEquals(1, PROVIDER.lookups.get());
+		assertEquals(0, PROVIDER.listings.get());
+		// listing the type indexes its regions
+		regions.getRegions(RegionType.TERRITORY);
+		assertSame(TestProvider.DE, regions.getRegion(RegionType.TERRITORY, 276));
+		assertSame(TestProvider.CH,
+				regions.getRegion(RegionType.TERRITORY, "CH"));
+		assertEquals(1, PROVIDER.lookups.get());
+	}
+
+	@Test
+	public void testMissReturnsNull() {
+		DefaultRegionsSingleton regions = new TestRegionsSingleton();
+		assertNull(regions.getRegion(RegionType.TERRITORY, "XX"));
+		assertNull(regions.getRegion(RegionType.TERRITORY, 999));
+		assertNull(regions.getRegion(RegionType.CONTINENT, "CH"));
+		assertNull(regions.getRegion(new Locale("", "XX")));
+		assertNull(regions.getRegion((RegionType) null, "CH"));
+		assertNull(regions.getRegion(RegionType.TERRITORY, null));
+		assertNull(regions.getRegion((Locale) null));
+		assertTrue(regions.getRegions(RegionType.CONTINENT).isEmpty());
+		assertTrue(regions.getRegions(null).isEmpty());
+	}
+
+	@Test
+	public void testProviderExceptionIsMiss() {
+		DefaultRegionsSingleton regions = new TestRegionsSingleton();
+		assertNull(regions.getRegion(RegionType.TERRITORY, TestProvider.FAIL));
+		assertNull(regions.getRegion(RegionType.TERRITORY, -2));
+		assertNull(regions.getRegion(new Locale("", TestProvider.FAIL)));
+		assertEquals(3, PROVIDER.lookups.get());
+		// the failures are cached as misses
+		assertNull(regions.getRegion(RegionType.TERRITORY, TestProvider.FAIL));
+		assertNull(regions.getRegion(RegionType.TERRITORY, -2));
+		assertNull(regions.getRegion(new Locale("", TestProvider.FAIL)));
+		assertEquals(3, PROVIDER.lookups.get());
+	}
+
+	@Test
+	public void testNegativeCaching() {
+		DefaultRegionsSingleton regions = new TestRegionsSingleton();
+		assertNull(regions.getRegion(RegionType.TERRITORY, "XX"));
+		assertNull(regions.getRegion(RegionType.TERRITORY, 999));
+		assertNull(regions.getRegion(new Locale("", "XX")));
+		assertEquals(3, PROVIDER.lookups.get());
+		assertNull(regions.getRegion(RegionType.TERRITORY, "XX"));
+		assertNull(regions.getRegion(RegionType.TERRITORY, 999));
+		assertNull(regions.getRegion(new Locale("", "XX")));
+		assertEquals(3, PROVIDER.lookups.get());
+	}
+
+	@Test
+	public void testLocaleLookupCached() {
+		DefaultRegionsSingleton regions = new TestRegionsSingleton();
+		Locale locale = new Locale("de", "CH");
+		assertSame(TestProvider.CH, regions.getRegion(locale));
+		assertSame(TestProvider.CH, regions.getRegion(locale));
+		assertEquals(1, PROVIDER.lookups.get());
+	}
+
+	@Test
+	public void testReloadDiscardsCaches() {
+		DefaultRegionsSingleton regions = new TestRegionsSingleton();
+		assertNull(regions.getRegion(RegionType.TERRITORY, "XX"));
+		assertEquals(1, PROVIDER.lookups.get());
+		assertEquals(1, PROVIDER.listings.get());
+		regions.reload();
+		assertEquals(2, PROVIDER.listings.get());
+		assertNull(regions.getRegion(RegionType.TERRITORY, "XX"));
+		assertEquals(2, PROVIDER.lookups.get());
+		regions.getRegions(RegionType.TERRITORY);
+		assertEquals(2, PROVIDER.listings.get());
+	}
+
+	@Test
+	public void testExtendedRegionData() {
+		DefaultRegionsSingleton regions = new TestRegionsSingleton();
+		assertEquals(Collections.singleton(String.class),
+				regions.getExtendedRegionDataTypes(TestProvider.CH));
+		assertEquals("data-CH",
+				regions.getExtendedRegionData(TestProvider.CH, String.class));
+		assertEquals("data-CH",
+				regions.getExtendedRegionData(TestProvider.CH, String.class));
+		assertNull(regions.getExtendedRegionData(TestProvider.CH,
+				Integer.class));
+		// the provider's types are evaluated once per region
+		assertEquals(1, DATA_PROVIDER.typeLookups.get());
+		assertTrue(regions.getExtendedRegionDataTypes(TestProvider.DE)
+				.isEmpty());
+		assertNull(regions.getExtendedRegionData(TestProvider.DE,
+				String.class));
+		assertEquals(2, DATA_PROVIDER.typeLookups.get());
+		assertTrue(regions.getExtendedRegionDataTypes(null).isEmpty());
+		assertNull(regions.getExtendedRegionData(null, String.class));
+	}
+
+	/**
+	 * Singleton loading only the {@link TestProvider} and the
+	 * {@link TestDataProvider}.
+	 */
+	private static final class TestRegionsSingleton extends
+			DefaultRegionsSingleton {
+		private final boolean indexedOnInit;
+
+		TestRegionsSingleton() {
+			this(true);
+		}
+
+		TestRegionsSingleton(boolean indexedOnInit) {
+			this.indexedOnInit = indexedOnInit;
+			reload();
+		}
+
+		@Override
+		protected <T> Collection<T> loadServices(Class<T> type) {
+			if (type == RegionProviderSpi.class) {
+				return Collections.singletonList(type.cast(PROVIDER));
+			}
+			if (type == ExtendedRegionDataProviderSpi.class) {
+				return Collections.singletonList(type.cast(DATA_PROVIDER));
+			}
+			return Collections.emptyList();
+		}
+
+		@Override
+		protected boolean isIndexedOnInit(RegionProviderSpi provider) {
+			return indexedOnInit;
+		}
+	}
+
+	/**
+	 * Extended data provider serving a {@link String} for CH, counting the
+	 * type lookups.
+	 */
+	private static final class TestDataProvider implements
+			ExtendedRegionDataProviderSpi {
+		final AtomicInteger typeLookups = new AtomicInteger();
+
+		@Override
+		public Collection<Class> getExtendedRegionDataTypes(Region region) {
+			typeLookups.incrementAndGet();
+			if (region == TestProvider.CH) {
+				return Collections.<Class> singleton(String.class);
+			}
+			return Collections.emptySet();
+		}
+
+		@Override
+		public <T> T getExtendedRegionData(Region region, Class<T> type) {
+			if (region == TestProvider.CH && type == String.class) {
+				return type.cast("data-" + region.getRegionCode());
+			}
+			return null;
+		}
+	}
+
+	private static final class TestRegion implements Region {
+		private final String code;
+		private final int numericCode;
+
+		TestRegion(String code, int numericCode) {
+			this.code = code;
+			this.numericCode = numericCode;
+		}
+
+		@Override
+		public RegionType getRegionType() {
+			return RegionType.TERRITORY;
+		}
+
+		@Override
+		public String getRegionCode() {
+			return code;
+		}
+
+		@Override
+		public int getNumericRegionCode() {
+			return numericCode;
+		}
+
+		@Override
+		public Collection<String> getTimezoneIds() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Locale getLocale() {
+			return new Locale("", code);
+		}
+	}
+
+	/**
+	 * Provider listing two territories, counting the listings and lookups
+	 * dispatched to it, and failing for {@link #FAIL} and negative numeric codes.
+	 */
+	private static final class TestProvider implements RegionProviderSpi {
+		static final String FAIL = "FAIL";
+		static final Region CH = new TestRegion("CH", 756);
+		static final Region DE = new TestRegion("DE", 276);
+
+		final AtomicInteger lookups = new AtomicInteger();
+		final AtomicInteger listings = new AtomicInteger();
+
+		@Override
+		public Collection<RegionType> getRegionTypes() {
+			return Collections.singleton(RegionType.TERRITORY);
+		}
+
+		@Override
+		public Collection<Region> getRegions(RegionType type) {
+			listings.incrementAndGet();
+			return list(type);
+		}
+
+		private Collection<Region> list(RegionType type) {
+			if (RegionType.TERRITORY.equals(type)) {
+				return Arrays.asList(CH, DE);
+			}
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Region getRegion(RegionType type, String identifier) {
+			lookups.incrementAndGet();
+			if (FAIL.equals(identifier)) {
+				throw new IllegalArgumentException("Unknown region: "
+						+ identifier);
+			}
+			for (Region region : list(type)) {
+				if (region.getRegionType().equals(type)
+						&& region.getRegionCode().equals(identifier)) {
+					return region;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public Region getRegion(RegionType type, int numericId) {
+			lookups.incrementAndGet();
+			if (numericId < 0) {
+				throw new IllegalArgumentException("Unknown region: "
+						+ numericId);
+			}
+			for (Region region : list(type)) {
+				if (region.getRegionType().equals(type)
+						&& region.getNumericRegionCode() == numericId) {
+					return region;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public Region getRegion(Locale locale) {
+			lookups.incrementAndGet();
+			if (FAIL.equals(locale.getCountry())) {
+				throw new NullPointerException();
+			}
+			if ("CH".equals(locale.getCountry())) {
+				return CH;
+			}
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.regions.internal.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+
+import org.javamoney.regions.Region;
+import org.javamoney.regions.RegionType;
+import org.junit.Test;
+
+/**
+ * Tests class for {@link ISORegionProvider}, comparing the indexed lookups
+ * with a scan of all regions provided.
+ */
+public class ISORegionProviderTest {
+
+	private static final RegionType ISO = RegionType.of("ISO");
+
+	private final ISORegionProvider provider = new ISORegionProvider();
+
+	/**
+	 * Looks up a country by numeric code scanning all regions, as the
+	 * provider did before it was indexed.
+	 */
+	private Region scan(int numericId) {
+		for (Region region : provider.getRegions(ISO)) {
+			if (!(region instanceof ISOCountry)) {
+				continue;
+			}
+			int code;
+			try {
+				code = region.getNumericRegionCode();
+			} catch (RuntimeException e) {
+				continue;
+			}
+			if (code == numericId) {
+				return region;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Looks up a country by locale scanning all regions, as the provider did
+	 * before it was indexed.
+	 */
+	private Region scan(Locale locale) {
+		for (Region region : provider.getRegions(ISO)) {
+			if (locale.equals(region.getLocale())
+					&& region instanceof ISOCountry) {
+				return region;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testGetRegionByNumericCode() {
+		Region de = provider.getRegion(ISO, 276);
+		assertNotNull(de);
+		assertTrue(de instanceof ISOCountry);
+		assertEquals("DE", de.getRegionCode());
+		assertSame(scan(276), de);
+		assertSame(provider.getRegion(ISO, "DE"), de);
+		for (int code = 0; code < 1000; code++) {
+			assertSame(String.valueOf(code), scan(code),
+					provider.getRegion(ISO, code));
+		}
+	}
+
+	@Test
+	public void testGetRegionByLocale() {
+		Region de = provider.getRegion(new Locale("", "DE"));
+		assertNotNull(de);
+		assertTrue(de instanceof ISOCountry);
+		assertSame(provider.getRegion(ISO, 276), de);
+		assertSame(scan(new Locale("", "DE")), de);
+		for (String country : Locale.getISOCountries()) {
+			Locale locale = new Locale("", country);
+			assertSame(country, scan(locale), provider.getRegion(locale));
+		}
+		assertNull(provider.getRegion(Locale.GERMAN));
+		assertNull(provider.getRegion(Locale.GERMANY));
+	}
+
+	@Test
+	public void testGetRegionByNumericCodeOutOfRange() {
+		assertNull(provider.getRegion(ISO, -1));
+		assertNull(provider.getRegion(ISO, -276));
+		assertNull(provider.getRegion(ISO, 1000));
+		assertNull(provider.getRegion(ISO, 1276));
+		assertNull(provider.getRegion(ISO, Integer.MAX_VALUE));
+		assertNull(provider.getRegion(ISO, Integer.MIN_VALUE));
+	}
+
+	@Test
+	public void testGetRegionOtherType() {
+		assertNull(provider.getRegion(RegionType.TERRITORY, 276));
+		assertNull(provider.getRegion(RegionType.of("ISO3"), 276));
+		assertNull(provider.getRegion(RegionType.TERRITORY, "DE"));
+		assertTrue(provider.getRegions(RegionType.TERRITORY).isEmpty());
+	}
+
+}
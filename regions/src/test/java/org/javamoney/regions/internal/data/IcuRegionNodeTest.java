@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.regions.internal.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.javamoney.regions.Region;
+import org.javamoney.regions.RegionTreeNode;
+import org.javamoney.regions.RegionType;
+import org.javamoney.regions.spi.AbstractRegionNode;
+import org.javamoney.regions.spi.BuildableRegionNode;
+import org.javamoney.regions.spi.FlatRegionTree;
+import org.junit.Test;
+
+/**
+ * Tests class for {@link IcuRegionNode}, comparing the lazily created tree
+ * with a tree created eagerly from the same ICU4J containment data.
+ */
+public class IcuRegionNodeTest {
+
+	private static final String[] CODES = new String[] { "001", "150", "155",
+			"EU", "019", "021", "DE", "FR", "CH", "GB", "US", "ZZ" };
+
+	private final ICURegionProvider provider = new ICURegionProvider();
+
+	private IcuRegionNode createRoot() {
+		return new IcuRegionNode(provider, (IcuRegion) provider.getRegion(
+				RegionType.WORLD, "001"), null);
+	}
+
+	private Region getRegion(String code) {
+		com.ibm.icu.util.Region icuRegion = com.ibm.icu.util.Region
+				.getInstance(code);
+		return provider.getRegion(RegionType.of(icuRegion.getType().name()),
+				code);
+	}
+
+	/**
+	 * Creates the tree eagerly, as the CLDR tree was created before nodes
+	 * were created lazily.
+	 */
+	private RegionTreeNode createEager(IcuRegion region) {
+		List<RegionTreeNode> children = new ArrayList<RegionTreeNode>();
+		for (com.ibm.icu.util.Region rt : region.getIcuRegion()
+				.getContainedRegions()) {
+			Region child = provider.getRegion(
+					RegionType.of(rt.getType().name()), rt.toString());
+			if (child instanceof IcuRegion) {
+				children.add(createEager((IcuRegion) child));
+			}
+		}
+		return new BuildableRegionNode(region, null, children);
+	}
+
+	private static Map<String, RegionTreeNode> childrenByCode(
+			RegionTreeNode node) {
+		Map<String, RegionTreeNode> children = new HashMap<String, RegionTreeNode>();
+		for (RegionTreeNode child : node.getChildren()) {
+			children.put(child.getRegion().getRegionCode(), child);
+		}
+		return children;
+	}
+
+	private static String code(RegionTreeNode node) {
+		return node == null ? null : node.getRegion().getRegionCode();
+	}
+
+	@Test
+	public void testLazyMaterialization() {
+		IcuRegionNode root = createRoot();
+		assertFalse(root.isMaterialized());
+		assertTrue(root.contains(getRegion("DE")));
+		assertFalse(root.isMaterialized());
+
+		RegionTreeNode de = root.findRegionTree("DE");
+		assertNotNull(de);
+		assertEquals("DE", code(de));
+		assertTrue(root.isMaterialized());
+		assertEquals("155", code(de.getParent()));
+		assertEquals("150", code(de.getParent().getParent()));
+		assertSame(root, de.getParent().getParent().getParent());
+		assertTrue(((IcuRegionNode) de.getParent().getParent())
+				.isMaterialized());
+		assertFalse(((IcuRegionNode) de).isMaterialized());
+
+		IcuRegionNode americas = (IcuRegionNode) root.getRegionTree("019");
+		assertNotNull(americas);
+		assertFalse(americas.isMaterialized());
+		assertSame(de, root.getRegionTree("150/155/DE"));
+	}
+
+	private static void materializeAll(RegionTreeNode node) {
+		for (RegionTreeNode child : node.getChildren()) {
+			materializeAll(child);
+		}
+	}
+
+	@Test
+	public void testFlattenedOnceComplete() {
+		IcuRegionNode root = createRoot();
+		assertFalse(root.isComplete());
+		assertNull(root.getFlatNode());
+		assertTrue(((IcuRegionNode) root.findRegionTree("DE")).isComplete());
+
+		IcuRegionNode western = (IcuRegionNode) root.getRegionTree("150/155");
+		IcuRegionNode europe = (IcuRegionNode) western.getParent();
+		assertTrue(western.isComplete());
+		assertFalse(europe.isComplete());
+		assertNull(europe.getFlatNode());
+		FlatRegionTree.Node flat = western.getFlatNode();
+		assertNotNull(flat);
+		assertSame(western.getRegion(), flat.getRegion());
+		assertSame(flat.getTree().getRoot(), flat);
+		assertTrue(western.contains(getRegion("DE")));
+		assertFalse(western.contains(getRegion("US")));
+		assertFalse(western.contains(null));
+
+		materializeAll(root);
+		assertTrue(europe.isComplete());
+		assertTrue(root.isComplete());
+		FlatRegionTree tree = root.getFlatNode().getTree();
+		assertSame(root.getFlatNode(), tree.getRoot());
+		assertSame(tree, western.getFlatNode().getTree());
+		assertSame(tree.getRoot().getRegionTree("150/155"),
+				western.getFlatNode());
+		RegionTreeNode eager = createEager((IcuRegion) root.getRegion());
+		for (String code : CODES) {
+			Region region = getRegion(code);
+			assertEquals(code, eager.contains(region), root.contains(region));
+			assertEquals(code,
+					eager.getRegionTree("150").contains(region),
+					europe.contains(region));
+			assertEquals(code, root.getRegion().equals(region)
+					|| ((IcuRegion) root.getRegion()).getIcuRegion().contains(
+							((IcuRegion) region).getIcuRegion()),
+					root.contains(region) || root.getRegion().equals(region));
+		}
+	}
+
+	@Test
+	public void testAgreesWithEagerTree() {
+		IcuRegionNode root = createRoot();
+		RegionTreeNode eager = createEager((IcuRegion) root.getRegion());
+		List<Region> regions = new ArrayList<Region>();
+		for (String code : CODES) {
+			Region region = getRegion(code);
+			if (region != null) {
+				regions.add(region);
+			}
+		}
+		compare(root, eager, regions, "");
+	}
+
+	private void compare(RegionTreeNode lazy, RegionTreeNode eager,
+			List<Region> regions, String path) {
+		assertSame(eager.getRegion(), lazy.getRegion());
+		Map<String, RegionTreeNode> lazyChildren = childrenByCode(lazy);
+		Map<String, RegionTreeNode> eagerChildren = childrenByCode(eager);
+		assertEquals(path, eagerChildren.keySet(), lazyChildren.keySet());
+		assertEquals(eager.getChildren().size(), lazy.getChildren().size());
+		for (Region region : regions) {
+			String code = region.getRegionCode();
+			assertEquals(path + ", " + code, eager.contains(region),
+					lazy.contains(region));
+			assertEquals(path + ", " + code,
+					code(((AbstractRegionNode) eager).findRegionTree(code)),
+					code(((AbstractRegionNode) lazy).findRegionTree(code)));
+		}
+		for (Map.Entry<String, RegionTreeNode> en : lazyChildren.entrySet()) {
+			assertSame(en.getValue(), lazy.getRegionTree(en.getKey()));
+			assertSame(lazy, en.getValue().getParent());
+			compare(en.getValue(), eagerChildren.get(en.getKey()), regions,
+					path + '/' + en.getKey());
+		}
+		assertNull(lazy.getRegionTree("XX"));
+	}
+
+	@Test
+	public void testConcurrentFirstAccess() throws InterruptedException {
+		final IcuRegionNode root = createRoot();
+		final CountDownLatch start = new CountDownLatch(1);
+		final int threadCount = 8;
+		final RegionTreeNode[] found = new RegionTreeNode[threadCount];
+		final int[] childCounts = new int[threadCount];
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < threadCount; i++) {
+			final int index = i;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					childCounts[index] = root.getChildren().size();
+					found[index] = root.getRegionTree("150/155");
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join(TimeUnit.SECONDS.toMillis(30));
+		}
+		Collection<RegionTreeNode> children = root.getChildren();
+		Set<String> codes = new HashSet<String>();
+		for (RegionTreeNode child : children) {
+			assertTrue(codes.add(code(child)));
+		}
+		assertEquals("001", root.getRegion().getRegionCode());
+		for (int i = 0; i < threadCount; i++) {
+			assertEquals(children.size(), childCounts[i]);
+			assertNotNull(found[i]);
+			assertSame(found[0], found[i]);
+		}
+		assertEquals("155", code(found[0]));
+	}
+
+}
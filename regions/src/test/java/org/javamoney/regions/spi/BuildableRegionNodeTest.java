@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.regions.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.javamoney.regions.Region;
+import org.javamoney.regions.RegionTreeNode;
+import org.javamoney.regions.RegionType;
+import org.junit.Test;
+
+/**
+ * Tests class for {@link BuildableRegionNode}, checking the lookups backed by
+ * the shared tree index.
+ */
+public class BuildableRegionNodeTest {
+
+	private static final Region WORLD = new TestRegion("001", RegionType.WORLD);
+	private static final Region EUROPE = new TestRegion("150",
+			RegionType.CONTINENT);
+	private static final Region WESTERN_EUROPE = new TestRegion("155",
+			RegionType.SUBCONTINENT);
+	private static final Region EU = new TestRegion("EU", RegionType.GROUPING);
+	private static final Region AMERICAS = new TestRegion("019",
+			RegionType.CONTINENT);
+	private static final Region DE = new TestRegion("DE", RegionType.TERRITORY);
+	private static final Region FR = new TestRegion("FR", RegionType.TERRITORY);
+	private static final Region US = new TestRegion("US", RegionType.TERRITORY);
+
+	private final BuildableRegionNode western = build(WESTERN_EUROPE,
+			build(DE), build(FR));
+	private final BuildableRegionNode eu = build(EU, build(DE), build(FR));
+	private final BuildableRegionNode europe = build(EUROPE, western, eu);
+	private final BuildableRegionNode americas = build(AMERICAS, build(US));
+	private final BuildableRegionNode world = build(WORLD, europe, americas);
+
+	private static BuildableRegionNode build(Region region,
+			RegionTreeNode... children) {
+		return new BuildableRegionNode.Builder(region).addChildRegions(
+				children).build();
+	}
+
+	private static RegionTreeNode child(RegionTreeNode node, Region region) {
+		for (RegionTreeNode child : node.getChildren()) {
+			if (child.getRegion() == region) {
+				return child;
+			}
+		}
+		return null;
+	}
+
+	private static RegionTreeNode walk(RegionTreeNode node, String code) {
+		for (RegionTreeNode child : node.getChildren()) {
+			if (child.getRegion().getRegionCode().equals(code)) {
+				return child;
+			}
+			RegionTreeNode found = walk(child, code);
+			if (found != null) {
+				return found;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testGetRegionTree() {
+		RegionTreeNode de = child(western, DE);
+		assertSame(world, world.getRegionTree(""));
+		assertSame(world, world.getRegionTree("/"));
+		assertSame(europe, world.getRegionTree("150"));
+		assertSame(de, world.getRegionTree("150/155/DE"));
+		assertSame(de, world.getRegionTree("/150//155/DE/"));
+		assertSame(child(eu, DE), world.getRegionTree("150/EU/DE"));
+		assertSame(de, europe.getRegionTree("155/DE"));
+		assertSame(de, western.getRegionTree("DE"));
+		assertSame(western, western.getRegionTree(""));
+		assertSame(child(americas, US), americas.getRegionTree("US"));
+	}
+
+	@Test
+	public void testGetRegionTreeUnresolvable() {
+		assertNull(world.getRegionTree("XX"));
+		assertNull(world.getRegionTree("150/XX"));
+		assertNull(world.getRegionTree("DE"));
+		assertNull(world.getRegionTree("150/155/DE/XX"));
+		assertNull(europe.getRegionTree("150/155"));
+		assertNull(western.getRegionTree("FR/DE"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetRegionTreeNull() {
+		world.getRegionTree(null);
+	}
+
+	@Test
+	public void testFindRegionTree() {
+		// the first occurrence in depth-first order wins, the builder does
+		// not keep the children's order
+		assertSame(walk(world, "DE"), world.findRegionTree("DE"));
+		assertSame(walk(europe, "DE"), europe.findRegionTree("DE"));
+		assertSame(child(western, DE), western.findRegionTree("DE"));
+		assertSame(child(eu, DE), eu.findRegionTree("DE"));
+		assertSame(child(eu, FR), eu.findRegionTree("FR"));
+		assertSame(eu, world.findRegionTree("EU"));
+		assertNull(americas.findRegionTree("DE"));
+		assertNull(world.findRegionTree("001"));
+		assertNull(world.findRegionTree("XX"));
+	}
+
+	@Test
+	public void testLookupsAfterAttachingToParent() {
+		BuildableRegionNode subtree = build(EUROPE, build(WESTERN_EUROPE,
+				build(DE)));
+		RegionTreeNode de = subtree.getRegionTree("155/DE");
+		assertSame(de, subtree.findRegionTree("DE"));
+		BuildableRegionNode root = build(WORLD, subtree);
+		assertSame(root, subtree.getParent());
+		assertSame(de, subtree.getRegionTree("155/DE"));
+		assertSame(de, subtree.findRegionTree("DE"));
+		assertSame(de, root.getRegionTree("150/155/DE"));
+		assertSame(de, root.findRegionTree("DE"));
+		assertNull(subtree.getRegionTree("150/155/DE"));
+	}
+
+	@Test
+	public void testResolveAll() {
+		List<RegionTreeNode> nodes = world.resolveAll(Arrays.asList(
+				"150/155/DE", "XX", null, "", "019/US", "150/EU/FR"));
+		assertEquals(6, nodes.size());
+		assertSame(child(western, DE), nodes.get(0));
+		assertNull(nodes.get(1));
+		assertNull(nodes.get(2));
+		assertSame(world, nodes.get(3));
+		assertSame(child(americas, US), nodes.get(4));
+		assertSame(child(eu, FR), nodes.get(5));
+		assertEquals(Arrays.asList(child(western, FR), null),
+				europe.resolveAll(Arrays.asList("155/FR", "019")));
+		assertEquals(Collections.emptyList(),
+				world.resolveAll(Collections.<String> emptyList()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testResolveAllNull() {
+		world.resolveAll(null);
+	}
+
+	private static final class TestRegion implements Region {
+		private final String code;
+		private final RegionType type;
+
+		TestRegion(String code, RegionType type) {
+			this.code = code;
+			this.type = type;
+		}
+
+		@Override
+		public RegionType getRegionType() {
+			return type;
+		}
+
+		@Override
+		public String getRegionCode() {
+			return code;
+		}
+
+		@Override
+		public int getNumericRegionCode() {
+			return -1;
+		}
+
+		@Override
+		public Collection<String> getTimezoneIds() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Locale getLocale() {
+			return null;
+		}
+
+		@Override
+		public String toString() {
+			return code;
+		}
+	}
+
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2012, 2013, Credit Suisse (Anatole Tresch), Werner Keil.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.javamoney.regions.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.javamoney.regions.Region;
+import org.javamoney.regions.RegionTreeNode;
+import org.javamoney.regions.RegionType;
+import org.junit.Test;
+
+/**
+ * Tests class for {@link FlatRegionTree}, comparing it with the
+ * {@link BuildableRegionNode} tree it was created from.
+ */
+public class FlatRegionTreeTest {
+
+	private static final Region WORLD = new TestRegion("001", RegionType.WORLD);
+	private static final Region EUROPE = new TestRegion("150",
+			RegionType.CONTINENT);
+	private static final Region WESTERN_EUROPE = new TestRegion("155",
+			RegionType.SUBCONTINENT);
+	private static final Region EU = new TestRegion("EU", RegionType.GROUPING);
+	private static final Region AMERICAS = new TestRegion("019",
+			RegionType.CONTINENT);
+	private static final Region NORTHERN_AMERICA = new TestRegion("021",
+			RegionType.SUBCONTINENT);
+	private static final Region DE = new TestRegion("DE", RegionType.TERRITORY);
+	private static final Region FR = new TestRegion("FR", RegionType.TERRITORY);
+	private static final Region US = new TestRegion("US", RegionType.TERRITORY);
+	private static final Region CH = new TestRegion("CH", RegionType.TERRITORY);
+
+	/** All regions, including one not part of the tree. */
+	private static final List<Region> REGIONS = Arrays.asList(WORLD, EUROPE,
+			WESTERN_EUROPE, EU, AMERICAS, NORTHERN_AMERICA, DE, FR, US, CH);
+
+	private final RegionTreeNode source = createSource();
+	private final FlatRegionTree tree = FlatRegionTree.of(source);
+	/** The source nodes in depth-first order. */
+	private final List<RegionTreeNode> sourceNodes = new ArrayList<RegionTreeNode>();
+	/** The flat nodes by their source node. */
+	private final Map<RegionTreeNode, RegionTreeNode> flatNodes = new IdentityHashMap<RegionTreeNode, RegionTreeNode>();
+
+	public FlatRegionTreeTest() {
+		map(source, tree.getRoot());
+	}
+
+	/**
+	 * Creates the tree, with DE and FR contained in both, Western Europe and
+	 * the EU.
+	 */
+	private static RegionTreeNode createSource() {
+		RegionTreeNode western = node(WESTERN_EUROPE, node(DE), node(FR));
+		RegionTreeNode eu = node(EU, node(DE), node(FR));
+		RegionTreeNode europe = node(EUROPE, western, eu);
+		RegionTreeNode americas = node(AMERICAS,
+				node(NORTHERN_AMERICA, node(US)));
+		return new BuildableRegionNode.Builder(WORLD).addChildRegions(europe,
+				americas).build();
+	}
+
+	private static RegionTreeNode node(Region region,
+			RegionTreeNode... children) {
+		return new BuildableRegionNode(region, null, Arrays.asList(children));
+	}
+
+	private void map(RegionTreeNode sourceNode, RegionTreeNode flatNode) {
+		sourceNodes.add(sourceNode);
+		flatNodes.put(sourceNode, flatNode);
+		assertSame(sourceNode.getRegion(), flatNode.getRegion());
+		assertEquals(sourceNode.getChildren().size(), flatNode.getChildren()
+				.size());
+		Collection<RegionTreeNode> flatChildren = flatNode.getChildren();
+		int i = 0;
+		for (RegionTreeNode flatChild : flatChildren) {
+			assertSame(flatNode, flatChild.getParent());
+			RegionTreeNode sourceChild = new ArrayList<RegionTreeNode>(
+					sourceNode.getChildren()).get(i++);
+			map(sourceChild, flatChild);
+		}
+	}
+
+	private RegionTreeNode flat(RegionTreeNode sourceNode) {
+		return sourceNode == null ? null : flatNodes.get(sourceNode);
+	}
+
+	private static RegionTreeNode find(RegionTreeNode node, String code) {
+		return ((AbstractRegionNode) node).findRegionTree(code);
+	}
+
+	private static void collectDescendants(RegionTreeNode node,
+			List<Region> regions) {
+		for (RegionTreeNode child : node.getChildren()) {
+			regions.add(child.getRegion());
+			collectDescendants(child, regions);
+		}
+	}
+
+	private static void collectPaths(RegionTreeNode node, String prefix,
+			List<String> paths) {
+		for (RegionTreeNode child : node.getChildren()) {
+			String path = prefix + child.getRegion().getRegionCode();
+			paths.add(path);
+			collectPaths(child, path + '/', paths);
+		}
+	}
+
+	@Test
+	public void testStructure() {
+		assertEquals(11, tree.size());
+		assertEquals(sourceNodes.size(), tree.size());
+		assertNull(tree.getRoot().getParent());
+		assertSame(WORLD, tree.getRoot().getRegion());
+		assertSame(tree.getRoot(), tree.getNode(WORLD));
+		assertSame(flat(source.getRegionTree("150/155/DE")), tree.getNode(DE));
+		assertNull(tree.getNode(CH));
+	}
+
+	@Test
+	public void testContains() {
+		for (RegionTreeNode sourceNode : sourceNodes) {
+			for (Region region : REGIONS) {
+				assertEquals(sourceNode + ", " + region,
+						sourceNode.contains(region), flat(sourceNode)
+								.contains(region));
+			}
+			assertFalse(flat(sourceNode).contains(null));
+		}
+		assertFalse(tree.getRoot().contains(WORLD));
+		assertTrue(tree.getRoot().contains(DE));
+	}
+
+	@Test
+	public void testGetDescendants() {
+		for (RegionTreeNode sourceNode : sourceNodes) {
+			List<Region> expected = new ArrayList<Region>();
+			collectDescendants(sourceNode, expected);
+			List<Region> actual = new ArrayList<Region>();
+			for (RegionTreeNode node : ((FlatRegionTree.Node) flat(sourceNode))
+					.getDescendants()) {
+				actual.add(node.getRegion());
+			}
+			assertEquals(expected, actual);
+		}
+		assertEquals(tree.size() - 1, tree.getRoot().getDescendants().size());
+	}
+
+	@Test
+	public void testIsAncestorOf() {
+		for (RegionTreeNode ancestor : sourceNodes) {
+			FlatRegionTree.Node flatAncestor = (FlatRegionTree.Node) flat(ancestor);
+			for (RegionTreeNode node : sourceNodes) {
+				boolean expected = false;
+				for (RegionTreeNode p = node.getParent(); p != null; p = p
+						.getParent()) {
+					if (p == ancestor) {
+						expected = true;
+					}
+				}
+				assertEquals(ancestor + ", " + node, expected,
+						flatAncestor.isAncestorOf(flat(node)));
+			}
+			assertFalse(flatAncestor.isAncestorOf(ancestor));
+			assertFalse(flatAncestor.isAncestorOf(null));
+		}
+		FlatRegionTree other = FlatRegionTree.of(source);
+		assertFalse(tree.getRoot().isAncestorOf(
+				other.getRoot().getRegionTree("150")));
+	}
+
+	@Test
+	public void testGetRegionTree() {
+		for (RegionTreeNode sourceNode : sourceNodes) {
+			List<String> paths = new ArrayList<String>();
+			collectPaths(sourceNode, "", paths);
+			paths.addAll(Arrays.asList("", "/", "XX", "150/XX", "DE/150"));
+			for (String path : paths) {
+				assertSame(sourceNode + ", " + path,
+						flat(sourceNode.getRegionTree(path)),
+						flat(sourceNode).getRegionTree(path));
+				assertSame(flat(sourceNode.getRegionTree(path)),
+						flat(sourceNode).getRegionTree("/" + path + "/"));
+			}
+		}
+		assertSame(tree.getRoot(), tree.getRoot().getRegionTree(""));
+		assertNotSame(tree.getRoot().getRegionTree("150/155/DE"), tree
+				.getRoot().getRegionTree("150/EU/DE"));
+	}
+
+	@Test
+	public void testFindRegionTree() {
+		for (RegionTreeNode sourceNode : sourceNodes) {
+			for (Region region : REGIONS) {
+				String code = region.getRegionCode();
+				assertSame(sourceNode + ", " + code,
+						flat(find(sourceNode, code)),
+						find(flat(sourceNode), code));
+			}
+		}
+		// the first occurrence in depth-first order wins
+		assertSame(tree.getRoot().getRegionTree("150/155/DE"), tree
+				.getRoot().findRegionTree("DE"));
+		assertSame(tree.getRoot().getRegionTree("150/EU/DE"),
+				find(tree.getRoot().getRegionTree("150/EU"), "DE"));
+		assertNull(tree.getRoot().findRegionTree("001"));
+	}
+
+	@Test
+	public void testEquality() {
+		FlatRegionTree other = FlatRegionTree.of(source);
+		assertEquals(tree.getRoot(), other.getRoot());
+		assertEquals(tree.getRoot().hashCode(), other.getRoot().hashCode());
+		assertEquals(tree.getRoot().getRegionTree("150/155/DE"), other
+				.getRoot().getRegionTree("150/155/DE"));
+		assertEquals(tree.getRoot().getRegionTree("150/155/DE").hashCode(),
+				other.getRoot().getRegionTree("150/155/DE").hashCode());
+		assertFalse(tree.getRoot().getRegionTree("150/155/DE")
+				.equals(tree.getRoot().getRegionTree("150/EU/DE")));
+	}
+
+	private static final class TestRegion implements Region {
+		private final String code;
+		private final RegionType type;
+
+		TestRegion(String code, RegionType type) {
+			this.code = code;
+			this.type = type;
+		}
+
+		@Override
+		public RegionType getRegionType() {
+			return type;
+		}
+
+		@Override
+		public String getRegionCode() {
+			return code;
+		}
+
+		@Override
+		public int getNumericRegionCode() {
+			return -1;
+		}
+
+		@Override
+		public Collection<String> getTimezoneIds() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Locale getLocale() {
+			return null;
+		}
+
+		@Override
+		public String toString() {
+			return code;
+		}
+	}
+
+}